@@ -0,0 +1,64 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.SimulatorResultDto;
+import com.example.co2.util.SimulatorKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/*
+	시뮬레이터 계산 1회분(calculate1 자립률/사용량 + calculate2 패널 계획, 정책 조회/일사량 조회 제외):
+	- reference : 기존 BigDecimal 연산 사슬(SimulatorService.*Reference)
+	- kernel    : 고정소수점 SimulatorKernel (입력은 미리 long 으로 변환, PanelPlan 재사용)
+
+	실행: ./gradlew jmh -PjmhInclude=SimulatorKernelBenchmark
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SimulatorKernelBenchmark {
+
+	private BigDecimal solar;
+	private BigDecimal energy;
+	private BigDecimal area;
+	private long solarFixed;
+	private long energyFixed;
+	private long areaFixed;
+	private int panelCount;
+	private final SimulatorKernel.PanelPlan plan = new SimulatorKernel.PanelPlan();
+
+	@Setup
+	public void setup() {
+		solar = new BigDecimal("1463.634");
+		energy = new BigDecimal("182340.5");
+		area = new BigDecimal("923.4");
+		solarFixed = SimulatorKernel.fixed(solar, SimulatorKernel.SOLAR_SCALE);
+		energyFixed = SimulatorKernel.fixed(energy, SimulatorKernel.INPUT_SCALE);
+		areaFixed = SimulatorKernel.fixed(area, SimulatorKernel.INPUT_SCALE);
+		panelCount = 120;
+	}
+
+	@Benchmark
+	public Object reference() {
+		SimulatorResultDto res = new SimulatorResultDto();
+		BigDecimal[] su = SimulatorService.selfSufficiencyReference(solar, 400, panelCount, energy, area);
+		SimulatorService.panelPlanReference(solar, 400, 8, 3, area, res);
+		res.setEnergySelf(su[0]);
+		return res;
+	}
+
+	@Benchmark
+	public long kernel() {
+		long self = SimulatorKernel.energySelf(solarFixed, 400, panelCount, energyFixed);
+		long usage = SimulatorKernel.usage(solarFixed, 400, panelCount, energyFixed, areaFixed);
+		SimulatorKernel.panelPlan(solarFixed, 400, 8, 3, areaFixed, plan);
+		return self + usage + plan.total();
+	}
+}
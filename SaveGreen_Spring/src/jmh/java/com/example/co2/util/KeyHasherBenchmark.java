@@ -0,0 +1,84 @@
+package com.example.co2.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/*
+	캐시 키 해시 비교(ForecastService 조회 경로 1회분):
+	- legacy      : 문자열 연결로 raw 키 생성 + 매번 MessageDigest.getInstance + Integer.toHexString (기존 HashUtils 구현)
+	- sha256Util  : 같은 문자열 + 개선된 HashUtils.sha256Hex(스레드별 다이제스트, hex 테이블)
+	- keySha256   : ForecastCacheKey(KeyHasher 버퍼, String 없음) + SHA-256
+	- keyMurmur3  : ForecastCacheKey(KeyHasher 버퍼, String 없음) + Murmur3 x64 128
+
+	실행: ./gradlew jmh -PjmhInclude=KeyHasherBenchmark
+	할당량까지 보려면 build.gradle jmh 블록에 profilers = ['gc'] 추가
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class KeyHasherBenchmark {
+
+	@Param({"923.4"})
+	public double floorArea;
+
+	private long buildingId;
+	private int from;
+	private int to;
+	private String use;
+	private String pnu;
+
+	@Setup
+	public void setup() {
+		buildingId = 1234L;
+		from = 2025;
+		to = 2032;
+		use = "공장";
+		pnu = "1111010100100010000";
+	}
+
+	@Benchmark
+	public String legacy() throws Exception {
+		final String raw = "v1|bld=" + buildingId + "|from=" + from + "|to=" + to
+				+ "|use=" + use + "|area=" + floorArea + "|pnu=" + pnu + "|builtYear=na|scenario=default";
+		final MessageDigest md = MessageDigest.getInstance("SHA-256");
+		final byte[] hash = md.digest(raw.getBytes(StandardCharsets.UTF_8));
+		final StringBuilder sb = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			final String hex = Integer.toHexString(0xff & b);
+			if (hex.length() == 1) sb.append('0');
+			sb.append(hex);
+		}
+		return sb.toString();
+	}
+
+	@Benchmark
+	public String sha256Util() {
+		final String raw = "v1|bld=" + buildingId + "|from=" + from + "|to=" + to
+				+ "|use=" + use + "|area=" + floorArea + "|pnu=" + pnu + "|builtYear=na|scenario=default";
+		return HashUtils.sha256Hex(raw);
+	}
+
+	@Benchmark
+	public String keySha256() {
+		return ForecastCacheKey.of(buildingId, from, to, null, null, use, floorArea, pnu, 1.0,
+				KeyHasher.Algorithm.SHA256).hash();
+	}
+
+	@Benchmark
+	public String keyMurmur3() {
+		return ForecastCacheKey.of(buildingId, from, to, null, null, use, floorArea, pnu, 1.0,
+				KeyHasher.Algorithm.MURMUR3_128).hash();
+	}
+}
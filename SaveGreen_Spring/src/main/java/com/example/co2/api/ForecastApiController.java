@@ -1,17 +1,19 @@
 package com.example.co2.api;
 
-import com.example.co2.dto.ForecastDtos.ForecastResponse;
 import com.example.co2.service.ForecastService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 /**
  * /api/forecast 엔드포인트
  * - /api/forecast            : buildingId 없이 (from/to + (builtYear>0 또는 pnu) 필요)
  * - /api/forecast/{id}       : buildingId 경로변수 사용
+ * - /api/forecast/cache/stats : 캐시 계층 지표(L1 hit/miss/eviction 등)
  *
  * 공통 규칙
  *  - 기본 구간: 현재년도(now) ~ now+10 (포함)
@@ -19,6 +21,7 @@ import java.time.LocalDate;
  *  - to < from 이면 스왑
  *  - builtYear <= 0 이면 무시(null)
  *  - (no-id 엔드포인트만) 컨텍스트 없으면 400
+ *  - 응답 바디는 캐시에 저장된 JSON 바이트를 그대로 전송(application/json, 재직렬화 없음)
  */
 @RestController
 @RequiredArgsConstructor
@@ -30,7 +33,7 @@ public class ForecastApiController {
 
     /** id 없음: /api/forecast?from=YYYY&to=YYYY&scenario=default&builtYear=2011&use=...&floorArea=...&pnu=... */
     @GetMapping("/api/forecast")
-    public ResponseEntity<ForecastResponse> getForecastNoId(
+    public ResponseEntity<byte[]> getForecastNoId(
             @RequestParam(required = false) Integer from,
             @RequestParam(required = false) Integer to,
             @RequestParam(required = false, defaultValue = "default") String scenario,
@@ -57,7 +60,7 @@ public class ForecastApiController {
             return ResponseEntity.badRequest().build();
         }
 
-        ForecastResponse res = forecastService.forecast(
+        byte[] body = forecastService.forecastJson(
                 null,          // buildingId 없음
                 yyFrom, yyTo,
                 scenario,
@@ -66,12 +69,12 @@ public class ForecastApiController {
                 floorArea,
                 pnu
         );
-        return ResponseEntity.ok(res);
+        return json(body);
     }
 
     /** id 버전: /api/forecast/{id}?from=YYYY&to=YYYY&scenario=...&builtYear=...&use=...&floorArea=...&pnu=... */
     @GetMapping("/api/forecast/{id}")
-    public ResponseEntity<ForecastResponse> getForecastById(
+    public ResponseEntity<byte[]> getForecastById(
             @PathVariable("id") Long buildingId,
             @RequestParam(required = false) Integer from,
             @RequestParam(required = false) Integer to,
@@ -92,7 +95,7 @@ public class ForecastApiController {
 
         Integer by = (builtYear != null && builtYear > 0) ? builtYear : null;
 
-        ForecastResponse res = forecastService.forecast(
+        byte[] body = forecastService.forecastJson(
                 buildingId,
                 yyFrom, yyTo,
                 scenario,
@@ -101,10 +104,23 @@ public class ForecastApiController {
                 floorArea,
                 pnu
         );
-        return ResponseEntity.ok(res);
+        return json(body);
+    }
+
+    /** 캐시 계층 지표: /api/forecast/cache/stats */
+    @GetMapping("/api/forecast/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(forecastService.cacheStats());
     }
 
     /* ---------- helpers ---------- */
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+
     private static boolean nonEmpty(String s) {
         return s != null && !s.trim().isEmpty();
     }
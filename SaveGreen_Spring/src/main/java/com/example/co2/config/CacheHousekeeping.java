@@ -8,7 +8,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+/*
+ * api_cache 하우스키핑
+ *  - 한 번의 무제한 DELETE 대신, 만료 행을 evict-batch-size 개씩 PK로 나눠 지우고 배치 사이에 쉰다.
+ *    (idx_api_cache_exp 로 PK 수집 → PK IN 삭제. 배치마다 별도 트랜잭션이라 락 보유 시간이 짧음)
+ *  - 기준: expires_at <= now - stale-grace. (created_at 조건은 제거 — upsert 갱신으로 살아있는 행까지 지우던 문제)
+ *    stale-grace 이내 행은 ForecastService가 stale로 응답하며 갱신하므로 남겨둔다.
+ *  - 한 회차 상한(evict-max-batches)을 넘으면 다음 스케줄로 넘긴다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -16,13 +25,48 @@ public class CacheHousekeeping {
 
     private final ApiCacheRepository repo;
 
-    @Value("${app.cache.ttl-minutes:30}")
-    private int ttlMinutes;
+    @Value("${app.cache.stale-grace-minutes:0}")
+    private int staleGraceMinutes;
+
+    @Value("${app.cache.evict-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.evict-pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${app.cache.evict-max-batches:1000}")
+    private int maxBatches;
 
     @Scheduled(cron = "${app.cache.evict-cron:0 */10 * * * *}") // 필요시 0 */30 * * * *
     public void evictExpired() {
-        var cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
-        int n = repo.deleteExpired(cutoff); // createdAt <= :cutoff 또는 expiresAt <= :cutoff
-        if (n > 0) log.info("api_cache evicted {} rows (cutoff={})", n, cutoff);
+        var cutoff = LocalDateTime.now().minusMinutes(staleGraceMinutes);
+        int total = 0;
+        int batches = 0;
+
+        while (batches < maxBatches) {
+            List<Long> ids = repo.findExpiredIds(cutoff, batchSize);
+            if (ids.isEmpty()) break;
+
+            total += repo.deleteExpiredByIds(ids, cutoff);
+            batches++;
+            if (ids.size() < batchSize) break; // 마지막 배치
+
+            if (!pause()) break;
+        }
+
+        if (total > 0) log.info("api_cache evicted {} rows in {} batches (cutoff={})", total, batches, cutoff);
+        if (batches >= maxBatches) log.info("api_cache eviction reached max batches ({}); continuing next run", maxBatches);
+    }
+
+    // 배치 사이 휴식(라이브 조회와 락/IO 경합 완화). 인터럽트되면 false
+    private boolean pause() {
+        if (pauseMs <= 0) return true;
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -1,12 +1,23 @@
 package com.example.co2.controller;
 
+import com.example.co2.dto.EnergyCubeDtos.CubeSlice;
+import com.example.co2.dto.EnergyPercentileDtos.PercentileQuery;
+import com.example.co2.dto.EnergyPercentileDtos.PercentileResult;
+import com.example.co2.dto.SimilarBuildingDtos.SimilarBuilding;
+import com.example.co2.dto.SimilarBuildingDtos.SimilarQuery;
+import com.example.co2.service.BuildingDatasetRegistry;
 import com.example.co2.service.BuildingEnergyJsonService;
+import com.example.co2.service.SimilarBuildingService;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -15,6 +26,11 @@ import org.springframework.web.bind.annotation.*;
 public class BuildingEnergyController {
 
     private final BuildingEnergyJsonService buildingEnergyJsonService;
+    private final SimilarBuildingService similarBuildingService;
+
+    // [ADD] 일괄 백분위 요청 최대 건수
+    @Value("${app.energy.percentile.bulk-max:5000}")
+    private int percentileBulkMax;
 
     
     @GetMapping("/avg-intensity")
@@ -35,10 +51,87 @@ public class BuildingEnergyController {
 
     return ResponseEntity.ok(percentile);
     }
+    // [ADD] 일괄 백분위: [{category, value}, ...] → [{category, value, percentile}, ...] (입력 순서 유지)
+    @PostMapping("/percentile/bulk")
+    public ResponseEntity<?> getPercentileBulk(@RequestBody List<PercentileQuery> queries) {
+        if (queries != null && queries.size() > percentileBulkMax) {
+            return ResponseEntity.badRequest().body("[요청 건수 초과] max = " + percentileBulkMax);
+        }
+        List<PercentileResult> results = buildingEnergyJsonService.percentileByCategoryBulk(queries);
+        return ResponseEntity.ok(results);
+    }
+    // [ADD] 지역 × 용도 × 준공 연대 비교 통계(예: region=30&category=공장&builtBefore=2000&value=180)
+    @GetMapping("/cube")
+    public ResponseEntity<?> cube(@RequestParam(required = false) String region,
+                                  @RequestParam(required = false) String category,
+                                  @RequestParam(required = false) Integer decade,
+                                  @RequestParam(required = false) Integer builtFrom,
+                                  @RequestParam(required = false) Integer builtBefore,
+                                  @RequestParam(required = false) Double value) {
+        if (!validRegion(region)) {
+            return ResponseEntity.badRequest().body("[지역 코드 오류] 시도 2자리 또는 시군구 5자리");
+        }
+        CubeSlice slice = buildingEnergyJsonService.cubeSlice(region, category, decade, builtFrom, builtBefore, value);
+        if (slice == null) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(slice);
+    }
+    // [ADD] 롤업: by = sido | sigungu | category | decade
+    @GetMapping("/cube/rollup")
+    public ResponseEntity<?> cubeRollup(@RequestParam String by,
+                                        @RequestParam(required = false) String region,
+                                        @RequestParam(required = false) String category,
+                                        @RequestParam(required = false) Integer decade,
+                                        @RequestParam(required = false) Integer builtFrom,
+                                        @RequestParam(required = false) Integer builtBefore) {
+        if (!List.of("sido", "sigungu", "category", "decade").contains(by)) {
+            return ResponseEntity.badRequest().body("[by 오류] sido | sigungu | category | decade");
+        }
+        if (!validRegion(region)) {
+            return ResponseEntity.badRequest().body("[지역 코드 오류] 시도 2자리 또는 시군구 5자리");
+        }
+        return ResponseEntity.ok(buildingEnergyJsonService.cubeRollup(by, region, category, decade, builtFrom, builtBefore));
+    }
+
+    // [ADD] 유사 건물 k-NN(PNU 기준, 자신 제외) — sameType=true 면 같은 buildingType2 안에서
+    @GetMapping("/similar")
+    public ResponseEntity<?> similar(@RequestParam String pnu,
+                                     @RequestParam(defaultValue = "10") int k,
+                                     @RequestParam(defaultValue = "true") boolean sameType,
+                                     @RequestParam(defaultValue = "energy") String dataset) {
+        BuildingDatasetRegistry.Dataset d = BuildingDatasetRegistry.Dataset.of(dataset);
+        if (d == null) return ResponseEntity.badRequest().body("[데이터셋 오류] " + dataset);
+        List<SimilarBuilding> result = similarBuildingService.similarToPnu(d, pnu, k, sameType);
+        if (result == null) return ResponseEntity.status(404).body("[에너지데이터없음]");
+        return ResponseEntity.ok(result);
+    }
+    // [ADD] 유사 건물 k-NN(원시 속성: 용도/연면적/준공연도/원단위/월별 12개)
+    @PostMapping("/similar")
+    public ResponseEntity<?> similarByAttributes(@RequestBody SimilarQuery query,
+                                                 @RequestParam(defaultValue = "energy") String dataset) {
+        BuildingDatasetRegistry.Dataset d = BuildingDatasetRegistry.Dataset.of(dataset);
+        if (d == null) return ResponseEntity.badRequest().body("[데이터셋 오류] " + dataset);
+        return ResponseEntity.ok(similarBuildingService.similarTo(d, query));
+    }
+
+    private static boolean validRegion(String region) {
+        if (region == null || region.isBlank() || region.trim().equals("*")) return true;
+        String r = region.trim();
+        return (r.length() == 2 || r.length() == 5) && r.chars().allMatch(Character::isDigit);
+    }
+    // [ADD] 로드 시 계산된 프로파일 그대로 응답 + ETag(If-None-Match 일치 시 304)
     @GetMapping("/monthly-percent/category")
-    public ResponseEntity<List<Double>> getMonthlyPercent(@RequestParam String category) {
-        List<Double> percents = buildingEnergyJsonService.getMonthlyPercentByCategory(category);
-        return ResponseEntity.ok(percents);
+    public ResponseEntity<List<Double>> getMonthlyPercent(@RequestParam String category, WebRequest request) {
+        BuildingDatasetRegistry.MonthlyProfile profile = buildingEnergyJsonService.getMonthlyProfileByCategory(category);
+        if (profile == null) {
+            return ResponseEntity.ok(buildingEnergyJsonService.getMonthlyPercentByCategory(category));
+        }
+        if (request.checkNotModified(profile.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(profile.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(profile.asList());
     }
 
     
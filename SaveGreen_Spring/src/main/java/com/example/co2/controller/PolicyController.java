@@ -4,6 +4,7 @@ import com.example.co2.entity.TaxPolicy;
 import com.example.co2.entity.ZebPolicy;
 import com.example.co2.repository.TaxPolicyRepository;
 import com.example.co2.repository.ZebPolicyRepository;
+import com.example.co2.service.PolicyIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -32,6 +33,7 @@ public class PolicyController {
 
     private final TaxPolicyRepository taxPolicyRepository;
     private final ZebPolicyRepository zebPolicyRepository;
+    private final PolicyIndexService policyIndex; // [ADD] 시뮬레이터 정책 색인(업로드 반영 후 재적재)
 
     //csv다운로드
     @GetMapping("/download-all")
@@ -136,6 +138,9 @@ public ResponseEntity<String> uploadAllPolicies(@RequestParam("file") MultipartF
     } catch (IOException e) {
         log.error("CSV 파일 읽기 실패", e);
         return ResponseEntity.internalServerError().body("CSV 파일 읽기 실패");
+    } finally {
+        // [ADD] 행마다 save(개별 커밋)가 끝난 뒤 — 일부만 반영된 경우도 DB와 맞춘다
+        if (taxCount + zebCount > 0) policyIndex.reload();
     }
 
     String msg = "TAX " + taxCount + "건, ZEB " + zebCount + "건 업데이트 완료";
@@ -1,13 +1,21 @@
 package com.example.co2.controller;
 
+import com.example.co2.dto.BuildingSpatialDtos.BuildingPoint;
 import com.example.co2.dto.SearchBuilding;
+import com.example.co2.service.BuildingDatasetRegistry;
+import com.example.co2.service.BuildingSpatialService;
+import com.example.co2.service.LocalAddressSearchService;
+import com.example.co2.util.AddressSearchIndex;
 import com.example.co2.service.SearchBuildingJsonService;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 
@@ -17,6 +25,8 @@ import org.springframework.web.bind.annotation.*;
 public class SearchBuildingController {
 
     private final SearchBuildingJsonService searchBuildingJsonService;
+    private final LocalAddressSearchService localAddressSearchService;
+    private final BuildingSpatialService buildingSpatialService;
 
     @GetMapping("/simulator/{pnu}")
     public ResponseEntity<?> getByPnu(@PathVariable String pnu) {
@@ -26,9 +36,45 @@ public class SearchBuildingController {
         }
         return ResponseEntity.ok(found);
     }
+    // [ADD] 주소/건물명/PNU 로컬 자동완성(원격 호출 없음, pnu 포함)
+    @GetMapping("/address/suggest")
+    public List<AddressSearchIndex.Hit> suggest(@RequestParam String keyword,
+                                                @RequestParam(defaultValue = "5") int limit) {
+        return localAddressSearchService.search(keyword, Math.min(limit, 50));
+    }
+    // [ADD] 지도 화면 영역 안 건물(메모리 R-tree, 원격 호출 없음)
+    @GetMapping("/buildings/within")
+    public ResponseEntity<List<BuildingPoint>> within(@RequestParam double south, @RequestParam double west,
+                                                      @RequestParam double north, @RequestParam double east,
+                                                      @RequestParam(defaultValue = "500") int limit,
+                                                      @RequestParam(defaultValue = "search") String dataset) {
+        BuildingDatasetRegistry.Dataset d = BuildingDatasetRegistry.Dataset.of(dataset);
+        if (d == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(buildingSpatialService.within(d, south, west, north, east, limit));
+    }
+    // [ADD] 가까운 건물 k개(distanceM 포함)
+    @GetMapping("/buildings/nearest")
+    public ResponseEntity<List<BuildingPoint>> nearest(@RequestParam double lat, @RequestParam double lon,
+                                                       @RequestParam(defaultValue = "10") int k,
+                                                       @RequestParam(defaultValue = "0") double maxDistanceM,
+                                                       @RequestParam(defaultValue = "search") String dataset) {
+        BuildingDatasetRegistry.Dataset d = BuildingDatasetRegistry.Dataset.of(dataset);
+        if (d == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(buildingSpatialService.nearest(d, lat, lon, k, maxDistanceM));
+    }
+    // [ADD] 로드 시 계산된 프로파일 그대로 응답 + ETag(If-None-Match 일치 시 304)
     @GetMapping("/energy/monthly-percent/pnu")
-    public ResponseEntity<List<Double>> getMonthlyPercentByBuilding(@RequestParam String pnu) {
-        List<Double> percents = searchBuildingJsonService.getMonthlyPercentByBuilding(pnu);
-        return ResponseEntity.ok(percents);
+    public ResponseEntity<List<Double>> getMonthlyPercentByBuilding(@RequestParam String pnu, WebRequest request) {
+        BuildingDatasetRegistry.MonthlyProfile profile = searchBuildingJsonService.getMonthlyProfileByBuilding(pnu);
+        if (profile == null) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (request.checkNotModified(profile.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(profile.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(profile.asList());
 }
 }
@@ -2,16 +2,25 @@ package com.example.co2.controller;
 
 import java.util.List;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.co2.dto.SimulatorDto;
 import com.example.co2.dto.SimulatorResultDto;
+import com.example.co2.service.SimulatorBatchService;
 import com.example.co2.service.SimulatorService;
+import com.example.co2.service.SolarRadiationService;
 
 @Controller
 public class SimulatorController {
@@ -22,6 +31,15 @@ public class SimulatorController {
     @Autowired  
     private SimulatorService simulatorService;
 
+    @Autowired
+    private SolarRadiationService solarRadiationService;
+
+    @Autowired
+    private SimulatorBatchService simulatorBatchService;
+
+    @Value("${app.simulator.batch.max-items:1000}")
+    private int batchMaxItems;
+
     @PostMapping("/simulate1")
     @ResponseBody
     public SimulatorResultDto simulate1(@ModelAttribute SimulatorDto dto) throws Exception { 
@@ -35,7 +53,33 @@ public class SimulatorController {
         
         return simulatorService.calculate2(dto);
     }
-    
+
+    // [ADD] 일괄 시뮬레이션: JSON 배열(SimulatorDto) → 입력 순서대로 NDJSON 한 줄씩
+    //  calc = 1(자립률/세제) | 2(패널 계획) | both(기본)
+    @PostMapping(value = "/simulate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> simulateBatch(@RequestBody List<SimulatorDto> items,
+                                           @RequestParam(defaultValue = "both") String calc) {
+        SimulatorBatchService.Calc mode = SimulatorBatchService.Calc.parse(calc);
+        if (mode == null) {
+            return ResponseEntity.badRequest().body("[calc 값 오류] 1 | 2 | both");
+        }
+        if (items == null || items.isEmpty()) {
+            return ResponseEntity.badRequest().body("[입력 없음]");
+        }
+        if (items.size() > batchMaxItems) {
+            return ResponseEntity.badRequest().body("[요청 건수 초과] max = " + batchMaxItems);
+        }
+        StreamingResponseBody body = out -> simulatorBatchService.stream(items, mode, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // [ADD] 일사량 격자 캐시 지표(칸 수, hit/miss)
+    @ResponseBody
+    @GetMapping("/simulator/solar/stats")
+    public Map<String, Object> solarStats() {
+        return solarRadiationService.stats();
+    }
 
     @ResponseBody
     @GetMapping("/search")
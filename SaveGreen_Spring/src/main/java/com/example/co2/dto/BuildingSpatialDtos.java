@@ -0,0 +1,18 @@
+package com.example.co2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** /buildings/within, /buildings/nearest 응답 */
+public class BuildingSpatialDtos {
+
+    /** 지도 마커 1건(필요한 필드만) — distanceM 은 근접 검색일 때만 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BuildingPoint(
+            String pnu,
+            String buildingName,
+            String buildingType2,
+            double lat,
+            double lon,
+            Double distanceM
+    ) {}
+}
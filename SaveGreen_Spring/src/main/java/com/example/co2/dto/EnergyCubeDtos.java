@@ -0,0 +1,30 @@
+package com.example.co2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** /energy/cube, /energy/cube/rollup 응답 */
+public class EnergyCubeDtos {
+
+    /**
+     * 조건 하나로 자른 원단위(kWh/㎡) 통계.
+     * 분위수는 로그 버킷 스케치 근사(상대오차 1%), percentile 은 value 를 줬을 때만(이하 비율 %, 소수 1자리).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CubeSlice(
+            String region,
+            String regionName,
+            String category,
+            Integer decadeFrom,
+            Integer decadeTo,
+            long count,
+            Double avg,
+            Double min,
+            Double max,
+            Double p25,
+            Double median,
+            Double p75,
+            Double p90,
+            Double value,
+            Double percentile
+    ) {}
+}
@@ -0,0 +1,18 @@
+package com.example.co2.dto;
+
+/** /energy/percentile/bulk 요청/응답 */
+public class EnergyPercentileDtos {
+
+    /** 요청 1건: 카테고리(buildingType2) + 원단위(kWh/㎡) */
+    public record PercentileQuery(
+            String category,
+            Double value
+    ) {}
+
+    /** 응답 1건: 입력값 그대로 + 백분위(데이터 없으면 null) */
+    public record PercentileResult(
+            String category,
+            Double value,
+            Double percentile
+    ) {}
+}
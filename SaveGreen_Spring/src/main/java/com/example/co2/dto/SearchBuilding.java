@@ -1,5 +1,7 @@
 package com.example.co2.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,9 +17,18 @@ public class SearchBuilding {
     private Double floorAreaM2;
     private Integer usageYear;
     private List<YearlyConsumption> yearlyConsumption;   
+    @JsonAlias("energy_kwh")      // ml_dataset.json 키
     private Double electricityUsageKwh;                 
+    @JsonAlias("eui_kwh_m2y")     // ml_dataset.json 키
     private Double energyIntensityKwhPerM2;
     private List<MonthlyConsumption> monthlyConsumption; 
+    // [ADD] 건물 좌표(WGS84, 선택) — 있으면 지도 영역/근접 검색 인덱스에 들어간다
+    @JsonAlias("latitude")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double lat;
+    @JsonAlias({"lng", "longitude"})
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double lon;
 
     @Getter @Setter
     public static class YearlyConsumption {
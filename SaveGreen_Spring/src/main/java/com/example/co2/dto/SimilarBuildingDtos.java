@@ -0,0 +1,32 @@
+package com.example.co2.dto;
+
+import java.util.List;
+
+/** /energy/similar 요청/응답 */
+public class SimilarBuildingDtos {
+
+    /**
+     * 원시 속성으로 찾기(POST). 비어 있는 항목은 거리 계산에서 빠진다.
+     * monthly: 1~12월 사용량 12개(비율만 보므로 단위 무관), sameType: true면 같은 buildingType2 안에서만
+     */
+    public record SimilarQuery(
+            String buildingType2,
+            Double floorAreaM2,
+            Integer usageYear,
+            Double energyIntensityKwhPerM2,
+            List<Double> monthly,
+            Integer k,
+            Boolean sameType
+    ) {}
+
+    /** 응답 1건: 비교용 주요 속성 + 거리(표준화 특징 공간, 작을수록 비슷) */
+    public record SimilarBuilding(
+            String pnu,
+            String buildingName,
+            String buildingType2,
+            Double floorAreaM2,
+            Integer usageYear,
+            Double energyIntensityKwhPerM2,
+            double distance
+    ) {}
+}
@@ -0,0 +1,18 @@
+package com.example.co2.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** /simulate/batch 응답(NDJSON 한 줄 = 입력 1건) */
+public class SimulatorBatchDtos {
+
+    /**
+     * index: 입력 배열 위치(응답도 이 순서), simulate1/simulate2: 요청한 계산 결과, error: 실패 사유(있으면 결과 없음)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record BatchLine(
+            int index,
+            SimulatorResultDto simulate1,
+            SimulatorResultDto simulate2,
+            String error
+    ) {}
+}
@@ -7,7 +7,8 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "api_cache") // 윈도우/리눅스 호환 위해 소문자 고정
+@Table(name = "api_cache", // 윈도우/리눅스 호환 위해 소문자 고정
+        indexes = @Index(name = "idx_api_cache_exp", columnList = "expires_at")) // 하우스키핑 범위 스캔용(V3와 동일)
 @Getter @Setter
 public class ApiCache {
 
@@ -29,9 +30,19 @@ public class ApiCache {
     private String cacheKeyRaw;
 
     // MySQL 8 JSON 컬럼 - 문자열로 매핑 (유효한 JSON 문자열만 넣으세요)
-    @Column(name = "payload_json", columnDefinition = "json", nullable = false)
+    //  - payload_codec 이 json 이 아닌 행은 비어 있음(payload_bin 사용)
+    @Column(name = "payload_json", columnDefinition = "json")
     private String payloadJson;
 
+    // 압축 바이너리 payload (PayloadCodec: json+deflate / smile+deflate)
+    @Lob
+    @Column(name = "payload_bin", columnDefinition = "mediumblob")
+    private byte[] payloadBin;
+
+    // 저장 포맷 식별자 (PayloadCodec.id) — 기본 json
+    @Column(name = "payload_codec", length = 16, nullable = false)
+    private String payloadCodec = "json";
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
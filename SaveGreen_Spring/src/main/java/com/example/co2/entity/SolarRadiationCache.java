@@ -0,0 +1,36 @@
+package com.example.co2.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "solar_radiation_cache") // V7
+@Getter @Setter
+public class SolarRadiationCache {
+
+    // "<grid_deg>:<lat_idx>:<lon_idx>"
+    @Id
+    @Column(name = "cell_key", length = 40)
+    private String cellKey;
+
+    // 칸 중심 좌표(실제 조회 좌표)
+    @Column(nullable = false, precision = 9, scale = 5)
+    private BigDecimal lat;
+
+    @Column(nullable = false, precision = 9, scale = 5)
+    private BigDecimal lon;
+
+    // ALLSKY_SFC_SW_DWN 연평균(kWh/m²/day, 소수 3자리)
+    @Column(nullable = false, name = "annual_mean", precision = 10, scale = 3)
+    private BigDecimal annualMean;
+
+    @Column(nullable = false, name = "fetched_at")
+    private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,34 @@
+package com.example.co2.repository;
+
+import com.example.co2.util.PayloadCodec;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/* api_cache 다건 UPSERT (write-behind 배치용) — ApiCacheRepository에 합성되는 커스텀 프래그먼트 */
+public interface ApiCacheBatchRepository {
+
+    /**
+     * 배치 1행 (upsert 파라미터 + 저장 포맷)
+     *  - codec=json  : payload(JSON 문자열) → payload_json
+     *  - codec=그 외 : payloadBin(PayloadCodec.encode 결과) → payload_bin
+     */
+    record Row(String hash,
+               String raw,
+               String payload,
+               byte[] payloadBin,
+               PayloadCodec codec,
+               LocalDateTime expiresAt,
+               Long buildingId,
+               String guestIp) {
+
+        /** 저장 포맷에 맞게 인코딩된 행 (JSON이면 그대로) */
+        public Row encoded() {
+            if (!codec.binary() || payloadBin != null) return this;
+            return new Row(hash, raw, null, codec.encode(payload), codec, expiresAt, buildingId, guestIp);
+        }
+    }
+
+    /** 다건 INSERT ... ON DUPLICATE KEY UPDATE 1문장. 반환: 영향 행 수(MySQL 규칙) */
+    int upsertBatch(List<Row> rows);
+}
@@ -0,0 +1,67 @@
+package com.example.co2.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ApiCacheBatchRepositoryImpl implements ApiCacheBatchRepository {
+
+    private static final String INSERT_HEAD = """
+        INSERT INTO `api_cache`
+          (`cache_key_hash`, `cache_key_raw`, `payload_json`, `payload_bin`, `payload_codec`, `expires_at`, `building_id`, `guest_ip`, `created_at`)
+        VALUES
+        """;
+
+    // payload_codec 에 따라 payload_json / payload_bin 중 한 곳만 채운다
+    private static final String ROW_JSON   = "(?, ?, CAST(? AS JSON), NULL, ?, ?, ?, ?, NOW(3))";
+    private static final String ROW_BINARY = "(?, ?, NULL, ?, ?, ?, ?, ?, NOW(3))";
+
+    /* 같은 cache_key_hash 면 키 외 컬럼 전부 갱신 (created_at 은 최초 값 유지) */
+    private static final String ON_DUPLICATE = """
+
+        ON DUPLICATE KEY UPDATE
+          `cache_key_raw` = VALUES(`cache_key_raw`),
+          `payload_json`  = VALUES(`payload_json`),
+          `payload_bin`   = VALUES(`payload_bin`),
+          `payload_codec` = VALUES(`payload_codec`),
+          `expires_at`    = VALUES(`expires_at`),
+          `building_id`   = VALUES(`building_id`),
+          `guest_ip`      = VALUES(`guest_ip`)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public int upsertBatch(List<Row> rows) {
+        if (rows == null || rows.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder(INSERT_HEAD.length() + rows.size() * (ROW_JSON.length() + 2) + ON_DUPLICATE.length());
+        sql.append(INSERT_HEAD);
+        List<Object> args = new ArrayList<>(rows.size() * 7);
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i).encoded();
+            if (i > 0) sql.append(",\n");
+            args.add(r.hash());
+            args.add(r.raw());
+            if (r.codec().binary()) {
+                sql.append(ROW_BINARY);
+                args.add(r.payloadBin());
+            } else {
+                sql.append(ROW_JSON);
+                args.add(r.payload());
+            }
+            args.add(r.codec().id());
+            args.add(Timestamp.valueOf(r.expiresAt()));
+            args.add(r.buildingId());
+            args.add(r.guestIp());
+        }
+        sql.append(ON_DUPLICATE);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -6,42 +6,30 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
-public interface ApiCacheRepository extends JpaRepository<ApiCache, Long> {
+public interface ApiCacheRepository extends JpaRepository<ApiCache, Long>, ApiCacheBatchRepository {
 
     /* 캐시 조회 (유효기간 내) — 서비스에서 사용하는 시그니처 */
     Optional<ApiCache> findTopByCacheKeyHashAndExpiresAtAfter(String cacheKeyHash, LocalDateTime now);
 
-    /* MySQL 8 JSON UPSERT — 테이블/컬럼명 소문자 + 백틱 통일 */
-    @Modifying
-    @Transactional
+    /* 하우스키핑 1단계: 만료 행 PK 목록 (idx_api_cache_exp 범위 스캔 + LIMIT) */
     @Query(value = """
-        INSERT INTO `api_cache`
-          (`cache_key_hash`, `cache_key_raw`, `payload_json`, `expires_at`, `building_id`, `guest_ip`, `created_at`)
-        VALUES
-          (:hash, :raw, CAST(:payload AS JSON), :expiresAt, :buildingId, :guestIp, NOW(3))
-        ON DUPLICATE KEY UPDATE
-          `cache_key_raw` = VALUES(`cache_key_raw`),
-          `payload_json`  = VALUES(`payload_json`),
-          `expires_at`    = VALUES(`expires_at`),
-          `building_id`   = VALUES(`building_id`),
-          `guest_ip`      = VALUES(`guest_ip`)
+        SELECT `cache_id` FROM `api_cache`
+        WHERE `expires_at` <= :cutoff
+        ORDER BY `expires_at`
+        LIMIT :limit
         """, nativeQuery = true)
-    int upsert(@Param("hash") String hash,
-               @Param("raw") String raw,
-               @Param("payload") String payload,
-               @Param("expiresAt") LocalDateTime expiresAt,
-               @Param("buildingId") Long buildingId,
-               @Param("guestIp") String guestIp);
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 
-    /* ⬇⬇⬇ 여기 추가: 만료/오래된 레코드 삭제 (하우스키핑) */
+    /* 하우스키핑 2단계: PK로 배치 삭제 (그 사이 갱신된 행은 expires_at 조건으로 보호) */
     @Modifying
     @Transactional
     @Query(value = """
         DELETE FROM `api_cache`
-        WHERE `expires_at` <= :cutoff
-           OR `created_at` <= :cutoff
+        WHERE `cache_id` IN (:ids)
+          AND `expires_at` <= :cutoff
         """, nativeQuery = true)
-    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+    int deleteExpiredByIds(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
 }
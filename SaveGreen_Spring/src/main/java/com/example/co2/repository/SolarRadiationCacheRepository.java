@@ -0,0 +1,7 @@
+package com.example.co2.repository;
+
+import com.example.co2.entity.SolarRadiationCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SolarRadiationCacheRepository extends JpaRepository<SolarRadiationCache, String> {
+}
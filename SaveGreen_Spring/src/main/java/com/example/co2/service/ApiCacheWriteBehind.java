@@ -0,0 +1,200 @@
+package com.example.co2.service;
+
+import com.example.co2.repository.ApiCacheBatchRepository.Row;
+import com.example.co2.repository.ApiCacheRepository;
+import com.example.co2.util.PayloadCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · ApiCacheWriteBehind (api_cache 비동기 배치 저장)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - MISS 응답 경로에서 MySQL UPSERT(동기 쓰기)를 제거한다.
+ *  - 요청 스레드는 유한 큐에 넣고 즉시 반환, 전용 스레드가 모아서 다건 UPSERT 1문장으로 저장.
+ *
+ * 규칙
+ *  - flush 조건: batch-size개가 모이거나, 첫 항목 도착 후 flush-interval-ms가 지나면
+ *  - 같은 배치 안의 중복 키(cache_key_hash)는 마지막 값 1건으로 합친다
+ *  - 큐가 가득 차면 버린다(dropped 카운트). 캐시는 최선형(best-effort)이므로 요청을 막지 않음.
+ *    (L1에는 이미 적재되어 있으므로 같은 인스턴스 HIT에는 영향 없음)
+ *  - 종료 시(@PreDestroy) 큐에 남은 항목을 모두 flush
+ *
+ * 설정
+ *  - app.cache.write-behind.enabled           : false면 기존처럼 요청 스레드에서 동기 upsert
+ *  - app.cache.write-behind.capacity          : 큐 용량(기본 10000)
+ *  - app.cache.write-behind.batch-size        : 배치 최대 행 수(기본 200)
+ *  - app.cache.write-behind.flush-interval-ms : 배치 대기 상한(기본 20ms)
+ *  - app.cache.payload-codec                  : 저장 포맷(json | json+deflate | smile+deflate, PayloadCodec)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Component
+public class ApiCacheWriteBehind {
+
+	private final ApiCacheRepository apiCacheRepository;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long flushIntervalMs;
+	private final BlockingQueue<Row> queue;
+	private final PayloadCodec codec; // 저장 포맷(인코딩은 flush 스레드에서 수행)
+
+	private final LongAdder enqueued = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder collapsed = new LongAdder();
+	private final LongAdder flushedRows = new LongAdder();
+	private final LongAdder failedRows = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final AtomicLong lastFlushMillis = new AtomicLong();
+
+	private volatile boolean running;
+	private Thread worker;
+
+	public ApiCacheWriteBehind(
+			ApiCacheRepository apiCacheRepository,
+			@Value("${app.cache.write-behind.enabled:true}") boolean enabled,
+			@Value("${app.cache.write-behind.capacity:10000}") int capacity,
+			@Value("${app.cache.write-behind.batch-size:200}") int batchSize,
+			@Value("${app.cache.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+			@Value("${app.cache.payload-codec:json}") String payloadCodec
+	) {
+		this.apiCacheRepository = apiCacheRepository;
+		this.enabled = enabled;
+		this.batchSize = Math.max(1, batchSize);
+		this.flushIntervalMs = Math.max(1L, flushIntervalMs);
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.codec = PayloadCodec.of(payloadCodec);
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) return;
+		running = true;
+		worker = new Thread(this::loop, "api-cache-write-behind");
+		worker.setDaemon(true);
+		worker.start();
+		log.info("[api-cache-wb] started capacity={}, batchSize={}, flushIntervalMs={}, codec={}",
+				queue.remainingCapacity(), batchSize, flushIntervalMs, codec.id());
+	}
+
+	@PreDestroy
+	void stop() {
+		if (!enabled) return;
+		running = false; // poll 대기(최대 flushIntervalMs) 후 루프 종료
+		if (worker != null) {
+			try {
+				worker.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// 남은 항목 정리
+		List<Row> rest = new ArrayList<>();
+		while (queue.drainTo(rest, batchSize) > 0) {
+			flush(rest);
+			rest.clear();
+		}
+	}
+
+	/** 저장 요청. 비활성 모드면 동기 upsert, 활성 모드면 큐 적재(가득 차면 버림) */
+	public void submit(String hash, String raw, String payload, LocalDateTime expiresAt, Long buildingId, String guestIp) {
+		Row row = new Row(hash, raw, payload, null, codec, expiresAt, buildingId, guestIp);
+		if (!enabled) {
+			apiCacheRepository.upsertBatch(List.of(row));
+			return;
+		}
+		if (queue.offer(row)) {
+			enqueued.increment();
+		} else {
+			dropped.increment();
+			log.debug("[api-cache-wb] queue full, dropped hash = {}", hash);
+		}
+	}
+
+	/** 큐 깊이/드롭/배치 지표 */
+	public Map<String, Object> stats() {
+		Map<String, Object> m = new LinkedHashMap<>();
+		m.put("enabled", enabled);
+		m.put("codec", codec.id());
+		m.put("queueDepth", queue.size());
+		m.put("queueRemaining", queue.remainingCapacity());
+		m.put("enqueued", enqueued.sum());
+		m.put("dropped", dropped.sum());
+		m.put("collapsed", collapsed.sum());
+		m.put("batches", batches.sum());
+		m.put("flushedRows", flushedRows.sum());
+		m.put("failedRows", failedRows.sum());
+		m.put("lastFlushMillis", lastFlushMillis.get());
+		return m;
+	}
+
+	/* ===== 내부 구현 ===== */
+
+	private void loop() {
+		List<Row> batch = new ArrayList<>(batchSize);
+		while (running) {
+			try {
+				Row first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+				if (first == null) continue;
+				batch.add(first);
+
+				// 첫 항목 도착 후 최대 flushIntervalMs 동안 batchSize까지 모은다
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+				while (batch.size() < batchSize) {
+					if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+					long remain = deadline - System.nanoTime();
+					if (remain <= 0) break;
+					Row next = queue.poll(remain, TimeUnit.NANOSECONDS);
+					if (next == null) break;
+					batch.add(next);
+				}
+				flush(batch);
+			} catch (InterruptedException e) {
+				flush(batch);
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				log.warn("[api-cache-wb] loop error", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<Row> batch) {
+		if (batch.isEmpty()) return;
+
+		// 같은 키는 마지막 값만 남김(도착 순서 유지)
+		Map<String, Row> byHash = new LinkedHashMap<>(batch.size() * 2);
+		for (Row r : batch) byHash.put(r.hash(), r);
+		collapsed.add(batch.size() - byHash.size());
+
+		List<Row> rows = new ArrayList<>(byHash.values());
+		long t0 = System.nanoTime();
+		try {
+			apiCacheRepository.upsertBatch(rows);
+			flushedRows.add(rows.size());
+			batches.increment();
+		} catch (Exception e) {
+			failedRows.add(rows.size());
+			log.warn("api_cache batch upsert failed rows = {}", rows.size(), e);
+		} finally {
+			lastFlushMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+		}
+	}
+}
@@ -0,0 +1,640 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.SearchBuilding;
+import com.example.co2.util.BuildingColumnStore;
+import com.example.co2.util.BuildingJsonStreamReader;
+import com.example.co2.util.BuildingRTree;
+import com.example.co2.util.BuildingSnapshotFile;
+import com.example.co2.util.EnergyStatsCube;
+import com.example.co2.util.HashUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · BuildingDatasetRegistry (건물 더미 데이터셋 공용 저장소)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - searchbuildingdata.json / buildingenergydata.json / ml_dataset.json / green.json 을 기동 시 1회만 읽어 메모리에 둔다.
+ *    (이전: SearchBuildingJsonService / FinderSearchBuildingService / BuildingEnergyJsonService 가
+ *     요청마다 readAll()로 클래스패스 JSON 전체를 다시 역직렬화)
+ *
+ * 구조(데이터셋별 Snapshot, 불변)
+ *  - columns : 행 데이터 본체(BuildingColumnStore) — PNU long 키 정렬 인덱스, 원시 배열, 경량 뷰. DTO 목록은 두지 않는다.
+ *  - byType2 : buildingType2.trim() → 행 번호 int[] (파일 순서, 최초 등장 순)
+ *    + 카테고리별 energyIntensityKwhPerM2 오름차순 double[](백분위 이진 탐색), 평균(파일 순서 합산), 월별 비중
+ *  - monthlyByRow : 건물별 월별 사용 비중(%) MonthlyProfile — 요청 시 집계 없이 그대로 응답 + ETag
+ *  - cube : 지역(PNU 앞자리) × 용도 × 준공 연대 원단위 통계(EnergyStatsCube) — 비교 통계 상수 시간 조회
+ *  - spatial : 좌표(lat/lon)가 있는 행의 STR R-tree — 지도 영역/근접 검색(좌표 없는 데이터셋이면 빈 트리)
+ *  - findByPnu 등 DTO 응답은 해당 행만 그때 복원(Row.toDto)
+ *
+ * 로드 경로
+ *  - app.dataset.snapshot.path 가 있으면 바이너리 스냅샷(BuildingSnapshotFile)을 FileChannel.map 으로 연다.
+ *    컬럼은 매핑 영역에서 바로 읽고(같은 호스트 JVM끼리 페이지 캐시 공유), magic/버전/CRC 불일치·파일 없음이면 JSON으로 폴백.
+ *  - 스냅샷에는 데이터셋별 원본 지문(바이트 수, 수정 시각, SHA-256)이 들어 있다. 지금 읽을 원본(외부 디렉터리 base 파일, 없으면
+ *    클래스패스 JSON)과 다르면 그 데이터셋만 JSON으로 적재 → JSON만 고치고 스냅샷을 다시 만들지 않아도 옛 데이터가 뜨지 않는다.
+ *    app.dataset.snapshot.verify-source
+ *      size   (기본) 바이트 수로 먼저 판단, 외부 파일은 수정 시각까지 같으면 일치. 크기는 같고 시각만 다를 때만 해시
+ *             → 유효한 스냅샷으로 기동할 때 JSON 본문을 읽지 않는다(클래스패스 JSON은 배포 산출물이라 크기만 비교)
+ *      digest 항상 SHA-256 비교(원본 JSON 전체를 한 번 읽음)
+ *      off    비교 생략: 외부 디렉터리에 base 파일이 있는 데이터셋만 JSON
+ *  - JSON은 BuildingJsonStreamReader(JsonParser 토큰 스트리밍)로 레코드 1건씩 컬럼에 적재 → 파일 크기와 무관하게
+ *    적재 중 추가 메모리는 레코드 1건분. 잘못된 레코드는 건너뛰고 사유별로 카운트해 로그에 남긴다.
+ *  - 적재 후 파생 인덱스(카테고리 배열/월별 비중/ETag)는 카테고리·행 단위로 병렬 계산.
+ *  - 스냅샷 생성: ./gradlew datasetSnapshot (DatasetSnapshotCompiler)
+ *  - app.dataset.dir 가 있으면 같은 파일명(searchbuildingdata.json 등)을 그 디렉터리에서 우선 읽는다.
+ *
+ * 무중단 갱신(BuildingDatasetWatcher)
+ *  - 외부 디렉터리 파일이 바뀌면 백그라운드에서 새 Snapshot을 만든 뒤 volatile 참조 1회 대입으로 교체.
+ *    요청은 시작 시 잡은 Snapshot을 끝까지 쓰므로 중간 상태를 보지 않는다.
+ *  - delta 모드(app.dataset.reload.mode=delta): <파일명>.delta.json 의 행을 PNU 기준 upsert.
+ *    바뀌지 않은 행의 월별 비중/ETag와 건드리지 않은 카테고리의 파생값은 이전 Snapshot 것을 재사용.
+ *    delta 파일은 base 대비 누적 upsert 집합으로 유지한다(재기동 시 base → delta 순으로 다시 적용).
+ *
+ * 주의
+ *  - 로드 실패(JSON 문법 오류 등) 시 IllegalStateException → 기동 실패로 바로 드러난다.
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Component
+public class BuildingDatasetRegistry {
+
+	public static final String SEARCH_JSON_PATH = "static/dummy/searchbuildingdata.json";
+	public static final String ENERGY_JSON_PATH = "static/dummy/buildingenergydata.json";
+
+	/** 관리 대상 데이터셋(id = 스냅샷 파일 안의 이름) */
+	public enum Dataset {
+		SEARCH("search", SEARCH_JSON_PATH),
+		ENERGY("energy", ENERGY_JSON_PATH),
+		ML("ml", "static/dummy/ml_dataset.json"),
+		GREEN("green", "static/dummy/green.json");
+
+		private final String id;
+		private final String path;
+
+		Dataset(String id, String path) {
+			this.id = id;
+			this.path = path;
+		}
+
+		public String id() {
+			return id;
+		}
+
+		public String path() {
+			return path;
+		}
+
+		/** id(대소문자 무시) → 데이터셋, 없으면 null */
+		public static Dataset of(String id) {
+			for (Dataset d : values()) {
+				if (d.id.equalsIgnoreCase(id == null ? "" : id.trim())) return d;
+			}
+			return null;
+		}
+	}
+
+	// [ADD] 바이너리 스냅샷(DatasetSnapshotCompiler 출력). 비어 있으면 JSON 스트리밍 적재
+	@Value("${app.dataset.snapshot.path:}")
+	private String snapshotPath;
+
+	@Value("${app.dataset.snapshot.verify-checksum:true}")
+	private boolean verifyChecksum;
+
+	// [ADD] 스냅샷의 원본 지문 ↔ 현재 원본 JSON 비교(size | digest | off, 불일치 데이터셋은 JSON 적재)
+	@Value("${app.dataset.snapshot.verify-source:size}")
+	private String verifySource;
+
+	// [ADD] 외부 데이터 디렉터리(비어 있으면 클래스패스만) / 갱신 모드(full | delta)
+	@Value("${app.dataset.dir:}")
+	private String dataDir;
+
+	@Value("${app.dataset.reload.mode:full}")
+	private String reloadMode;
+
+	private volatile Map<Dataset, Snapshot> snapshots = emptySnapshots();
+
+	@PostConstruct
+	void load() {
+		long t0 = System.nanoTime();
+		// 스냅샷에서 원본이 그대로인 데이터셋만 받고, 나머지는 JSON
+		Map<Dataset, Snapshot> loaded = loadSnapshotFile();
+		List<String> fromJson = new ArrayList<>();
+		for (Dataset d : Dataset.values()) {
+			if (loaded.containsKey(d)) continue;
+			loaded.put(d, Snapshot.of(loadColumns(d)));
+			fromJson.add(d.id());
+		}
+		String json = (dataDir() != null) ? "json (dir " + dataDir() + ")" : "json";
+		String source = (fromJson.size() == Dataset.values().length) ? json
+				: "snapshot " + snapshotPath + (fromJson.isEmpty() ? "" : " + " + json + ": " + String.join(", ", fromJson));
+		this.snapshots = loaded;
+		for (Dataset d : Dataset.values()) {
+			if (hasDelta(d)) applyDelta(d);
+		}
+		log.info("[dataset] loaded from {} in {} ms: searchbuildingdata = {} rows, buildingenergydata = {} rows ({} categories), ml = {}, green = {}",
+				source, (System.nanoTime() - t0) / 1_000_000,
+				search().size(), energy().size(), energy().categories().size(),
+				dataset(Dataset.ML).size(), dataset(Dataset.GREEN).size());
+	}
+
+	/** 검색/시뮬레이터용(searchbuildingdata.json) */
+	public Snapshot search() {
+		return snapshots.get(Dataset.SEARCH);
+	}
+
+	/** 에너지 통계용(buildingenergydata.json) */
+	public Snapshot energy() {
+		return snapshots.get(Dataset.ENERGY);
+	}
+
+	public Snapshot dataset(Dataset dataset) {
+		return snapshots.get(dataset);
+	}
+
+	/** 클래스패스 JSON의 원본 지문(수정 시각 없음) */
+	public static BuildingSnapshotFile.Source classpathSource(Dataset dataset) {
+		try (InputStream is = new ClassPathResource(dataset.path()).getInputStream()) {
+			return BuildingSnapshotFile.Source.of("classpath:" + dataset.path(), -1, is);
+		} catch (Exception e) {
+			throw new IllegalStateException(dataset.id() + " 읽기 실패 : " + dataset.path(), e);
+		}
+	}
+
+	/** 외부 JSON 파일의 원본 지문(수정 시각 포함) */
+	public static BuildingSnapshotFile.Source fileSource(Path file) {
+		try (InputStream is = Files.newInputStream(file)) {
+			return BuildingSnapshotFile.Source.of(file.toString(), Files.getLastModifiedTime(file).toMillis(), is);
+		} catch (Exception e) {
+			throw new IllegalStateException("읽기 실패 : " + file, e);
+		}
+	}
+
+	/** 클래스패스 JSON → 컬럼 저장소(토큰 스트리밍, 스냅샷 생성 도구와 JSON 적재 공용) */
+	public static BuildingColumnStore readColumns(Dataset dataset) {
+		try (InputStream is = new ClassPathResource(dataset.path()).getInputStream()) {
+			return readColumns(is, dataset.id(), dataset.path());
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(dataset.id() + " 로드 실패 : " + dataset.path(), e);
+		}
+	}
+
+	/* ===== 외부 디렉터리 / 무중단 갱신 ===== */
+
+	/** 외부 데이터 디렉터리(설정 없으면 null) */
+	public Path dataDir() {
+		return (dataDir == null || dataDir.isBlank()) ? null : Path.of(dataDir.trim());
+	}
+
+	public boolean deltaMode() {
+		return "delta".equalsIgnoreCase(reloadMode == null ? "" : reloadMode.trim());
+	}
+
+	/** 외부 디렉터리 기준 base 파일(예: searchbuildingdata.json) */
+	public Path baseFile(Dataset dataset) {
+		Path dir = dataDir();
+		return (dir == null) ? null : dir.resolve(fileName(dataset));
+	}
+
+	/** 외부 디렉터리 기준 delta 파일(예: searchbuildingdata.delta.json) */
+	public Path deltaFile(Dataset dataset) {
+		Path dir = dataDir();
+		String name = fileName(dataset);
+		return (dir == null) ? null : dir.resolve(name.substring(0, name.length() - ".json".length()) + ".delta.json");
+	}
+
+	/** delta 모드이고 delta 파일이 있는지 */
+	public boolean hasDelta(Dataset dataset) {
+		Path file = deltaFile(dataset);
+		return deltaMode() && file != null && Files.isRegularFile(file);
+	}
+
+	public static String fileName(Dataset dataset) {
+		return dataset.path().substring(dataset.path().lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * base 파일 전체 재적재 → 교체. 실패하면 기존 Snapshot 유지(예외 전파).
+	 * delta 모드면 delta 파일도 이어서 적용한다.
+	 */
+	public synchronized void reloadFull(Dataset dataset) {
+		long t0 = System.nanoTime();
+		Snapshot next = Snapshot.of(loadColumns(dataset));
+		swap(dataset, next);
+		log.info("[dataset] reloaded {} ({} rows) in {} ms", dataset.id(), next.size(), (System.nanoTime() - t0) / 1_000_000);
+		if (hasDelta(dataset)) applyDelta(dataset);
+	}
+
+	/** delta 파일 upsert → 교체(바뀐 PNU만 다시 계산). 실패하면 기존 Snapshot 유지(예외 전파) */
+	public synchronized void applyDelta(Dataset dataset) {
+		long t0 = System.nanoTime();
+		Path file = deltaFile(dataset);
+		BuildingColumnStore delta;
+		try (InputStream is = Files.newInputStream(file)) {
+			delta = readColumns(is, dataset.id() + ".delta", file.toString());
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(dataset.id() + " delta 로드 실패 : " + file, e);
+		}
+		Snapshot prev = dataset(dataset);
+		BuildingColumnStore.Merge merge = BuildingColumnStore.upsert(prev.columns(), delta);
+		swap(dataset, Snapshot.of(merge.store(), prev, merge.sourceRow()));
+		log.info("[dataset] applied delta {} : replaced = {}, appended = {} in {} ms",
+				dataset.id(), merge.replaced(), merge.appended(), (System.nanoTime() - t0) / 1_000_000);
+	}
+
+	// copy-on-write: 새 맵을 만들어 volatile 1회 대입(읽는 쪽은 항상 완성된 맵만 본다)
+	private void swap(Dataset dataset, Snapshot next) {
+		Map<Dataset, Snapshot> m = new EnumMap<>(snapshots);
+		m.put(dataset, next);
+		this.snapshots = m;
+	}
+
+	/*
+	 * 스냅샷에 기록된 원본 ↔ loadColumns 가 읽을 원본(외부 디렉터리 파일 → 클래스패스 순). 같으면 null, 다르면 사유.
+	 * size 모드: 바이트 수가 다르면 바로 불일치, 외부 파일은 수정 시각까지 같으면 일치 — 그 밖(시각만 다름)에만 해시.
+	 */
+	private String staleReason(Dataset dataset, BuildingSnapshotFile.Source recorded) {
+		Path file = baseFile(dataset);
+		boolean external = file != null && Files.isRegularFile(file);
+		String location = external ? file.toString() : "classpath:" + dataset.path();
+		try {
+			long size = external ? Files.size(file) : new ClassPathResource(dataset.path()).contentLength();
+			if (size != recorded.size()) {
+				return location + " is " + size + " bytes, snapshot source " + recorded.location() + " was " + recorded.size();
+			}
+			if (!"digest".equalsIgnoreCase(verifySource.trim())) {
+				if (!external) return null; // 클래스패스: 크기만(본문을 읽지 않음)
+				if (Files.getLastModifiedTime(file).toMillis() == recorded.modifiedMillis()) return null;
+			}
+			BuildingSnapshotFile.Source current = external ? fileSource(file) : classpathSource(dataset);
+			return current.sameContent(recorded) ? null
+					: location + " sha256 differs from snapshot source " + recorded.location();
+		} catch (Exception e) {
+			return location + " unreadable: " + e;
+		}
+	}
+
+	/** 외부 JSON 파일 → 컬럼 저장소(JSON 적재, 스냅샷 생성 도구 공용) */
+	public static BuildingColumnStore readColumns(Dataset dataset, Path file) {
+		try (InputStream is = Files.newInputStream(file)) {
+			return readColumns(is, dataset.id(), file.toString());
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(dataset.id() + " 로드 실패 : " + file, e);
+		}
+	}
+
+	private static BuildingColumnStore readColumns(InputStream is, String label, String source) {
+		try {
+			BuildingJsonStreamReader.Result result = BuildingJsonStreamReader.read(is, 0);
+			BuildingJsonStreamReader.Stats stats = result.stats();
+			if (stats.skippedTotal() > 0) {
+				log.warn("[dataset] {} : skipped {} invalid records {}", label, stats.skippedTotal(), stats.skipped());
+			} else {
+				log.debug("[dataset] {} : {}", label, stats);
+			}
+			if (!stats.cleared().isEmpty()) {
+				log.warn("[dataset] {} : kept rows with invalid fields cleared {}", label, stats.cleared());
+			}
+			return result.columns();
+		} catch (Exception e) {
+			throw new IllegalStateException(label + " 로드 실패 : " + source, e);
+		}
+	}
+
+	// 외부 디렉터리에 파일이 있으면 그것, 없으면 클래스패스
+	private BuildingColumnStore loadColumns(Dataset dataset) {
+		Path file = baseFile(dataset);
+		return (file == null || !Files.isRegularFile(file)) ? readColumns(dataset) : readColumns(dataset, file);
+	}
+
+	/*
+	 * 스냅샷 매핑 → 데이터셋별 Snapshot(쓸 수 있는 것만).
+	 * 설정 없음/파일 없음/검증 실패면 빈 맵, 데이터셋 누락·원본 불일치면 그 데이터셋만 빠진다(호출부가 JSON 적재).
+	 */
+	private Map<Dataset, Snapshot> loadSnapshotFile() {
+		Map<Dataset, Snapshot> out = new EnumMap<>(Dataset.class);
+		if (snapshotPath == null || snapshotPath.isBlank()) return out;
+		Path file = Path.of(snapshotPath.trim());
+		if (!Files.isRegularFile(file)) {
+			log.warn("[dataset] snapshot not found: {} → JSON fallback", file);
+			return out;
+		}
+		BuildingSnapshotFile.Contents contents;
+		try {
+			contents = BuildingSnapshotFile.open(file, verifyChecksum);
+		} catch (Exception e) {
+			log.warn("[dataset] snapshot open failed: {} → JSON fallback", file, e);
+			return out;
+		}
+		for (Dataset d : Dataset.values()) {
+			BuildingColumnStore columns = contents.datasets().get(d.id());
+			if (columns == null) {
+				log.warn("[dataset] snapshot {} has no dataset '{}' → JSON", file, d.id());
+				continue;
+			}
+			if ("off".equalsIgnoreCase(verifySource.trim())) {
+				Path base = baseFile(d);
+				if (base != null && Files.isRegularFile(base)) continue; // 원본 확인 생략: 외부 디렉터리 파일이 있으면 JSON
+			} else {
+				String stale = staleReason(d, contents.sources().get(d.id()));
+				if (stale != null) {
+					log.warn("[dataset] snapshot {} is stale for '{}' ({}) → JSON", file, d.id(), stale);
+					continue;
+				}
+			}
+			out.put(d, Snapshot.of(columns));
+		}
+		return out;
+	}
+
+	private static Map<Dataset, Snapshot> emptySnapshots() {
+		Map<Dataset, Snapshot> m = new EnumMap<>(Dataset.class);
+		for (Dataset d : Dataset.values()) m.put(d, Snapshot.EMPTY);
+		return m;
+	}
+
+	/* ===== 월별 사용 비중(%) 프로파일 ===== */
+
+	/**
+	 * 월별 사용 비중(%) + 값 기반 ETag(로드 시 1회 계산).
+	 *  - 건물별: monthlyConsumption 파일 순서 그대로(보통 12개)
+	 *  - 카테고리별: 1~12월 인덱스, 월별 평균의 비중
+	 * percents는 공유 배열이므로 수정하지 않는다(응답에는 asList()).
+	 */
+	public record MonthlyProfile(double[] percents, String etag) {
+
+		public List<Double> asList() {
+			List<Double> list = new ArrayList<>(percents.length);
+			for (double p : percents) list.add(p);
+			return list;
+		}
+
+		static MonthlyProfile of(double[] percents) {
+			ByteBuffer buf = ByteBuffer.allocate(percents.length * Double.BYTES);
+			for (double p : percents) buf.putDouble(p);
+			String hex = HashUtils.toHex(HashUtils.sha256(buf.array(), 0, -1));
+			return new MonthlyProfile(percents, "\"" + hex.substring(0, 16) + "\"");
+		}
+	}
+
+	/* ===== 데이터셋 1개 분량의 불변 인덱스 ===== */
+
+	public static final class Snapshot {
+
+		private static final double[] EMPTY_DOUBLES = new double[0];
+
+		static final Snapshot EMPTY = of(BuildingColumnStore.builder(0).build());
+
+		/** 카테고리(buildingType2) 1개의 파생값 */
+		private record Category(int[] rows, double[] sortedIntensity, Double avgIntensity, MonthlyProfile monthly) {}
+
+		private final BuildingColumnStore columns;
+		private final Map<String, Category> byType2;
+		private final MonthlyProfile[] monthlyByRow;
+		private final BuildingRTree spatial;
+		private final EnergyStatsCube cube;
+
+		private Snapshot(BuildingColumnStore columns, Map<String, Category> byType2, MonthlyProfile[] monthlyByRow,
+						 BuildingRTree spatial, EnergyStatsCube cube) {
+			this.columns = columns;
+			this.byType2 = byType2;
+			this.monthlyByRow = monthlyByRow;
+			this.spatial = spatial;
+			this.cube = cube;
+		}
+
+		/** 컬럼 저장소 → 파생 인덱스(카테고리/월별 비중은 병렬 계산) */
+		static Snapshot of(BuildingColumnStore columns) {
+			return of(columns, null, null);
+		}
+
+		/**
+		 * delta 적용용: sourceRow[r] >= 0 인 행(이전 Snapshot의 그 행을 그대로 복사)은 월별 비중을 재사용하고,
+		 * 행 구성이 그대로인 카테고리는 파생값을 재사용한다.
+		 */
+		static Snapshot of(BuildingColumnStore columns, Snapshot prev, int[] sourceRow) {
+			final int n = columns.size();
+
+			// 1) buildingType2 → 행 번호(순차: 최초 등장 순/파일 순서 유지)
+			Map<String, int[]> counts = new LinkedHashMap<>();
+			String[] keyOfRow = new String[n];
+			BuildingColumnStore.Row view = (n > 0) ? columns.row(0) : null;
+			for (int r = 0; r < n; r++) {
+				String t = view.moveTo(r).buildingType2();
+				if (t == null) continue;
+				keyOfRow[r] = t.trim();
+				counts.computeIfAbsent(keyOfRow[r], k -> new int[1])[0]++;
+			}
+			Map<String, int[]> rowsByKey = new LinkedHashMap<>(counts.size() * 2);
+			counts.forEach((k, c) -> rowsByKey.put(k, new int[c[0]]));
+			Map<String, int[]> fill = new LinkedHashMap<>(counts.size() * 2);
+			for (int r = 0; r < n; r++) {
+				if (keyOfRow[r] == null) continue;
+				int[] pos = fill.computeIfAbsent(keyOfRow[r], k -> new int[1]);
+				rowsByKey.get(keyOfRow[r])[pos[0]++] = r;
+			}
+
+			// 2) 카테고리별 파생값(병렬) — 이전과 행 구성이 같으면 재사용
+			List<String> keys = new ArrayList<>(rowsByKey.keySet());
+			Category[] cats = new Category[keys.size()];
+			IntStream.range(0, cats.length).parallel().forEach(i -> {
+				int[] rows = rowsByKey.get(keys.get(i));
+				Category old = (prev == null) ? null : prev.byType2.get(keys.get(i));
+				cats[i] = unchanged(old, rows, sourceRow) ? new Category(rows, old.sortedIntensity(), old.avgIntensity(), old.monthly())
+						: category(columns, rows);
+			});
+			Map<String, Category> byType2 = new LinkedHashMap<>(cats.length * 2);
+			for (int i = 0; i < cats.length; i++) byType2.put(keys.get(i), cats[i]);
+
+			// 3) 건물별 월별 비중 + ETag(병렬)
+			MonthlyProfile[] monthlyByRow = new MonthlyProfile[n];
+			IntStream.range(0, n).parallel().forEach(r -> {
+				if (sourceRow != null && sourceRow[r] >= 0) {
+					monthlyByRow[r] = prev.monthlyByRow[sourceRow[r]];
+					return;
+				}
+				BuildingColumnStore.Row v = columns.row(r);
+				if (v.monthlyCount() > 0) monthlyByRow[r] = MonthlyProfile.of(buildingMonthlyPercents(v));
+			});
+
+			// 4) 좌표 공간 인덱스(STR 일괄 적재 — 정렬 두 번이라 delta 때도 전체 재구성) / 5) 통계 큐브(행당 12칸 누적)
+			return new Snapshot(columns, Collections.unmodifiableMap(byType2), monthlyByRow,
+					BuildingRTree.of(columns), EnergyStatsCube.of(columns));
+		}
+
+		// 새 카테고리 행들이 모두 이전 행의 복사이고 순서/개수까지 같으면 true
+		private static boolean unchanged(Category old, int[] rows, int[] sourceRow) {
+			if (old == null || sourceRow == null || old.rows().length != rows.length) return false;
+			for (int i = 0; i < rows.length; i++) {
+				if (sourceRow[rows[i]] != old.rows()[i]) return false;
+			}
+			return true;
+		}
+
+		private static Category category(BuildingColumnStore columns, int[] rows) {
+			BuildingColumnStore.Row v = columns.row(rows[0]);
+
+			// 원단위: 파일 순서 합산(기존 평균과 같은 합산 순서) + 정렬 배열
+			double[] values = new double[rows.length];
+			int cnt = 0;
+			double sum = 0;
+			for (int r : rows) {
+				double x = v.moveTo(r).energyIntensityKwhPerM2();
+				if (Double.isNaN(x)) continue;
+				values[cnt++] = x;
+				sum += x;
+			}
+			double[] sorted = Arrays.copyOf(values, cnt);
+			Arrays.sort(sorted);
+
+			return new Category(rows, sorted, (cnt == 0) ? null : sum / cnt,
+					MonthlyProfile.of(categoryMonthlyPercents(v, rows)));
+		}
+
+		// 건물 1개: 각 월 전력 / 합계 × 100 (monthlyConsumption 순서 유지, electricity 없음은 0)
+		private static double[] buildingMonthlyPercents(BuildingColumnStore.Row v) {
+			int m = v.monthlyCount();
+			double total = 0;
+			for (int i = 0; i < m; i++) total += electricityOf(v.monthlyElectricity(i));
+
+			double[] percents = new double[m];
+			for (int i = 0; i < m; i++) {
+				percents[i] = (electricityOf(v.monthlyElectricity(i)) / total) * 100.0;
+			}
+			return percents;
+		}
+
+		// 카테고리: 월별(1~12) 평균 전력 → 12개월 합 대비 비중(%)
+		private static double[] categoryMonthlyPercents(BuildingColumnStore.Row v, int[] rows) {
+			double[] monthSums = new double[12];
+			int[] monthCounts = new int[12];
+
+			for (int r : rows) {
+				v.moveTo(r);
+				for (int i = 0, m = v.monthlyCount(); i < m; i++) {
+					int month = v.month(i);
+					if (month < 1 || month > 12) continue;
+					monthSums[month - 1] += electricityOf(v.monthlyElectricity(i));
+					monthCounts[month - 1]++;
+				}
+			}
+
+			double total = 0;
+			for (int i = 0; i < 12; i++) {
+				monthSums[i] = monthCounts[i] > 0 ? monthSums[i] / monthCounts[i] : 0;
+				total += monthSums[i];
+			}
+
+			double[] percents = new double[12];
+			for (int i = 0; i < 12; i++) {
+				percents[i] = (monthSums[i] / total) * 100.0;
+			}
+			return percents;
+		}
+
+		private static double electricityOf(double v) {
+			return Double.isNaN(v) ? 0.0 : v;
+		}
+
+		/** 전체 목록 DTO 복원(파일 순서) — 행 수만큼 할당하므로 대용량에서는 columns()를 쓴다 */
+		public List<SearchBuilding> all() {
+			List<SearchBuilding> list = new ArrayList<>(columns.size());
+			for (int r = 0; r < columns.size(); r++) list.add(columns.row(r).toDto());
+			return list;
+		}
+
+		public int size() {
+			return columns.size();
+		}
+
+		/** pnu(앞뒤 공백 무시) → 건물 DTO(요청마다 새로 복원). 없으면 null */
+		public SearchBuilding findByPnu(String pnu) {
+			BuildingColumnStore.Row row = columns.find(pnu);
+			return (row == null) ? null : row.toDto();
+		}
+
+		/** buildingType2(앞뒤 공백 무시) → 건물 DTO 목록(복원). 없으면 빈 목록 */
+		public List<SearchBuilding> byType2(String category) {
+			Category c = category(category);
+			if (c == null) return List.of();
+			List<SearchBuilding> list = new ArrayList<>(c.rows().length);
+			for (int r : c.rows()) list.add(columns.row(r).toDto());
+			return list;
+		}
+
+		/**
+		 * buildingType2(앞뒤 공백 무시) → energyIntensityKwhPerM2 오름차순 배열. 없으면 빈 배열.
+		 * 공유 배열이므로 호출부에서 수정하지 않는다.
+		 */
+		public double[] sortedIntensities(String category) {
+			Category c = category(category);
+			return (c == null) ? EMPTY_DOUBLES : c.sortedIntensity();
+		}
+
+		/** buildingType2 → 원단위 평균. 카테고리가 없거나 값이 하나도 없으면 null */
+		public Double avgIntensity(String category) {
+			Category c = category(category);
+			return (c == null) ? null : c.avgIntensity();
+		}
+
+		/** 좌표 공간 인덱스(행 번호 반환 → columns().row(i)) */
+		public BuildingRTree spatial() {
+			return spatial;
+		}
+
+		/** 지역 × 용도 × 연대 통계 큐브 */
+		public EnergyStatsCube cube() {
+			return cube;
+		}
+
+		/** 컬럼 저장소 */
+		public BuildingColumnStore columns() {
+			return columns;
+		}
+
+		/** pnu(앞뒤 공백 무시) → 건물 월별 비중. 건물이 없거나 월별 데이터가 없으면 null */
+		public MonthlyProfile monthlyProfileByPnu(String pnu) {
+			int row = columns.rowOf(pnu);
+			return (row < 0) ? null : monthlyByRow[row];
+		}
+
+		/** buildingType2(앞뒤 공백 무시) → 카테고리 월별 비중. 없는 카테고리는 null */
+		public MonthlyProfile monthlyProfileByCategory(String category) {
+			Category c = category(category);
+			return (c == null) ? null : c.monthly();
+		}
+
+		/** buildingType2 목록(최초 등장 순) */
+		public Set<String> categories() {
+			return byType2.keySet();
+		}
+
+		private Category category(String category) {
+			if (category == null) return null;
+			return byType2.get(category.trim());
+		}
+	}
+}
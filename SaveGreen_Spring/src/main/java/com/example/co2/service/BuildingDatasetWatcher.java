@@ -0,0 +1,180 @@
+package com.example.co2.service;
+
+import com.example.co2.service.BuildingDatasetRegistry.Dataset;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · BuildingDatasetWatcher (건물 데이터셋 무중단 갱신)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - app.dataset.dir 의 JSON이 바뀌면 재기동 없이 BuildingDatasetRegistry 의 Snapshot을 교체한다.
+ *
+ * 동작
+ *  - 감시 스레드(dataset-watch)가 WatchService(CREATE/MODIFY)로 파일명을 받아 데이터셋에 매핑
+ *    · <파일명>.json       → 전체 재적재(reloadFull, delta 모드면 delta 재적용 포함)
+ *    · <파일명>.delta.json → delta 모드일 때만 upsert(applyDelta)
+ *  - 파일 복사 중 이벤트가 여러 번 오므로 데이터셋별 debounce-ms 동안 모았다가 1회 실행
+ *  - 재계산은 전용 ForkJoinPool(parallelism)에서 → Snapshot.of 의 병렬 스트림이 공용 풀을 점유하지 않는다
+ *  - 실패(JSON 문법 오류 등)하면 경고 로그만 남기고 기존 Snapshot 유지
+ *
+ * 설정
+ *  - app.dataset.watch.enabled       : false면 감시하지 않음(dir 미설정이어도 감시하지 않음)
+ *  - app.dataset.reload.debounce-ms  : 이벤트 묶음 대기(기본 500)
+ *  - app.dataset.reload.parallelism  : 재계산 병렬도(0이면 코어 수 / 2)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Component
+public class BuildingDatasetWatcher {
+
+	private final BuildingDatasetRegistry registry;
+
+	@Value("${app.dataset.watch.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.dataset.reload.debounce-ms:500}")
+	private long debounceMs;
+
+	@Value("${app.dataset.reload.parallelism:0}")
+	private int parallelism;
+
+	private WatchService watchService;
+	private Thread watchThread;
+	private ScheduledExecutorService scheduler;
+	private ForkJoinPool reloadPool;
+
+	// 데이터셋별 대기 중인 갱신(debounce) — scheduler 스레드에서만 접근
+	private final Map<Dataset, ScheduledFuture<?>> pending = new EnumMap<>(Dataset.class);
+	private final Map<Dataset, Boolean> pendingFull = new EnumMap<>(Dataset.class);
+
+	public BuildingDatasetWatcher(BuildingDatasetRegistry registry) {
+		this.registry = registry;
+	}
+
+	@PostConstruct
+	void start() {
+		Path dir = registry.dataDir();
+		if (!enabled || dir == null) return;
+		if (!Files.isDirectory(dir)) {
+			log.warn("[dataset] watch skipped: {} is not a directory", dir);
+			return;
+		}
+		try {
+			watchService = dir.getFileSystem().newWatchService();
+			dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			log.warn("[dataset] watch disabled: {}", e.toString());
+			return;
+		}
+
+		int threads = (parallelism > 0) ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		reloadPool = new ForkJoinPool(threads);
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "dataset-reload");
+			t.setDaemon(true);
+			return t;
+		});
+		watchThread = new Thread(this::watchLoop, "dataset-watch");
+		watchThread.setDaemon(true);
+		watchThread.start();
+		log.info("[dataset] watching {} (mode = {}, debounce = {} ms, parallelism = {})",
+				dir, registry.deltaMode() ? "delta" : "full", debounceMs, threads);
+	}
+
+	@PreDestroy
+	void stop() {
+		try {
+			if (watchService != null) watchService.close();
+		} catch (IOException ignore) {
+			// 종료 중
+		}
+		if (scheduler != null) scheduler.shutdownNow();
+		if (reloadPool != null) reloadPool.shutdownNow();
+	}
+
+	private void watchLoop() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				for (WatchEvent<?> ev : key.pollEvents()) {
+					if (ev.kind() == StandardWatchEventKinds.OVERFLOW) {
+						// 이벤트 유실: 전부 다시 읽는다
+						for (Dataset d : Dataset.values()) schedule(d, true);
+						continue;
+					}
+					onFile(String.valueOf(ev.context()));
+				}
+				if (!key.reset()) {
+					log.warn("[dataset] watch key invalidated (directory removed?)");
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// @PreDestroy
+		}
+	}
+
+	private void onFile(String name) {
+		for (Dataset d : Dataset.values()) {
+			String base = BuildingDatasetRegistry.fileName(d);
+			if (name.equals(base)) {
+				schedule(d, true);
+			} else if (registry.deltaMode()
+					&& name.equals(base.substring(0, base.length() - ".json".length()) + ".delta.json")) {
+				schedule(d, false);
+			}
+		}
+	}
+
+	// debounce: 같은 데이터셋의 대기 작업을 취소하고 다시 예약(full 요청은 delta보다 우선)
+	private void schedule(Dataset d, boolean full) {
+		scheduler.execute(() -> {
+			ScheduledFuture<?> prev = pending.remove(d);
+			if (prev != null) prev.cancel(false);
+			boolean f = full || pendingFull.getOrDefault(d, false);
+			pendingFull.put(d, f);
+			pending.put(d, scheduler.schedule(() -> {
+				pending.remove(d);
+				pendingFull.remove(d);
+				reload(d, f);
+			}, Math.max(0, debounceMs), TimeUnit.MILLISECONDS));
+		});
+	}
+
+	private void reload(Dataset d, boolean full) {
+		try {
+			reloadPool.submit(() -> {
+				if (full) registry.reloadFull(d);
+				else registry.applyDelta(d);
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+			log.warn("[dataset] {} {} failed, keeping previous snapshot: {}", full ? "reload" : "delta", d.id(), cause.toString());
+		}
+	}
+}
@@ -1,13 +1,13 @@
 package com.example.co2.service;
 
+import com.example.co2.dto.EnergyCubeDtos.CubeSlice;
+import com.example.co2.dto.EnergyPercentileDtos.PercentileQuery;
+import com.example.co2.dto.EnergyPercentileDtos.PercentileResult;
 import com.example.co2.dto.SearchBuilding;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.co2.util.EnergyStatsCube;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,63 +16,59 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BuildingEnergyJsonService {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private static final String ENERGY_JSON_PATH = "static/dummy/buildingenergydata.json";
+    // [ADD] buildingenergydata.json 은 공용 레지스트리(기동 시 1회 로드, buildingType2 인덱스)에서 조회
+    private final BuildingDatasetRegistry datasetRegistry;
 
    
     public List<SearchBuilding> readAll() {
-        try (InputStream is = new ClassPathResource(ENERGY_JSON_PATH).getInputStream()) {
-            return objectMapper.readValue(is, new TypeReference<List<SearchBuilding>>() {});
-        } catch (Exception e) {
-            throw new IllegalStateException("buildingenergydata 로드 실패: " + ENERGY_JSON_PATH, e);
-        }
+        return datasetRegistry.energy().all();
     }
 
    
     public Double avgIntensityByCategory(String category) {
         if (category == null) return null;
 
-        List<SearchBuilding> list = readAll();
-        double sum = 0.0;
-        int count = 0;
-
-        for (SearchBuilding b : list) {
-            if (b == null) continue;
-            String cat = b.getBuildingType2();
-            if (cat == null) continue;
-            if (!cat.trim().equals(category.trim())) continue;
-
-            Double inten = b.getEnergyIntensityKwhPerM2();
-            if (inten == null) continue;
-
-            sum += inten;
-            count++;
-        }
-        if (count == 0) return null;
-        return sum / count;
+        // [ADD] 로드 시 카테고리별로 계산해 둔 평균(파일 순서 합산)
+        return datasetRegistry.energy().avgIntensity(category);
     }
     public Double percentileByCategory(String category, double value){
         if(category == null ) return null;
 
-        List<SearchBuilding>list = readAll();
-        List<Double> intensities = new ArrayList<>();
-        for (SearchBuilding b : list) {
-            if (b == null) continue;
-            if (b.getBuildingType2() == null) continue;
-            if (!b.getBuildingType2().trim().equals(category.trim())) continue;
-            if (b.getEnergyIntensityKwhPerM2() == null) continue;
-            intensities.add(b.getEnergyIntensityKwhPerM2());
+        // [ADD] 카테고리별 오름차순 배열(로드 시 1회 정렬)에서 이진 탐색 — O(log n)
+        double[] intensities = datasetRegistry.energy().sortedIntensities(category);
+        return percentileOf(intensities, value);
+    }
+
+    /**
+     * [ADD] (category, value) 여러 건을 한 번에 — 지도에서 건물 수백 개 색칠용.
+     * 순서는 입력과 동일, 데이터 없는 카테고리/값은 percentile = null.
+     */
+    public List<PercentileResult> percentileByCategoryBulk(List<PercentileQuery> queries) {
+        if (queries == null || queries.isEmpty()) return Collections.emptyList();
+
+        BuildingDatasetRegistry.Snapshot energy = datasetRegistry.energy();
+        List<PercentileResult> results = new ArrayList<>(queries.size());
+        for (PercentileQuery q : queries) {
+            Double percentile = null;
+            if (q != null && q.category() != null && q.value() != null) {
+                percentile = percentileOf(energy.sortedIntensities(q.category()), q.value());
+            }
+            results.add(new PercentileResult(
+                    q == null ? null : q.category(),
+                    q == null ? null : q.value(),
+                    percentile
+            ));
         }
-        if (intensities.isEmpty()) return null;
+        return results;
+    }
 
-        Collections.sort(intensities);
+    // 순위 = value 이하 개수(upper bound). 반올림(소수 1자리)/100→99, 0→1 보정은 기존 규칙 그대로
+    private static Double percentileOf(double[] sorted, double value) {
+        if (sorted.length == 0) return null;
 
-        int rank = 0;
-        for (Double v : intensities) {
-            if (v <= value) rank++;
-        }
+        int rank = upperBound(sorted, value);
 
-        double percentile = (double) rank / intensities.size() * 100.0;
+        double percentile = (double) rank / sorted.length * 100.0;
         percentile = Math.round(percentile * 10) / 10.0;
 
         if (percentile==100){
@@ -84,41 +80,96 @@ public class BuildingEnergyJsonService {
 
         return percentile;
     }
+
+    // sorted 에서 v <= value 인 원소 수 (value가 NaN이면 0 — 기존 선형 비교와 동일)
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
     public List<Double> getMonthlyPercentByCategory(String category) {
-        List<SearchBuilding> list = readAll();
-        List<SearchBuilding> filtered = new ArrayList<>();
-
-        for (SearchBuilding b : list) {
-            if (b == null || b.getBuildingType2() == null) continue;
-            if (b.getMonthlyConsumption() == null) continue;
-            if (!b.getBuildingType2().trim().equals(category.trim())) continue;
-            filtered.add(b);
+        BuildingDatasetRegistry.MonthlyProfile profile = getMonthlyProfileByCategory(category);
+        if (profile == null) {
+            // 데이터 없는 카테고리: 기존과 동일하게 0/0 → NaN 12개
+            List<Double> percents = new ArrayList<>(12);
+            for (int i = 0; i < 12; i++) percents.add(Double.NaN);
+            return percents;
         }
+        return profile.asList();
+    }
 
-        double[] monthSums = new double[12];
-        int[] monthCounts = new int[12];
+    // [ADD] 로드 시 계산된 카테고리 월별 비중 + ETag (없는 카테고리는 null)
+    public BuildingDatasetRegistry.MonthlyProfile getMonthlyProfileByCategory(String category) {
+        return datasetRegistry.energy().monthlyProfileByCategory(category);
+    }
 
-        for (SearchBuilding b : filtered) {
-            for (int i = 0; i < b.getMonthlyConsumption().size(); i++) {
-                double elec = b.getMonthlyConsumption().get(i).getElectricity();
-                int month = b.getMonthlyConsumption().get(i).getMonth();
-                monthSums[month - 1] += elec;
-                monthCounts[month - 1]++;
+    /**
+     * [ADD] 지역 × 용도 × 준공 연대 비교 통계(로드 시 만든 큐브 조회, 데이터셋 스캔 없음).
+     *  - region   : null/"*" = 전체, 2자리 = 시도, 5자리 = 시군구(PNU 앞자리)
+     *  - 연대      : decade(예: 1990) 하나, 또는 builtFrom ~ builtBefore(연도 → 10년 단위로 내림)
+     *  - value    : 주면 그 원단위가 이 집단에서 몇 % 위치인지(이하 비율)
+     * 데이터 없으면 null.
+     */
+    public CubeSlice cubeSlice(String region, String category, Integer decade,
+                               Integer builtFrom, Integer builtBefore, Double value) {
+        int[] range = decadeRange(decade, builtFrom, builtBefore);
+        EnergyStatsCube cube = datasetRegistry.energy().cube();
+        return toSlice(cube, region, category, range, cube.range(region, category, range[0], range[1]), value);
+    }
+
+    /** [ADD] 롤업: by(sido | sigungu | category | decade) 값마다 한 줄 */
+    public List<CubeSlice> cubeRollup(String by, String region, String category, Integer decade,
+                                      Integer builtFrom, Integer builtBefore) {
+        int[] range = decadeRange(decade, builtFrom, builtBefore);
+        EnergyStatsCube cube = datasetRegistry.energy().cube();
+        List<CubeSlice> out = new ArrayList<>();
+        for (EnergyStatsCube.Group g : cube.rollup(by, region, category, range[0], range[1])) {
+            switch (by) {
+                case "sido", "sigungu" -> out.add(toSlice(cube, g.key(), category, range, g.cell(), null));
+                case "category" -> out.add(toSlice(cube, region, g.key(), range, g.cell(), null));
+                default -> {
+                    int d = Integer.parseInt(g.key());
+                    out.add(toSlice(cube, region, category, new int[]{d, d}, g.cell(), null));
+                }
             }
         }
+        return out;
+    }
 
-        double total = 0;
-        for (int i = 0; i < 12; i++) {
-            monthSums[i] = monthCounts[i] > 0 ? monthSums[i] / monthCounts[i] : 0;
-            total += monthSums[i];
+    // {decadeFrom, decadeTo} (ALL_DECADES = 제한 없음). builtBefore 는 미포함 상한
+    private static int[] decadeRange(Integer decade, Integer builtFrom, Integer builtBefore) {
+        if (decade != null) {
+            int d = Math.floorDiv(decade, 10) * 10;
+            return new int[]{d, d};
         }
+        int from = (builtFrom == null) ? EnergyStatsCube.ALL_DECADES : Math.floorDiv(builtFrom, 10) * 10;
+        int to = (builtBefore == null) ? EnergyStatsCube.ALL_DECADES : Math.floorDiv(builtBefore - 1, 10) * 10;
+        return new int[]{from, to};
+    }
 
-        List<Double> percents = new ArrayList<>();
-        for (int i = 0; i < 12; i++) {
-            percents.add((monthSums[i] / total) * 100.0);
-        }
+    private static CubeSlice toSlice(EnergyStatsCube cube, String region, String category, int[] range,
+                                     EnergyStatsCube.Cell c, Double value) {
+        if (c == null || c.count() == 0) return null;
+        String r = (region == null || region.isBlank()) ? EnergyStatsCube.ALL : region.trim();
+        Double percentile = (value == null) ? null : Math.round(c.rank(value) * 1000) / 10.0;
+        return new CubeSlice(
+                r, cube.regionName(r),
+                (category == null || category.isBlank()) ? EnergyStatsCube.ALL : category.trim(),
+                range[0] == EnergyStatsCube.ALL_DECADES ? null : range[0],
+                range[1] == EnergyStatsCube.ALL_DECADES ? null : range[1],
+                c.count(), round1(c.avg()), c.min(), c.max(),
+                round1(c.quantile(0.25)), round1(c.quantile(0.5)), round1(c.quantile(0.75)), round1(c.quantile(0.9)),
+                value, percentile
+        );
+    }
 
-        return percents;
+    private static double round1(double v) {
+        return Math.round(v * 10) / 10.0;
     }
 
 }
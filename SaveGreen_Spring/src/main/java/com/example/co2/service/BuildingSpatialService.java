@@ -0,0 +1,63 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.BuildingSpatialDtos.BuildingPoint;
+import com.example.co2.util.BuildingColumnStore;
+import com.example.co2.util.BuildingRTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · BuildingSpatialService (지도 영역/근접 건물 검색)
+ * ────────────────────────────────────────────────────────────────────────────
+ *  - 데이터셋 Snapshot의 STR R-tree(BuildingRTree)로 "화면 영역 안 건물", "가까운 건물 k개"를 메모리에서 답한다.
+ *  - 요청마다 현재 Snapshot을 한 번 잡고 끝까지 쓴다(무중단 교체 중에도 일관).
+ *  - 좌표는 데이터셋의 lat/lon(선택 필드). 좌표가 없는 행은 인덱스에 없다.
+ *  - app.spatial.max-results : 1회 응답 최대 건수(영역이 넓어도 이 이상은 자른다)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Service
+@RequiredArgsConstructor
+public class BuildingSpatialService {
+
+	private final BuildingDatasetRegistry registry;
+
+	@Value("${app.spatial.max-results:2000}")
+	private int maxResults;
+
+	/** 영역(남서~북동) 안 건물, 최대 limit 건 */
+	public List<BuildingPoint> within(BuildingDatasetRegistry.Dataset dataset,
+									  double south, double west, double north, double east, int limit) {
+		BuildingDatasetRegistry.Snapshot snap = registry.dataset(dataset);
+		int[] rows = snap.spatial().within(south, west, north, east, cap(limit));
+		List<BuildingPoint> out = new ArrayList<>(rows.length);
+		BuildingColumnStore.Row v = (rows.length > 0) ? snap.columns().row(rows[0]) : null;
+		for (int r : rows) out.add(point(v.moveTo(r), null));
+		return out;
+	}
+
+	/** (lat, lon) 에서 가까운 순 k 건(maxDistanceM 이내, 0 이하면 제한 없음) */
+	public List<BuildingPoint> nearest(BuildingDatasetRegistry.Dataset dataset,
+									   double lat, double lon, int k, double maxDistanceM) {
+		BuildingDatasetRegistry.Snapshot snap = registry.dataset(dataset);
+		List<BuildingRTree.Neighbor> hits = snap.spatial().nearest(lat, lon, cap(k), maxDistanceM);
+		List<BuildingPoint> out = new ArrayList<>(hits.size());
+		BuildingColumnStore.Row v = hits.isEmpty() ? null : snap.columns().row(hits.get(0).row());
+		for (BuildingRTree.Neighbor h : hits) {
+			out.add(point(v.moveTo(h.row()), Math.round(h.distanceM() * 10) / 10.0));
+		}
+		return out;
+	}
+
+	private int cap(int n) {
+		return Math.max(0, Math.min(n, maxResults));
+	}
+
+	private static BuildingPoint point(BuildingColumnStore.Row v, Double distanceM) {
+		return new BuildingPoint(v.pnu(), v.buildingName(), v.buildingType2(), v.lat(), v.lon(), distanceM);
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.co2.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · ForecastL1Cache (api_cache 앞단 프로세스 내 캐시)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - 인기 건물의 예측 요청이 매번 MySQL(api_cache) 왕복을 하지 않도록 JVM 내부에 1차 캐시를 둔다.
+ *
+ * 규칙
+ *  - 키: ForecastService와 동일한 cache_key_hash(ForecastCacheKey.hash() — KeyHasher, app.cache.key.hash=sha256|murmur3)
+ *  - 만료: DB 행의 expires_at을 그대로 따른다(app.cache.ttl-minutes로 계산된 값) → L1/DB 만료 시점 일치
+ *  - 축출: Caffeine 기본 정책(W-TinyLFU: 빈도+최근성), 용량은 payload 바이트 가중치 합으로 제한
+ *  - MISS 시 호출부(ForecastService)가 DB로 폴스루하고, DB HIT/신규 계산 결과를 put으로 채운다.
+ *
+ * 설정
+ *  - app.cache.l1.enabled   : L1 사용 여부(기본 true)
+ *  - app.cache.l1.max-bytes : payload 가중치 상한(기본 32MB)
+ *  - app.cache.stale-grace-minutes : 만료 후에도 stale 로 보관하는 유예(ForecastService SWR와 동일 값)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Component
+public class ForecastL1Cache {
+
+	/** 캐시 값: 응답 JSON 그대로 + DB와 동일한 만료 시각 */
+	public record Entry(String payload, LocalDateTime expiresAt) {
+		public boolean isFresh(LocalDateTime now) {
+			return expiresAt.isAfter(now);
+		}
+	}
+
+	// 엔트리당 고정 오버헤드(키 문자열/레코드/노드) 대략치(bytes)
+	private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+	private final boolean enabled;
+	private final long maxBytes;
+	private final Duration grace;
+	private final Cache<String, Entry> cache;
+
+	public ForecastL1Cache(
+			@Value("${app.cache.l1.enabled:true}") boolean enabled,
+			@Value("${app.cache.l1.max-bytes:33554432}") long maxBytes,
+			@Value("${app.cache.stale-grace-minutes:0}") long staleGraceMinutes
+	) {
+		this.enabled = enabled;
+		this.maxBytes = maxBytes;
+		this.grace = Duration.ofMinutes(Math.max(0L, staleGraceMinutes));
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String k, Entry v) -> weigh(k, v))
+				.expireAfter(new Expiry<String, Entry>() {
+					@Override
+					public long expireAfterCreate(String key, Entry value, long currentTime) {
+						return lifetimeNanos(value);
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+						return lifetimeNanos(value);
+					}
+
+					@Override
+					public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+						return currentDuration; // 읽기로 수명 연장하지 않음(DB 만료와 일치)
+					}
+				})
+				.recordStats()
+				.build();
+		log.info("[forecast-l1] enabled={}, maxBytes={}", enabled, maxBytes);
+	}
+
+	/** 미만료 엔트리 조회. 없거나 만료면 null */
+	public Entry get(String keyHash) {
+		Entry e = getWithinGrace(keyHash);
+		return (e != null && e.isFresh(LocalDateTime.now())) ? e : null;
+	}
+
+	/** 만료 + 유예(stale-grace) 이내 엔트리까지 조회(SWR용). 호출부가 isFresh로 구분 */
+	public Entry getWithinGrace(String keyHash) {
+		if (!enabled) return null;
+		return cache.getIfPresent(keyHash); // 유예 경과 엔트리는 Caffeine이 이미 만료 처리
+	}
+
+	public void put(String keyHash, String payload, LocalDateTime expiresAt) {
+		if (!enabled || payload == null || expiresAt == null) return;
+		cache.put(keyHash, new Entry(payload, expiresAt));
+	}
+
+	public void invalidate(String keyHash) {
+		cache.invalidate(keyHash);
+	}
+
+	/** hit/miss/eviction 카운터 + 현재 적재량 */
+	public Map<String, Object> stats() {
+		CacheStats s = cache.stats();
+		Map<String, Object> m = new LinkedHashMap<>();
+		m.put("enabled", enabled);
+		m.put("entries", cache.estimatedSize());
+		m.put("weightBytes", cache.policy().eviction().map(ev -> ev.weightedSize().orElse(0L)).orElse(0L));
+		m.put("maxBytes", maxBytes);
+		m.put("hits", s.hitCount());
+		m.put("misses", s.missCount());
+		m.put("hitRate", s.hitRate());
+		m.put("evictions", s.evictionCount());
+		m.put("evictionWeight", s.evictionWeight());
+		return m;
+	}
+
+	/* ===== 내부 구현 ===== */
+
+	// String은 UTF-16(최대 2바이트/문자) 기준으로 보수적으로 계산
+	private static int weigh(String key, Entry v) {
+		long w = ENTRY_OVERHEAD_BYTES + 2L * key.length() + 2L * v.payload().length();
+		return (int) Math.min(Integer.MAX_VALUE, w);
+	}
+
+	// 지금부터 (expires_at + 유예)까지 남은 시간. 이미 만료된 행은 남은 유예만큼만 보관(지나면 0)
+	private long lifetimeNanos(Entry value) {
+		long nanos = Duration.between(LocalDateTime.now(), value.expiresAt().plus(grace)).toNanos();
+		return Math.max(0L, nanos);
+	}
+}
@@ -6,16 +6,34 @@ import com.example.co2.dto.ForecastDtos.Kpi;
 import com.example.co2.dto.ForecastDtos.Series;
 import com.example.co2.entity.ApiCache;
 import com.example.co2.repository.ApiCacheRepository;
-import com.example.co2.util.HashUtils;
+import com.example.co2.util.ForecastCacheKey;
+import com.example.co2.util.KeyHasher;
+import com.example.co2.util.PayloadCodec;
+import com.example.co2.util.SingleFlight;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.time.Year;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 // [ADD] 로깅 (save→upsert 변경 로그 위해 추가)
 import lombok.extern.slf4j.Slf4j;
@@ -48,7 +66,17 @@ import lombok.extern.slf4j.Slf4j;
  *     - 합산: ≥4: RECOMMEND, ≥2: CONDITIONAL, else NOT_RECOMMEND
  *
  * 캐시 키
- *  - 요청 파라미터(builtYear/use/floorArea/pnu 포함) 해시 → upsert(HIT/MISS 정상 동작 확인).
+ *  - ForecastCacheKey 정규형: 면적 양자화(app.cache.key.area-precision), 용도 어휘 통일, pnu/buildingId 지문.
+ *    해시는 computeStub 결과에 영향을 주는 필드(from/to/면적)만 포함, 나머지는 cache_key_raw에 참고로 기록.
+ *  - 해시는 KeyHasher(스레드별 버퍼/다이제스트 재사용)로 중간 String 없이 계산. app.cache.key.hash=murmur3 이면 128bit 비암호 해시.
+ *  - HIT 응답은 payload_json을 역직렬화하지 않고 그대로 내려보낸다(forecastJson, 패스스루).
+ *    점수/라벨 확인 로그는 app.cache.hit-log-sample-rate 비율로만 남긴다.
+ *  - 조회 순서: L1(ForecastL1Cache, JVM) → api_cache(MySQL) → 계산. 만료 시각은 두 계층이 동일.
+ *  - 같은 키의 동시 MISS는 SingleFlight로 합쳐 computeStub/upsert를 1회만 수행.
+ *  - api_cache 저장은 ApiCacheWriteBehind 큐로 넘겨 요청 스레드에서 MySQL 쓰기를 하지 않는다.
+ *  - stale-while-revalidate: 만료 후 app.cache.stale-grace-minutes 이내면 기존 값을 즉시 응답하고,
+ *    키당 1건·유한 스레드풀에서 재계산해 expires_at을 갱신한다(유명 건물의 TTL 경계 지연 제거).
+ *  - 저장 포맷은 app.cache.payload-codec(PayloadCodec). 읽기는 행의 payload_codec을 따르므로 기존 json 행도 그대로 읽힌다.
  *
  * 주의
  *  - BASE_KWH/START_SAVING 등 "고정 상수만"으로 시계열을 만들면 건물 간 값이 같아짐.
@@ -63,6 +91,29 @@ public class ForecastService {
 	@Value("${app.cache.ttl-minutes:10}")
 	private int ttlMinutes;
 
+	// [ADD] stale-while-revalidate: 만료 후 이 시간(분) 동안은 기존 값을 즉시 응답하고 백그라운드에서 갱신
+	@Value("${app.cache.stale-grace-minutes:0}")
+	private int staleGraceMinutes;
+
+	// [ADD] 백그라운드 갱신 스레드 수 / 대기 큐 크기
+	@Value("${app.cache.refresh.threads:2}")
+	private int refreshThreads;
+
+	@Value("${app.cache.refresh.queue-capacity:100}")
+	private int refreshQueueCapacity;
+
+	// [ADD] 캐시 키 면적 양자화 단위(㎡) — ForecastCacheKey
+	@Value("${app.cache.key.area-precision:1.0}")
+	private double areaPrecision;
+
+	// [ADD] 캐시 키 해시 알고리즘(sha256 | murmur3) — KeyHasher.Algorithm
+	@Value("${app.cache.key.hash:sha256}")
+	private String keyHashAlgorithm;
+
+	// [ADD] HIT 시 점수/라벨 확인 로그 샘플링 비율(0.0 ~ 1.0)
+	@Value("${app.cache.hit-log-sample-rate:0.0}")
+	private double hitLogSampleRate;
+
 	// FE와 동일 파라미터(더미 생성 기준)
 	//  - BASE_KWH, START_SAVING 은 과거 "고정 더미" 시절의 잔재 상수로 남겨두되,
 	//    아래 computeStub(...)에서는 건물 컨텍스트(면적×EUI) 기반으로 스케일링하므로 사용하지 않는다.
@@ -85,10 +136,47 @@ public class ForecastService {
 
 	private final ApiCacheRepository apiCacheRepository;
 	private final ObjectMapper objectMapper;
+	private final ForecastL1Cache l1Cache; // [ADD] JVM 내 1차 캐시(api_cache 앞단)
+	private final ApiCacheWriteBehind writeBehind; // [ADD] api_cache 비동기 배치 UPSERT
 
-	public ForecastService(ApiCacheRepository apiCacheRepository, ObjectMapper objectMapper) {
+	// [ADD] 동일 keyHash 동시 MISS 합치기 → computeStub/upsert 1회
+	private final SingleFlight<String, String> missFlight = new SingleFlight<>();
+
+	// [ADD] SWR 갱신: 키 중복 방지 + 유한 실행기(@PostConstruct에서 생성)
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+	private final LongAdder refreshed = new LongAdder();
+	private final LongAdder refreshRejected = new LongAdder();
+	private ThreadPoolExecutor refreshExecutor;
+
+	public ForecastService(ApiCacheRepository apiCacheRepository, ObjectMapper objectMapper,
+						   ForecastL1Cache l1Cache, ApiCacheWriteBehind writeBehind) {
 		this.apiCacheRepository = apiCacheRepository;
 		this.objectMapper = objectMapper;
+		this.l1Cache = l1Cache;
+		this.writeBehind = writeBehind;
+	}
+
+	@PostConstruct
+	void initRefreshExecutor() {
+		final int threads = Math.max(1, refreshThreads);
+		final AtomicInteger seq = new AtomicInteger();
+		refreshExecutor = new ThreadPoolExecutor(
+				threads, threads,
+				60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, refreshQueueCapacity)),
+				r -> {
+					Thread t = new Thread(r, "forecast-refresh-" + seq.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				},
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+		refreshExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	@PreDestroy
+	void shutdownRefreshExecutor() {
+		if (refreshExecutor != null) refreshExecutor.shutdown();
 	}
 
 	/** 컨트롤러에서 호출되는 공개 메서드 (기존 시그니처) */
@@ -97,6 +185,7 @@ public class ForecastService {
 	}
 
 	// [ADD] 확장 오버로드: use, floorArea, pnu 포함 → 캐시 키와 계산에 모두 반영
+	//  - DTO가 필요한 호출부용. HTTP 응답은 forecastJson(...)을 사용(역직렬화/재직렬화 생략).
 	public ForecastResponse forecast(
 			Long buildingId,
 			int fromYear,
@@ -106,63 +195,167 @@ public class ForecastService {
 			String use,
 			Double floorArea,
 			String pnu
+	) {
+		String payload = forecastPayload(buildingId, fromYear, toYear, scenario, builtYear, use, floorArea, pnu);
+		try {
+			return objectMapper.readValue(payload, ForecastResponse.class);
+		} catch (Exception e) {
+			throw new IllegalStateException("forecast payload parse failed", e);
+		}
+	}
+
+	// [ADD] 패스스루 응답: api_cache.payload_json 문자열을 그대로 UTF-8 바이트로 반환
+	//  - HIT: DB 문자열 → 바이트 (Jackson 0회)
+	//  - MISS: 계산 → 1회 직렬화 → upsert/응답 공용
+	public byte[] forecastJson(
+			Long buildingId,
+			int fromYear,
+			int toYear,
+			String scenario,
+			Integer builtYear,
+			String use,
+			Double floorArea,
+			String pnu
+	) {
+		return forecastPayload(buildingId, fromYear, toYear, scenario, builtYear, use, floorArea, pnu)
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/** 캐시 조회 → (HIT) 저장된 JSON 그대로 / (MISS) 계산 후 직렬화·upsert. 반환값은 payload JSON 문자열 */
+	private String forecastPayload(
+			Long buildingId,
+			int fromYear,
+			int toYear,
+			String scenario,
+			Integer builtYear,
+			String use,
+			Double floorArea,
+			String pnu
 	) {
 		// 1) from==to → 7년 확장, from>to → 스왑
 		int[] range = normalizeRange(fromYear, toYear);
 		int from = range[0], to = range[1];
 
-		// 2) 캐시 키 구성 (기존 + builtYear/use/floorArea/pnu 추가)
-		String keyRaw = buildCacheKeyRaw(buildingId, from, to, scenario)
-				+ ";builtYear=" + ((builtYear == null || builtYear <= 0) ? "na" : String.valueOf(builtYear))
-				+ ";use=" + ((use == null || use.isBlank()) ? "na" : use.trim())
-				+ ";floorArea=" + ((floorArea == null) ? "na" : String.valueOf(floorArea))
-				+ ";pnu=" + ((pnu == null || pnu.isBlank()) ? "na" : pnu.trim());
-		String keyHash = HashUtils.sha256Hex(keyRaw);
+		// 2) 캐시 키 구성 — 정규화(면적 양자화/용도 어휘/건물 지문) 후 computeStub 영향 필드만 해시
+		ForecastCacheKey key = ForecastCacheKey.of(
+				buildingId, from, to, scenario, builtYear, use, floorArea, pnu, areaPrecision,
+				KeyHasher.Algorithm.of(keyHashAlgorithm)
+		);
+		String keyHash = key.hash(); // cache_key_raw 문자열은 MISS 저장 시에만 만든다(key.raw())
+		Double area = key.area(); // 같은 키 → 같은 결과가 되도록 계산에도 양자화 면적 사용
+
+		// 3-1) L1(JVM) 조회 — HIT면 DB 왕복 없이 반환 (유예 이내 stale이면 즉시 반환 + 백그라운드 갱신)
+		final LocalDateTime now = LocalDateTime.now();
+		ForecastL1Cache.Entry local = l1Cache.getWithinGrace(keyHash);
+		if (local != null) {
+			log.debug("[forecast] L1 HIT hash = {}", keyHash);
+			if (!local.isFresh(now)) {
+				scheduleRefresh(keyHash, key, buildingId, from, to, builtYear, use, area, pnu);
+			}
+			if (shouldLogHitScore()) logHitScore(local.payload(), builtYear);
+			return local.payload();
+		}
 
-		// 3) 캐시 조회(미만료)
+		// 3-2) DB(api_cache) 조회(만료 + 유예 이내) — HIT면 L1에 같은 만료시각으로 적재
 		Optional<ApiCache> cached = apiCacheRepository.findTopByCacheKeyHashAndExpiresAtAfter(
-				keyHash, LocalDateTime.now()
+				keyHash, now.minusMinutes(staleGraceMinutes)
 		);
-		if (cached.isPresent()) {
-			log.info("[forecast] cache HIT hash = {}", keyHash);
-			try {
-				ForecastResponse r = objectMapper.readValue(
-						cached.get().getPayloadJson(), ForecastResponse.class
-				);
-				// 확인용 로그 (기존과 동일)
-				double pct = r.kpi().savingPct();
-				double payback = r.kpi().paybackYears();
-
-				// builtYear는 kpi에 없으므로, 메서드 파라미터 'builtYear'를 사용
-				Integer by = builtYear;
-
-				// label도 kpi에 없으므로, 현재 응답 값(pct, payback, builtYear)로 재판정
-				String label = decideLabelByScore(pct, payback, by);
-
-				int score = computeStatusScore(pct, payback, by);
-				log.info("[forecast] score = {}, label = {}, builtYear = {}, savingPct = {}%, payback = {}y",
-						score, label, by == null ? "na" : by, String.format("%.1f", pct), String.format("%.2f", payback));
-				return r;
-			} catch (Exception e) {
-				log.warn("[forecast] cache parse failed; recomputing", e);
+		String stored = cached.map(this::readPayload).orElse(null);
+		if (stored != null) {
+			String payload = stored;
+			LocalDateTime expiresAt = cached.get().getExpiresAt();
+			l1Cache.put(keyHash, payload, expiresAt);
+			if (expiresAt.isAfter(now)) {
+				log.info("[forecast] cache HIT hash = {}", keyHash);
+			} else {
+				log.info("[forecast] cache STALE hash = {}, serving + refreshing", keyHash);
+				scheduleRefresh(keyHash, key, buildingId, from, to, builtYear, use, area, pnu);
 			}
+			if (shouldLogHitScore()) logHitScore(payload, builtYear);
+			return payload;
 		}
 
+		// 4) MISS — 같은 키로 동시에 들어온 MISS는 계산/저장을 1회만 수행(single-flight)
+		return missFlight.run(keyHash, () -> computeAndStore(
+				keyHash, key, buildingId, from, to, builtYear, use, area, pnu
+		));
+	}
+
+	/**
+	 * [ADD] stale-while-revalidate 백그라운드 갱신
+	 *  - 키당 1건만(refreshing 집합) + 유한 스레드풀/큐. 큐가 가득 차면 이번 갱신은 건너뜀(다음 요청이 다시 시도).
+	 *  - 실제 계산/저장은 MISS와 같은 single-flight 경로(computeAndStore) → 동시 MISS와도 합쳐짐.
+	 */
+	private void scheduleRefresh(
+			String keyHash,
+			ForecastCacheKey key,
+			Long buildingId,
+			int from,
+			int to,
+			Integer builtYear,
+			String use,
+			Double floorArea,
+			String pnu
+	) {
+		if (!refreshing.add(keyHash)) return; // 이미 갱신 중
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					missFlight.run(keyHash, () -> computeAndStore(
+							keyHash, key, buildingId, from, to, builtYear, use, floorArea, pnu
+					));
+					refreshed.increment();
+				} catch (Exception e) {
+					log.warn("[forecast] background refresh failed hash = {}", keyHash, e);
+				} finally {
+					refreshing.remove(keyHash);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(keyHash);
+			refreshRejected.increment();
+			log.debug("[forecast] refresh queue full, skipped hash = {}", keyHash);
+		}
+	}
+
+	/** MISS 처리(leader 1회): 계산 → 직렬화 → L1 적재 → api_cache upsert(write-behind) */
+	private String computeAndStore(
+			String keyHash,
+			ForecastCacheKey key,
+			Long buildingId,
+			int from,
+			int to,
+			Integer builtYear,
+			String use,
+			Double floorArea,
+			String pnu
+	) {
+		// 직전 leader가 방금 채웠을 수 있으므로 L1 재확인
+		ForecastL1Cache.Entry local = l1Cache.get(keyHash);
+		if (local != null) return local.payload();
+
 		log.info("[forecast] cache MISS hash = {}, computing...", keyHash);
 
-		// 4) 계산 — 건물 컨텍스트(용도/면적/pnu)를 반영하여 "절대값"이 건물마다 달라지도록 한다.
+		// 계산 — 건물 컨텍스트(용도/면적/pnu)를 반영하여 "절대값"이 건물마다 달라지도록 한다.
 		ForecastResponse resp = computeStub(
 				buildingId, from, to, builtYear, use, floorArea, pnu
 		);
 
-		// 5) 캐시 저장 (UPSERT)
+		// 직렬화(응답/캐시 공용 1회)
+		final String payload;
 		try {
-			final String payload = objectMapper.writeValueAsString(resp);
-			final LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+			payload = objectMapper.writeValueAsString(resp);
+		} catch (Exception e) {
+			throw new IllegalStateException("forecast serialize failed", e);
+		}
 
-			apiCacheRepository.upsert(
+		// 캐시 저장 (L1 즉시 + api_cache는 write-behind 큐로 비동기 UPSERT)
+		final LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+		l1Cache.put(keyHash, payload, expiresAt);
+		try {
+			writeBehind.submit(
 					keyHash,
-					keyRaw,
+					key.raw(),
 					payload,
 					expiresAt,
 					buildingId,
@@ -172,19 +365,67 @@ public class ForecastService {
 			log.warn("api_cache upsert failed hash = {}", keyHash, e);
 		}
 
-		return resp;
+		return payload;
 	}
 
+	/** api_cache 행 → JSON 문자열(payload_codec에 따라 payload_json 또는 payload_bin 디코딩). 실패 시 null(=MISS 처리) */
+	private String readPayload(ApiCache row) {
+		try {
+			return PayloadCodec.readJson(row.getPayloadCodec(), row.getPayloadJson(), row.getPayloadBin());
+		} catch (Exception e) {
+			log.warn("[forecast] cache payload decode failed; recomputing hash = {}", row.getCacheKeyHash(), e);
+			return null;
+		}
+	}
 
+	/** [ADD] 캐시 계층 지표(L1 hit/miss/eviction) — /api/forecast/cache/stats */
+	public Map<String, Object> cacheStats() {
+		Map<String, Object> m = new LinkedHashMap<>();
+		m.put("l1", l1Cache.stats());
+		m.put("missFlight", Map.of(
+				"leaders", missFlight.leaders(),
+				"followers", missFlight.followers(),
+				"inFlight", missFlight.inFlight()
+		));
+		m.put("writeBehind", writeBehind.stats());
+		m.put("refresh", Map.of(
+				"staleGraceMinutes", staleGraceMinutes,
+				"inFlight", refreshing.size(),
+				"queued", refreshExecutor == null ? 0 : refreshExecutor.getQueue().size(),
+				"completed", refreshed.sum(),
+				"rejected", refreshRejected.sum()
+		));
+		return m;
+	}
 
-	/* ===== 내부 구현 ===== */
+	// [ADD] HIT 점수/라벨 확인 로그는 샘플링(app.cache.hit-log-sample-rate, 0~1)
+	//  - 0이면 끔, 1이면 매 HIT마다 (기존 동작). 로그를 위해서만 역직렬화가 발생하므로 운영은 낮게 유지.
+	private boolean shouldLogHitScore() {
+		if (hitLogSampleRate <= 0.0) return false;
+		if (hitLogSampleRate >= 1.0) return true;
+		return ThreadLocalRandom.current().nextDouble() < hitLogSampleRate;
+	}
 
-	private String buildCacheKeyRaw(Long buildingId, int from, int to, String scenario) {
-		String b = (buildingId == null) ? "none" : String.valueOf(buildingId);
-		String scen = (scenario == null || scenario.isBlank()) ? "default" : scenario;
-		return "buildingId=" + b + ";from=" + from + ";to=" + to + ";scenario=" + scen;
+	private void logHitScore(String payload, Integer builtYear) {
+		try {
+			ForecastResponse r = objectMapper.readValue(payload, ForecastResponse.class);
+			double pct = r.kpi().savingPct();
+			double payback = r.kpi().paybackYears();
+
+			// builtYear는 kpi에 없으므로 메서드 파라미터를, label은 현재 응답 값으로 재판정
+			String label = decideLabelByScore(pct, payback, builtYear);
+			int score = computeStatusScore(pct, payback, builtYear);
+			log.info("[forecast] score = {}, label = {}, builtYear = {}, savingPct = {}%, payback = {}y",
+					score, label, builtYear == null ? "na" : builtYear, String.format("%.1f", pct), String.format("%.2f", payback));
+		} catch (Exception e) {
+			log.warn("[forecast] cache payload parse failed (hit-log only)", e);
+		}
 	}
 
+
+
+	/* ===== 내부 구현 ===== */
+
 	/** from==to면 +6 확장(총 7년), from>to면 스왑 */
 	private int[] normalizeRange(int from, int to) {
 		if (to < from) { int t = from; from = to; to = t; }
@@ -9,6 +9,7 @@ import org.springframework.web.client.RestTemplate;
 
 
 import com.example.co2.dto.AddressDto;
+import com.example.co2.util.SingleFlight;
 
 import java.util.List;
 import java.util.Map;
@@ -18,8 +19,23 @@ public class GreenFinderService {
   
     private static final String CONFIRM_KEY = "devU01TX0FVVEgyMDI1MTAwMTEwMjQyMTExNjI5NjQ="; // 발급받은 키
     private final RestTemplate restTemplate = new RestTemplate();
+    private final LocalAddressSearchService localAddressSearch; // [ADD] 적재 데이터셋 로컬 자동완성
 
+    // 동일 키워드 동시 요청 합치기(juso 호출 1회)
+    private final SingleFlight<String, List<AddressDto>> searchFlight = new SingleFlight<>();
+
+    public GreenFinderService(LocalAddressSearchService localAddressSearch) {
+        this.localAddressSearch = localAddressSearch;
+    }
+
+    // [ADD] 로컬 데이터셋에서 먼저 찾고, 없을 때만 juso 호출
     public List<AddressDto> searchAddress(String keyword) {
+        List<AddressDto> local = localAddressSearch.searchAddress(keyword);
+        if (!local.isEmpty()) return local;
+        return searchFlight.run(keyword, () -> fetchAddress(keyword));
+    }
+
+    private List<AddressDto> fetchAddress(String keyword) {
 
         List<AddressDto> results = new ArrayList<>();
         try {
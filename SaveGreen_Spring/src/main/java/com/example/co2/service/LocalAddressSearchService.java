@@ -0,0 +1,127 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.AddressDto;
+import com.example.co2.dto.SimulatorDto;
+import com.example.co2.service.BuildingDatasetRegistry.Dataset;
+import com.example.co2.util.AddressSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · LocalAddressSearchService (주소/건물명 로컬 자동완성)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - 검색창 입력마다 juso.go.kr 를 부르던 경로(GreenFinderService / SimulatorService / VworldService)에서
+ *    적재된 건물 데이터셋을 먼저 찾는다. 로컬 결과가 없을 때만 juso 원격 호출.
+ *
+ * 인덱스
+ *  - AddressSearchIndex(접두어 정렬 배열 + 자모 3-gram) — search/energy/green/ml 데이터셋, PNU 중복 제거
+ *  - 데이터셋 Snapshot이 교체(BuildingDatasetWatcher)되면 다음 검색에서 다시 만든다(참조 비교).
+ *
+ * 설정
+ *  - app.address.local.enabled        : false면 항상 juso
+ *  - app.address.local.limit          : 최대 건수(juso countPerPage 와 같은 5)
+ *  - app.address.local.min-containment: 오타 후보 최소 포함도(0~1)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Service
+public class LocalAddressSearchService {
+
+	// 인덱스 대상(앞쪽 데이터셋의 행이 PNU 중복 시 우선)
+	private static final Dataset[] SOURCES = {Dataset.SEARCH, Dataset.ENERGY, Dataset.GREEN, Dataset.ML};
+
+	private final BuildingDatasetRegistry registry;
+
+	@Value("${app.address.local.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.address.local.limit:5}")
+	private int limit;
+
+	@Value("${app.address.local.min-containment:0.6}")
+	private double minContainment;
+
+	// 인덱스 + 만들 때 쓴 Snapshot 참조(교체 감지)
+	private record Built(AddressSearchIndex index, BuildingDatasetRegistry.Snapshot[] sources) {}
+
+	private volatile Built built;
+
+	public LocalAddressSearchService(BuildingDatasetRegistry registry) {
+		this.registry = registry;
+	}
+
+	public boolean enabled() {
+		return enabled;
+	}
+
+	/** 로컬 검색(비활성/빈 입력이면 빈 목록) */
+	public List<AddressSearchIndex.Hit> search(String keyword) {
+		return search(keyword, limit);
+	}
+
+	public List<AddressSearchIndex.Hit> search(String keyword, int max) {
+		if (!enabled || keyword == null || keyword.isBlank()) return List.of();
+		return index().search(keyword, Math.max(1, max), minContainment);
+	}
+
+	/** GreenFinder 검색 응답 형태(도로명/지번 모두 데이터셋 주소) */
+	public List<AddressDto> searchAddress(String keyword) {
+		List<AddressDto> out = new ArrayList<>();
+		for (AddressSearchIndex.Hit h : search(keyword)) {
+			AddressDto dto = new AddressDto();
+			dto.setRoadAddr(h.address());
+			dto.setJibunAddr(h.address());
+			out.add(dto);
+		}
+		return out;
+	}
+
+	/** 시뮬레이터 검색 응답 형태(시도/시군구는 주소 앞 두 어절) */
+	public List<SimulatorDto> searchSimulator(String keyword) {
+		List<SimulatorDto> out = new ArrayList<>();
+		for (AddressSearchIndex.Hit h : search(keyword)) {
+			String[] tokens = (h.address() == null) ? new String[0] : h.address().trim().split("\\s+");
+			SimulatorDto dto = new SimulatorDto();
+			dto.setAddress(h.address());
+			dto.setSiNm(tokens.length > 0 ? tokens[0] : "");
+			dto.setSggNm(tokens.length > 1 ? tokens[1] : "");
+			dto.setRoadAddr(h.address());
+			dto.setJibunAddr(h.address());
+			out.add(dto);
+		}
+		return out;
+	}
+
+	private AddressSearchIndex index() {
+		Built b = built;
+		if (b != null && current(b.sources())) return b.index();
+		synchronized (this) {
+			b = built;
+			if (b != null && current(b.sources())) return b.index();
+			long t0 = System.nanoTime();
+			BuildingDatasetRegistry.Snapshot[] sources = new BuildingDatasetRegistry.Snapshot[SOURCES.length];
+			AddressSearchIndex.Builder builder = AddressSearchIndex.builder();
+			for (int i = 0; i < SOURCES.length; i++) {
+				sources[i] = registry.dataset(SOURCES[i]);
+				builder.addAll(sources[i].columns());
+			}
+			AddressSearchIndex index = builder.build();
+			built = new Built(index, sources);
+			log.info("[address] local index built: {} entries in {} ms", index.size(), (System.nanoTime() - t0) / 1_000_000);
+			return index;
+		}
+	}
+
+	private boolean current(BuildingDatasetRegistry.Snapshot[] sources) {
+		for (int i = 0; i < SOURCES.length; i++) {
+			if (registry.dataset(SOURCES[i]) != sources[i]) return false;
+		}
+		return true;
+	}
+}
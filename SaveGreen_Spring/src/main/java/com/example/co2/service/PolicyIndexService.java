@@ -0,0 +1,101 @@
+package com.example.co2.service;
+
+import com.example.co2.entity.TaxPolicy;
+import com.example.co2.entity.ZebPolicy;
+import com.example.co2.repository.TaxPolicyRepository;
+import com.example.co2.repository.ZebPolicyRepository;
+import com.example.co2.util.PolicyIntervalIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · PolicyIndexService (세제/ZEB 정책 구간 색인)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - 시뮬레이션마다 나가던 파생 쿼리 2건(tax_policy, zeb_policy 구간 스캔)을 메모리 이진 탐색으로 바꾼다.
+ *    답은 기존 findFirstBy... 와 같다(포함 구간 중 PK 최소, PolicyIntervalIndex 참고).
+ *
+ * 갱신
+ *  - 기동 완료 시 1회 적재, 정책 CSV 업로드(PolicyController.uploadAllPolicies)가 반영되면 reload().
+ *  - 두 테이블을 새 Policies 로 만든 뒤 volatile 참조 1회 교체 → 조회 쪽은 항상 같은 시점의 tax/zeb 쌍을 본다.
+ *  - 여러 인스턴스 운영 시 app.policy.index.refresh-cron 으로 주기 재적재(기본 끔).
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PolicyIndexService {
+
+    private final TaxPolicyRepository taxPolicyRepository;
+    private final ZebPolicyRepository zebPolicyRepository;
+
+    /** 같은 시점에 읽은 두 테이블 색인(불변) — 일괄 계산은 이 참조 하나로 모든 건을 판정 */
+    public record Policies(PolicyIntervalIndex<TaxPolicy> taxIndex, PolicyIntervalIndex<ZebPolicy> zebIndex) {
+
+        /** 단위면적 사용량이 속한 세제 정책(없으면 null) */
+        public TaxPolicy tax(BigDecimal usage) {
+            return taxIndex.find(usage);
+        }
+
+        /** 자립률(%)이 속한 ZEB 정책(없으면 null) */
+        public ZebPolicy zeb(BigDecimal energySelf) {
+            return zebIndex.find(energySelf);
+        }
+    }
+
+    private volatile Policies snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("[policy] index load failed, retrying on first lookup: {}", e.toString());
+        }
+    }
+
+    @Scheduled(cron = "${app.policy.index.refresh-cron:-}")
+    void scheduledReload() {
+        reload();
+    }
+
+    /** 두 테이블 재적재 후 원자적 교체 */
+    public synchronized void reload() {
+        long t0 = System.nanoTime();
+        Policies next = new Policies(
+                PolicyIntervalIndex.of(taxPolicyRepository.findAll(),
+                        TaxPolicy::getEnergyUsageMin, TaxPolicy::getEnergyUsageMax, TaxPolicy::getTaxPolicyId),
+                PolicyIntervalIndex.of(zebPolicyRepository.findAll(),
+                        ZebPolicy::getMinPercent, ZebPolicy::getMaxPercent, ZebPolicy::getZebPolicyId));
+        snapshot = next;
+        log.info("[policy] index loaded: tax {} rows, zeb {} rows in {} ms",
+                next.taxIndex().size(), next.zebIndex().size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** 단위면적 사용량이 속한 세제 정책(없으면 null) */
+    public TaxPolicy tax(BigDecimal usage) {
+        return current().tax(usage);
+    }
+
+    /** 자립률(%)이 속한 ZEB 정책(없으면 null) */
+    public ZebPolicy zeb(BigDecimal energySelf) {
+        return current().zeb(energySelf);
+    }
+
+    /** 현재 색인(적재 전이면 지금 적재) */
+    public Policies current() {
+        Policies s = snapshot;
+        if (s == null) {
+            reload();
+            s = snapshot;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.SimilarBuildingDtos.SimilarBuilding;
+import com.example.co2.dto.SimilarBuildingDtos.SimilarQuery;
+import com.example.co2.service.BuildingDatasetRegistry.Dataset;
+import com.example.co2.util.BuildingColumnStore;
+import com.example.co2.util.KdTree;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · SimilarBuildingService (유사 건물 k-NN)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - PNU 또는 원시 속성(용도, 연면적, 준공연도, 원단위, 월별 사용 형태)으로 가장 비슷한 건물 K개를 찾는다.
+ *    데이터셋 크기와 무관하게 전체 스캔 없이 KD-tree 탐색.
+ *
+ * 특징(7차원, 데이터셋 평균/표준편차로 z-score 표준화)
+ *  - 0 ln(연면적)  1 준공연도  2 ln(원단위)
+ *  - 3~6 계절별 사용 비중(겨울 12·1·2 / 봄 3·4·5 / 여름 6·7·8 / 가을 9·10·11) — 월별 배열 12개를 형태로 요약
+ *    (12차원 그대로는 KD-tree 가지치기가 거의 안 되므로 4차원으로 축약)
+ *  - 건물 쪽 빈 값은 평균(=0)으로 채우고, 질의 쪽 빈 값은 가중치 0(그 차원 무시)
+ *  - 계절 4차원은 각 0.5 가중(형태 전체가 단일 속성보다 과하게 지배하지 않도록)
+ *
+ * 인덱스
+ *  - 데이터셋별 전체 트리 + buildingType2 별 트리(sameType). Snapshot 교체 시 다음 요청에서 다시 만든다.
+ *  - 조회는 잠금 없이 ConcurrentHashMap 에서 읽고, 재생성만 직렬화(같은 Snapshot 으로 두 번 만들지 않음).
+ *  - app.similar.max-k : 1회 최대 K
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Service
+public class SimilarBuildingService {
+
+	private static final int DIM = 7;
+	private static final double[] BASE_WEIGHTS = {1, 1, 1, 0.5, 0.5, 0.5, 0.5};
+	private static final int[] SEASON_OF_MONTH = {-1, 0, 0, 1, 1, 1, 2, 2, 2, 3, 3, 3, 0}; // [month] → 계절
+
+	private final BuildingDatasetRegistry registry;
+
+	@Value("${app.similar.max-k:100}")
+	private int maxK;
+
+	/** 데이터셋 1개의 특징 인덱스(만든 Snapshot 참조 포함) */
+	private record Index(BuildingDatasetRegistry.Snapshot source, double[] mean, double[] std,
+						 KdTree all, Map<String, KdTree> byType) {}
+
+	private final Map<Dataset, Index> indexes = new ConcurrentHashMap<>();
+
+	public SimilarBuildingService(BuildingDatasetRegistry registry) {
+		this.registry = registry;
+	}
+
+	/** PNU 기준(자신 제외). 모르는 PNU면 null */
+	public List<SimilarBuilding> similarToPnu(Dataset dataset, String pnu, int k, boolean sameType) {
+		Index index = index(dataset);
+		BuildingColumnStore columns = index.source().columns();
+		int row = columns.rowOf(pnu);
+		if (row < 0) return null;
+		BuildingColumnStore.Row v = columns.row(row);
+		double[] raw = features(v);
+		return search(index, raw, v.buildingType2(), k, sameType, row);
+	}
+
+	/** 원시 속성 기준 */
+	public List<SimilarBuilding> similarTo(Dataset dataset, SimilarQuery q) {
+		double[] raw = new double[DIM];
+		raw[0] = logOrNaN(q.floorAreaM2());
+		raw[1] = (q.usageYear() == null) ? Double.NaN : q.usageYear();
+		raw[2] = logOrNaN(q.energyIntensityKwhPerM2());
+		double[] shape = seasonShares(q.monthly());
+		System.arraycopy(shape, 0, raw, 3, 4);
+		int k = (q.k() == null) ? 10 : q.k();
+		boolean sameType = q.sameType() == null || q.sameType();
+		return search(index(dataset), raw, q.buildingType2(), k, sameType, -1);
+	}
+
+	private List<SimilarBuilding> search(Index index, double[] raw, String type, int k, boolean sameType, int exclude) {
+		double[] z = new double[DIM];
+		double[] w = new double[DIM];
+		for (int d = 0; d < DIM; d++) {
+			if (Double.isNaN(raw[d])) continue;           // 질의에 없는 속성 → 무시
+			z[d] = (raw[d] - index.mean()[d]) / index.std()[d];
+			w[d] = BASE_WEIGHTS[d];
+		}
+		KdTree tree = index.all();
+		if (sameType && type != null && !type.isBlank()) {
+			tree = index.byType().get(type.trim());
+			if (tree == null) return List.of();
+		}
+		List<KdTree.Neighbor> hits = tree.nearest(z, w, Math.max(0, Math.min(k, maxK)), exclude);
+
+		BuildingColumnStore columns = index.source().columns();
+		List<SimilarBuilding> out = new ArrayList<>(hits.size());
+		BuildingColumnStore.Row v = hits.isEmpty() ? null : columns.row(hits.get(0).row());
+		for (KdTree.Neighbor h : hits) {
+			v.moveTo(h.row());
+			out.add(new SimilarBuilding(
+					v.pnu(), v.buildingName(), v.buildingType2(),
+					boxed(v.floorAreaM2()),
+					v.usageYear() == BuildingColumnStore.NO_YEAR ? null : v.usageYear(),
+					boxed(v.energyIntensityKwhPerM2()),
+					Math.round(Math.sqrt(h.distance()) * 1000) / 1000.0));
+		}
+		return out;
+	}
+
+	/* ===== 인덱스 ===== */
+
+	// 현재 Snapshot 으로 만든 인덱스면 잠금 없이 반환, 교체된 경우에만 잠그고 다시 만든다
+	private Index index(Dataset dataset) {
+		BuildingDatasetRegistry.Snapshot snap = registry.dataset(dataset);
+		Index cur = indexes.get(dataset);
+		if (cur != null && cur.source() == snap) return cur;
+		synchronized (this) {
+			snap = registry.dataset(dataset);
+			cur = indexes.get(dataset);
+			if (cur != null && cur.source() == snap) return cur; // 다른 요청이 방금 만듦
+			Index built = build(dataset, snap);
+			indexes.put(dataset, built);
+			return built;
+		}
+	}
+
+	private Index build(Dataset dataset, BuildingDatasetRegistry.Snapshot snap) {
+		long t0 = System.nanoTime();
+		BuildingColumnStore columns = snap.columns();
+		int n = columns.size();
+		double[] raw = new double[n * DIM];
+		BuildingColumnStore.Row v = (n > 0) ? columns.row(0) : null;
+		for (int r = 0; r < n; r++) {
+			System.arraycopy(features(v.moveTo(r)), 0, raw, r * DIM, DIM);
+		}
+
+		// 차원별 평균/표준편차(빈 값 제외) → z-score, 빈 값은 0(평균)
+		double[] mean = new double[DIM];
+		double[] std = new double[DIM];
+		for (int d = 0; d < DIM; d++) {
+			double s = 0, ss = 0;
+			int c = 0;
+			for (int r = 0; r < n; r++) {
+				double x = raw[r * DIM + d];
+				if (Double.isNaN(x)) continue;
+				s += x;
+				ss += x * x;
+				c++;
+			}
+			mean[d] = (c == 0) ? 0 : s / c;
+			double var = (c == 0) ? 0 : ss / c - mean[d] * mean[d];
+			std[d] = (var > 1e-12) ? Math.sqrt(var) : 1;
+		}
+		double[] z = new double[n * DIM];
+		for (int r = 0; r < n; r++) {
+			for (int d = 0; d < DIM; d++) {
+				double x = raw[r * DIM + d];
+				z[r * DIM + d] = Double.isNaN(x) ? 0 : (x - mean[d]) / std[d];
+			}
+		}
+
+		int[] allRows = new int[n];
+		for (int r = 0; r < n; r++) allRows[r] = r;
+		KdTree all = KdTree.build(DIM, z, allRows);
+
+		// 용도별: 행 목록 → 점 복사
+		Map<String, List<Integer>> rowsByType = new LinkedHashMap<>();
+		for (int r = 0; r < n; r++) {
+			String t = v.moveTo(r).buildingType2();
+			if (t != null && !t.isBlank()) rowsByType.computeIfAbsent(t.trim(), x -> new ArrayList<>()).add(r);
+		}
+		Map<String, KdTree> byType = new HashMap<>();
+		for (Map.Entry<String, List<Integer>> e : rowsByType.entrySet()) {
+			List<Integer> rs = e.getValue();
+			int[] rows = new int[rs.size()];
+			double[] pts = new double[rs.size() * DIM];
+			for (int i = 0; i < rows.length; i++) {
+				rows[i] = rs.get(i);
+				System.arraycopy(z, rows[i] * DIM, pts, i * DIM, DIM);
+			}
+			byType.put(e.getKey(), KdTree.build(DIM, pts, rows));
+		}
+
+		Index built = new Index(snap, mean, std, all, Map.copyOf(byType));
+		log.info("[similar] {} index built: {} rows, {} types in {} ms",
+				dataset.id(), n, byType.size(), (System.nanoTime() - t0) / 1_000_000);
+		return built;
+	}
+
+	/* ===== 특징 ===== */
+
+	private static double[] features(BuildingColumnStore.Row v) {
+		double[] f = new double[DIM];
+		f[0] = logOrNaN(v.floorAreaM2());
+		f[1] = (v.usageYear() == BuildingColumnStore.NO_YEAR) ? Double.NaN : v.usageYear();
+		f[2] = logOrNaN(v.energyIntensityKwhPerM2());
+		double[] season = new double[4];
+		double total = 0;
+		for (int i = 0, m = v.monthlyCount(); i < m; i++) {
+			int month = v.month(i);
+			double e = v.monthlyElectricity(i);
+			if (month < 1 || month > 12 || Double.isNaN(e)) continue;
+			season[SEASON_OF_MONTH[month]] += e;
+			total += e;
+		}
+		for (int s = 0; s < 4; s++) f[3 + s] = (total > 0) ? season[s] / total : Double.NaN;
+		return f;
+	}
+
+	// 1~12월 순서 12개 → 계절 비중 4개(없거나 합이 0이면 NaN)
+	private static double[] seasonShares(List<Double> monthly) {
+		double[] out = {Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+		if (monthly == null || monthly.size() != 12) return out;
+		double[] season = new double[4];
+		double total = 0;
+		for (int m = 1; m <= 12; m++) {
+			Double e = monthly.get(m - 1);
+			if (e == null || e.isNaN()) continue;
+			season[SEASON_OF_MONTH[m]] += e;
+			total += e;
+		}
+		if (total <= 0) return out;
+		for (int s = 0; s < 4; s++) out[s] = season[s] / total;
+		return out;
+	}
+
+	private static double logOrNaN(Double v) {
+		return (v == null || v <= 0) ? Double.NaN : Math.log(v);
+	}
+
+	private static double logOrNaN(double v) {
+		return (Double.isNaN(v) || v <= 0) ? Double.NaN : Math.log(v);
+	}
+
+	private static Double boxed(double v) {
+		return Double.isNaN(v) ? null : v;
+	}
+}
@@ -0,0 +1,227 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.SimulatorBatchDtos.BatchLine;
+import com.example.co2.dto.SimulatorDto;
+import com.example.co2.dto.SimulatorResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · SimulatorBatchService (포트폴리오 일괄 시뮬레이션)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - 건물 수백 개를 /simulate1, /simulate2 에 한 건씩 보내던 것을 요청 1번으로. 결과는 입력 순서대로 NDJSON 스트리밍.
+ *
+ * 흐름
+ *  1) 정책 색인 시점 1회 고정(PolicyIndexService.current) — 배치 전체가 같은 정책으로 판정된다.
+ *  2) 요청당 동시 진행은 window 개까지. 건이 window 에 들어올 때 그 건의 일사량 격자 칸
+ *     (SolarRadiationService.cellKeyOf)에 조회가 아직 없으면 칸 조회 1건을 띄운다 — 칸 조회도 window 안에서만.
+ *     같은 칸의 나머지 건은 그 조회가 끝난 뒤 메모리/격자에서 바로 얻는다. 칸 조회가 실패하면 그 칸 건들은 error 줄.
+ *  3) 일사량 조회(원격 I/O 가능)는 조회 풀, 계산(CPU)은 계산 풀 — 풀을 나눠 느린 원격 호출이 계산 스레드를 잡지 않게 한다.
+ *     조회 풀은 가득 차면 거절(그 건만 error 줄) → 요청 스레드가 원격 호출을 직접 실행하는 일이 없다.
+ *  4) 앞 건부터 완료를 기다려 한 줄씩 기록 → 입력 순서 유지 + 메모리 상한.
+ *
+ * 설정
+ *  - app.simulator.batch.threads               : 계산 스레드(0 = 코어 수)
+ *  - app.simulator.batch.queue-capacity        : 계산 풀 대기열(가득 차면 제출한 스레드가 직접 계산 — 역압)
+ *  - app.simulator.batch.lookup-threads        : 일사량 조회 스레드(원격 대기 위주라 코어 수와 무관)
+ *  - app.simulator.batch.lookup-queue-capacity : 조회 풀 대기열(가득 차면 해당 건 error 줄)
+ *  - app.simulator.batch.window                : 요청당 동시 진행 건수
+ *  - app.simulator.batch.item-timeout-ms       : 건당 상한 — window 에 들어온 시점부터(넘으면 error 줄)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Service
+public class SimulatorBatchService {
+
+    /** 계산 종류: 1 = 자립률/세제(calculate1), 2 = 패널 계획(calculate2), both */
+    public enum Calc {
+        SELF, PANELS, BOTH;
+
+        /** "1" | "2" | "both"(기본), 그 밖은 null */
+        public static Calc parse(String s) {
+            if (s == null || s.isBlank() || "both".equalsIgnoreCase(s.trim())) return BOTH;
+            return switch (s.trim()) {
+                case "1" -> SELF;
+                case "2" -> PANELS;
+                default -> null;
+            };
+        }
+    }
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final SimulatorService simulator;
+    private final SolarRadiationService solarRadiation;
+    private final PolicyIndexService policyIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.simulator.batch.threads:0}")
+    private int threads;
+
+    @Value("${app.simulator.batch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.simulator.batch.lookup-threads:8}")
+    private int lookupThreads;
+
+    @Value("${app.simulator.batch.lookup-queue-capacity:1000}")
+    private int lookupQueueCapacity;
+
+    @Value("${app.simulator.batch.window:64}")
+    private int window;
+
+    @Value("${app.simulator.batch.item-timeout-ms:30000}")
+    private long itemTimeoutMs;
+
+    private ThreadPoolExecutor pool;        // 계산(CPU)
+    private ThreadPoolExecutor lookupPool;  // 일사량 조회(원격 I/O 가능)
+
+    public SimulatorBatchService(SimulatorService simulator, SolarRadiationService solarRadiation,
+                                 PolicyIndexService policyIndex, ObjectMapper objectMapper) {
+        this.simulator = simulator;
+        this.solarRadiation = solarRadiation;
+        this.policyIndex = policyIndex;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void initPool() {
+        final int n = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        pool = newPool("simulator-batch-", n, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+        // 조회는 거절(AbortPolicy) — CallerRuns 면 요청 스레드가 원격 호출을 직접 기다리게 된다
+        lookupPool = newPool("simulator-batch-lookup-", Math.max(1, lookupThreads), lookupQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdownPool() {
+        if (pool != null) pool.shutdown();
+        if (lookupPool != null) lookupPool.shutdown();
+    }
+
+    /** items 를 계산해 입력 순서대로 NDJSON 한 줄씩 out 에 쓴다(줄마다 flush) */
+    public void stream(List<SimulatorDto> items, Calc calc, OutputStream out) throws IOException {
+        long t0 = System.nanoTime();
+        PolicyIndexService.Policies policies = (calc == Calc.PANELS) ? null : policyIndex.current();
+
+        // 칸별 일사량 조회 1건씩(칸 대표 = window 에 먼저 들어온 그 칸의 입력 좌표)
+        Map<String, CompletableFuture<BigDecimal>> cells = new HashMap<>();
+        ArrayDeque<CompletableFuture<BatchLine>> inflight = new ArrayDeque<>();
+        int next = 0;
+        int failed = 0;
+        try {
+            for (int written = 0; written < items.size(); written++) {
+                while (next < items.size() && next - written < Math.max(1, window)) {
+                    inflight.add(submit(next, items.get(next), calc, policies, cells));
+                    next++;
+                }
+                // 모든 건이 submit 시점부터 item-timeout 으로 끝나므로 join 은 무한 대기하지 않는다
+                BatchLine line = inflight.poll().join();
+                if (line.error() != null) failed++;
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write(NEWLINE);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 클라이언트가 끊음 → 남은 계산 취소
+            inflight.forEach(f -> f.cancel(false));
+            cells.values().forEach(f -> f.cancel(false));
+            throw e;
+        }
+        log.info("[simulate-batch] {} items ({} cells, {} failed, calc {}) in {} ms",
+                items.size(), cells.size(), failed, calc, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /* ===== 내부 ===== */
+
+    private CompletableFuture<BatchLine> submit(int index, SimulatorDto dto, Calc calc,
+                                                PolicyIndexService.Policies policies,
+                                                Map<String, CompletableFuture<BigDecimal>> cells) {
+        if (dto == null || dto.getLat() == null || dto.getLon() == null) {
+            return CompletableFuture.completedFuture(new BatchLine(index, null, null, "lat/lon required"));
+        }
+        double lat = dto.getLat(), lon = dto.getLon();
+        return cells.computeIfAbsent(solarRadiation.cellKeyOf(lat, lon), k -> lookup(lat, lon))
+                // 칸 조회가 끝났으니 같은 칸 좌표는 메모리/격자에서 바로 나온다(그래도 조회 풀에서)
+                .thenCompose(cellValue -> lookup(lat, lon))
+                .thenApplyAsync(solar -> evaluate(index, dto, calc, policies, solar), pool)
+                .orTimeout(itemTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> new BatchLine(index, null, null, message(e)));
+    }
+
+    // 조회 풀에 일사량 조회 제출. 풀이 가득 차 거절되면 실패한 future(호출 스레드에서 원격 호출하지 않음)
+    private CompletableFuture<BigDecimal> lookup(double lat, double lon) {
+        try {
+            return CompletableFuture.supplyAsync(() -> solar(lat, lon), lookupPool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("solar lookup queue full"));
+        }
+    }
+
+    private BatchLine evaluate(int index, SimulatorDto dto, Calc calc, PolicyIndexService.Policies policies,
+                               BigDecimal solar) {
+        SimulatorResultDto r1 = (calc == Calc.PANELS) ? null : simulator.calculate1(dto, solar, policies);
+        SimulatorResultDto r2 = (calc == Calc.SELF) ? null : simulator.calculate2(dto, solar);
+        return new BatchLine(index, r1, r2, null);
+    }
+
+    private static ThreadPoolExecutor newPool(String prefix, int threads, int queueCapacity,
+                                              RejectedExecutionHandler onFull) {
+        final AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor p = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, prefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                onFull
+        );
+        p.allowCoreThreadTimeOut(true);
+        return p;
+    }
+
+    private BigDecimal solar(double lat, double lon) {
+        try {
+            return solarRadiation.annualRadiation(lat, lon);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // CompletionException/ExecutionException 을 벗긴 원인 메시지
+    private String message(Throwable e) {
+        Throwable c = e;
+        while ((c instanceof CompletionException || c instanceof ExecutionException) && c.getCause() != null) {
+            c = c.getCause();
+        }
+        if (c instanceof TimeoutException) return "timeout after " + itemTimeoutMs + " ms";
+        return (c.getMessage() != null) ? c.getMessage() : c.getClass().getSimpleName();
+    }
+}
@@ -5,8 +5,8 @@ import com.example.co2.dto.SimulatorDto;
 import com.example.co2.dto.SimulatorResultDto;
 import com.example.co2.entity.TaxPolicy;
 import com.example.co2.entity.ZebPolicy;
-import com.example.co2.repository.TaxPolicyRepository;
-import com.example.co2.repository.ZebPolicyRepository;
+import com.example.co2.util.SimulatorKernel;
+import com.example.co2.util.SingleFlight;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +16,6 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,37 +24,35 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SimulatorService {
 
-    private final TaxPolicyRepository taxPolicyRepository;
-    private final ZebPolicyRepository zebPolicyRepository;
+    private final PolicyIndexService policyIndex; // [ADD] tax/zeb 정책 메모리 구간 색인
+    private final LocalAddressSearchService localAddressSearch; // [ADD] 적재 데이터셋 로컬 자동완성
+
+    private final SolarRadiationService solarRadiationService; // [ADD] 일사량 격자 캐시
+
+    // 동일 키워드 동시 요청 합치기(원격 호출 1회)
+    private final SingleFlight<String, List<SimulatorDto>> addressFlight = new SingleFlight<>();
 
     public SimulatorResultDto calculate1(SimulatorDto dto) throws Exception {
+        return calculate1(dto, getSolarRadiation(dto.getLat(),dto.getLon()), policyIndex.current());
+    }
+
+    // [ADD] 일사량/정책 색인을 호출부가 넘기는 형태(일괄 계산에서 칸별 일사량·정책 시점 1회 결정)
+    public SimulatorResultDto calculate1(SimulatorDto dto, BigDecimal solarRadiation, PolicyIndexService.Policies policies) {
         SimulatorResultDto res = new SimulatorResultDto();
         
         BigDecimal annualUsage = dto.getEnergy();
-        BigDecimal solarRadiation = getSolarRadiation(dto.getLat(),dto.getLon());
-        System.out.println(dto.getLat()+","+dto.getLon());
-        BigDecimal efficiency = BigDecimal.valueOf(0.8); 
-        Integer panelPowerInt = dto.getPanelPower();
-        Integer panelCountInt = dto.getPanelCount();
-        BigDecimal panelPower = panelPowerInt == null ? BigDecimal.ZERO : BigDecimal.valueOf(panelPowerInt);
-        BigDecimal panelCount = panelCountInt == null ? BigDecimal.ZERO : BigDecimal.valueOf(panelCountInt);
-        BigDecimal generation = solarRadiation.multiply(efficiency).multiply(panelPower).multiply(panelCount).divide(BigDecimal.valueOf(1000));
-        
-        BigDecimal energySelf = generation.divide(annualUsage,3,RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
-        System.out.println("generation = " + generation);
-        System.out.println("energySelf = " + energySelf);
-        BigDecimal usage = (dto.getEnergy().subtract(generation)).max(BigDecimal.ZERO).divide(dto.getArea(),3,RoundingMode.HALF_UP); // 소수점 3자리 반올림
-        System.out.println("usage = " + usage);
-
-        ZebPolicy z = zebPolicyRepository
-                .findFirstByMinPercentLessThanEqualAndMaxPercentGreaterThanEqual(energySelf, energySelf)
-                .orElse(null);
+        // [ADD] 자립률/단위면적 사용량은 고정소수점 커널(범위 밖 입력은 BigDecimal 기준 구현)
+        BigDecimal[] selfAndUsage = selfSufficiency(solarRadiation, dto.getPanelPower(), dto.getPanelCount(),
+                annualUsage, dto.getArea());
+        BigDecimal energySelf = selfAndUsage[0];
+        BigDecimal usage = selfAndUsage[1]; // 소수점 3자리 반올림
+        log.debug("[simulate1] ({}, {}) energySelf = {}, usage = {}", dto.getLat(), dto.getLon(), energySelf, usage);
+
+        // [ADD] 기존 파생쿼리(findFirstBy...LessThanEqualAnd...GreaterThanEqual)와 같은 답을 메모리 이진 탐색으로
+        ZebPolicy z = policies.zeb(energySelf);
        
-        TaxPolicy p = taxPolicyRepository
-                .findFirstByEnergyUsageMinLessThanEqualAndEnergyUsageMaxGreaterThanEqual(usage, usage)
-                .orElse(null); // 스프링데이터 jpa의 파생쿼리
-                                    // 구현을 쓰지않아도 메서드 이름으로 쿼리를 유추해서 알아서 구현해줌
-        System.out.println("p = " + p);
+        TaxPolicy p = policies.tax(usage);
+        log.debug("[simulate1] tax policy = {}, zeb policy = {}", p == null ? null : p.getTaxPolicyId(), z == null ? null : z.getZebPolicyId());
         if (p == null) {
             res.setPropertyTax(0);
             res.setAcquireTax(0);
@@ -93,44 +90,123 @@ public class SimulatorService {
     }
 
     public SimulatorResultDto calculate2 (SimulatorDto dto) throws Exception {
+        return calculate2(dto, getSolarRadiation(dto.getLat(),dto.getLon()));
+    }
+
+    public SimulatorResultDto calculate2(SimulatorDto dto, BigDecimal solarRadiation) {
         SimulatorResultDto res = new SimulatorResultDto();
 
-        BigDecimal solarRadiation = getSolarRadiation(dto.getLat(),dto.getLon());
+        String roadAddr = dto.getRoadAddr();
+
+        // [ADD] 패널 계획은 고정소수점 커널(범위 밖 입력은 BigDecimal 기준 구현)
+        panelPlan(solarRadiation, dto.getPanelPower(), dto.getCurrentGrade(), dto.getTargetGrade(), dto.getArea(), res);
+        log.debug("[simulate2] {} requiredPanels = {}, total = {}, onePanelGeneration = {}",
+                roadAddr, res.getRequiredPanels(), res.getTotal(), res.getOnePanelGeneration());
+
+        res.setSolarRadiation(solarRadiation);
+        res.setRoadAddr(roadAddr);
+        // res.setCurrentGrade(currentGrade);
+        // res.setTargetGrade(targetGrade);
+
+        return res;
+    }
+
+    /* ===== 계산 경로: 고정소수점 커널 + BigDecimal 기준 구현 ===== */
+
+    // 등급별 에너지 사용량 구간(kWh/㎡·년) — 기준 구현용, 한 번만 만든다
+    private static final Map<Integer, int[]> GRADE_RANGE = Map.of(
+            1, new int[]{0, 80},
+            2, new int[]{80, 140},
+            3, new int[]{140, 200},
+            4, new int[]{200, 260},
+            5, new int[]{260, 320},
+            6, new int[]{320, 380},
+            7, new int[]{380, 450},
+            8, new int[]{450, 520},
+            9, new int[]{520, 610},
+            10, new int[]{610, 700});
+
+    /** {자립률(%), 단위면적 순사용량} — 커널 우선, 넘침/긴 소수 입력은 기준 구현 */
+    static BigDecimal[] selfSufficiency(BigDecimal solarRadiation, Integer panelPower, Integer panelCount,
+                                        BigDecimal energy, BigDecimal area) {
+        try {
+            return selfSufficiencyFixed(solarRadiation, panelPower, panelCount, energy, area);
+        } catch (ArithmeticException e) {
+            return selfSufficiencyReference(solarRadiation, panelPower, panelCount, energy, area);
+        }
+    }
+
+    static BigDecimal[] selfSufficiencyFixed(BigDecimal solarRadiation, Integer panelPower, Integer panelCount,
+                                             BigDecimal energy, BigDecimal area) {
+        long solar = SimulatorKernel.fixed(solarRadiation, SimulatorKernel.SOLAR_SCALE);
+        long e = SimulatorKernel.fixed(energy, SimulatorKernel.INPUT_SCALE);
+        long a = SimulatorKernel.fixed(area, SimulatorKernel.INPUT_SCALE);
+        int pp = panelPower == null ? 0 : panelPower;
+        int pc = panelCount == null ? 0 : panelCount;
+        return new BigDecimal[]{
+                BigDecimal.valueOf(SimulatorKernel.energySelf(solar, pp, pc, e), 3),
+                BigDecimal.valueOf(SimulatorKernel.usage(solar, pp, pc, e, a), 3)
+        };
+    }
+
+    static BigDecimal[] selfSufficiencyReference(BigDecimal solarRadiation, Integer panelPowerInt, Integer panelCountInt,
+                                                 BigDecimal annualUsage, BigDecimal area) {
         BigDecimal efficiency = BigDecimal.valueOf(0.8); 
-        Integer panelPowerInt = dto.getPanelPower();
         BigDecimal panelPower = panelPowerInt == null ? BigDecimal.ZERO : BigDecimal.valueOf(panelPowerInt);
-
+        BigDecimal panelCount = panelCountInt == null ? BigDecimal.ZERO : BigDecimal.valueOf(panelCountInt);
+        BigDecimal generation = solarRadiation.multiply(efficiency).multiply(panelPower).multiply(panelCount).divide(BigDecimal.valueOf(1000));
         
+        BigDecimal energySelf = generation.divide(annualUsage,3,RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+        BigDecimal usage = (annualUsage.subtract(generation)).max(BigDecimal.ZERO).divide(area,3,RoundingMode.HALF_UP); // 소수점 3자리 반올림
+        return new BigDecimal[]{energySelf, usage};
+    }
+
+    /** 패널 계획 9개 항목을 res 에 채움 — 커널 우선, 넘침/긴 소수 입력은 기준 구현 */
+    static void panelPlan(BigDecimal solarRadiation, Integer panelPower, int currentGrade, int targetGrade,
+                          BigDecimal area, SimulatorResultDto res) {
+        try {
+            panelPlanFixed(solarRadiation, panelPower, currentGrade, targetGrade, area, new SimulatorKernel.PanelPlan(), res);
+        } catch (ArithmeticException e) {
+            panelPlanReference(solarRadiation, panelPower, currentGrade, targetGrade, area, res);
+        }
+    }
+
+    static void panelPlanFixed(BigDecimal solarRadiation, Integer panelPower, int currentGrade, int targetGrade,
+                               BigDecimal area, SimulatorKernel.PanelPlan plan, SimulatorResultDto res) {
+        long solar = SimulatorKernel.fixed(solarRadiation, SimulatorKernel.SOLAR_SCALE);
+        long a = SimulatorKernel.fixed(area, SimulatorKernel.INPUT_SCALE);
+        SimulatorKernel.panelPlan(solar, panelPower == null ? 0 : panelPower, currentGrade, targetGrade, a, plan);
+
+        res.setDaySolar(BigDecimal.valueOf(plan.daySolar(), 3));
+        res.setOnePanelCO2(BigDecimal.valueOf(plan.onePanelCO2(), 3));
+        res.setOnePanelSaveElectric(BigDecimal.valueOf(plan.onePanelSaveElectric(), 3));
+        res.setOnePanelGeneration(BigDecimal.valueOf(plan.onePanelGeneration(), 5));
+        res.setOnePanelGeneForChart(plan.onePanelGeneForChart());
+        res.setAnnualSaveElectric(BigDecimal.valueOf(plan.annualSaveElectric(), 1));
+        res.setAnnualSaveCO2(BigDecimal.valueOf(plan.annualSaveCO2(), 1));
+        res.setTotal(BigDecimal.valueOf(plan.total(), 1));
+        res.setRequiredPanels(BigDecimal.valueOf(plan.requiredPanels()));
+    }
+
+    static void panelPlanReference(BigDecimal solarRadiation, Integer panelPowerInt, int currentGrade, int targetGrade,
+                                   BigDecimal area, SimulatorResultDto res) {
+        BigDecimal efficiency = BigDecimal.valueOf(0.8); 
+        BigDecimal panelPower = panelPowerInt == null ? BigDecimal.ZERO : BigDecimal.valueOf(panelPowerInt);
 
-        Map<Integer,int[]> gradeRange = new HashMap<>();
-        gradeRange.put(1, new int[]{0, 80});
-        gradeRange.put(2, new int[]{80, 140});
-        gradeRange.put(3, new int[]{140, 200});
-        gradeRange.put(4, new int[]{200, 260});
-        gradeRange.put(5, new int[]{260, 320});
-        gradeRange.put(6, new int[]{320, 380});
-        gradeRange.put(7, new int[]{380, 450});
-        gradeRange.put(8, new int[]{450, 520});
-        gradeRange.put(9, new int[]{520, 610});
-        gradeRange.put(10, new int[]{610, 700});
-
-        int currentGrade = dto. getCurrentGrade();
-        int targetGrade = dto.getTargetGrade();
         BigDecimal currentMid = BigDecimal.ZERO;
         BigDecimal targetMid = BigDecimal.ZERO;
-        String roadAddr = dto.getRoadAddr();
         
-        if (gradeRange.containsKey(currentGrade)) {
-            int[] range = gradeRange.get(currentGrade);
+        if (GRADE_RANGE.containsKey(currentGrade)) {
+            int[] range = GRADE_RANGE.get(currentGrade);
             currentMid = BigDecimal.valueOf((range[0] + range[1]) / 2.0);
         }
-        if (gradeRange.containsKey(targetGrade)) {
-            int[] range = gradeRange.get(targetGrade);
+        if (GRADE_RANGE.containsKey(targetGrade)) {
+            int[] range = GRADE_RANGE.get(targetGrade);
             targetMid = BigDecimal.valueOf((range[0] + range[1]) / 2.0);
         }
 
         BigDecimal energyDiff = currentMid.subtract(targetMid);
-        BigDecimal totalEnergyDiff = energyDiff.multiply(dto.getArea());
+        BigDecimal totalEnergyDiff = energyDiff.multiply(area);
         
         BigDecimal onePanelGeneration = panelPower.divide(BigDecimal.valueOf(1000), 1, RoundingMode.HALF_UP)
                 .multiply(solarRadiation)
@@ -152,66 +228,32 @@ public class SimulatorService {
         BigDecimal daySolar = solarRadiation.divide(BigDecimal.valueOf(366),3,RoundingMode.HALF_UP);
         BigDecimal onePanelGeneForChart = onePanelGeneration.divide(BigDecimal.valueOf(100));
 
-        System.out.println("annualSaveElectric = " + annualSaveElectric);
-        System.out.println("annualSaveCO2 = " + annualSaveCO2);
-        System.out.println("requiredPanels = " + requiredPanels);
-        System.out.println("total = " + total);
-        System.out.println("onePanelGeneration"+onePanelGeneration);
-        System.out.println("onePanelGeneForChart"+onePanelGeneForChart);
-        System.out.println("SolarRadiation"+solarRadiation);
-        System.out.println("onepanelco2"+onePanelCO2);
-        System.out.println("onepanelsaveelectric"+onePanelSaveElectric);
-        System.out.println("daySolar"+daySolar);
-        System.out.println(roadAddr);
-
         res.setDaySolar(daySolar);
         res.setOnePanelCO2(onePanelCO2);
         res.setOnePanelSaveElectric(onePanelSaveElectric);
         res.setOnePanelGeneration(onePanelGeneration);
         res.setOnePanelGeneForChart(onePanelGeneForChart);
-        res.setSolarRadiation(solarRadiation);
         res.setAnnualSaveElectric(annualSaveElectric);
         res.setAnnualSaveCO2(annualSaveCO2);
         res.setTotal(total);
         res.setRequiredPanels(requiredPanels);
-        res.setRoadAddr(roadAddr);
-        // res.setCurrentGrade(currentGrade);
-        // res.setTargetGrade(targetGrade);
-
-        
-
-        return res;
     }
 
 
+    // [ADD] 위경도 격자 칸 캐시(메모리 + solar_radiation_cache, 오래된 칸은 백그라운드 갱신)
     public BigDecimal getSolarRadiation(double lat, double lon)throws Exception{
-        String url = "https://power.larc.nasa.gov/api/temporal/monthly/point"
-                  +  "?parameters=ALLSKY_SFC_SW_DWN"
-                  +  "&community=RE"
-                  +  "&latitude="+lat
-                  +  "&longitude="+lon
-                  +  "&start=2024"
-                  +  "&end=2024"
-                  +  "&format=JSON";
-        RestTemplate nasaRestTemplate = new RestTemplate();
-        String response = nasaRestTemplate.getForObject(url, String.class);
-        System.out.println("response = " + response);
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(response);
-        JsonNode values= root.path("properties").path("parameter").path("ALLSKY_SFC_SW_DWN");
-        JsonNode annual = values.path("202413");
-        System.out.println("annual = " + annual);
-        if (annual.isMissingNode()||annual.isNull()) {
-            throw new Exception("No data for the specified year");
-        }
-
-        BigDecimal annualmean = BigDecimal.valueOf(annual.asDouble()).setScale(3, RoundingMode.HALF_UP);
-        BigDecimal result = annualmean.multiply(BigDecimal.valueOf(366));
+        return solarRadiationService.annualRadiation(lat, lon);
+    }
 
-        return result;
-    }   
    // 도로명 주소 검색
+    // [ADD] 로컬 데이터셋에서 먼저 찾고, 없을 때만 juso 호출
     public List<SimulatorDto> searchAddress(String keyword) throws Exception {
+        List<SimulatorDto> local = localAddressSearch.searchSimulator(keyword);
+        if (!local.isEmpty()) return local;
+        return addressFlight.call(keyword, () -> fetchAddress(keyword));
+    }
+
+    private List<SimulatorDto> fetchAddress(String keyword) throws Exception {
         String url="https://www.juso.go.kr/addrlink/addrLinkApi.do?currentPage=1" +
                 "&countPerPage=5" +
                 "&keyword=" + keyword +
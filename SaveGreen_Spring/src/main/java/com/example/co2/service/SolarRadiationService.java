@@ -0,0 +1,302 @@
+package com.example.co2.service;
+
+import com.example.co2.entity.SolarRadiationCache;
+import com.example.co2.repository.SolarRadiationCacheRepository;
+import com.example.co2.util.SingleFlight;
+import com.example.co2.util.SolarGridFile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * ────────────────────────────────────────────────────────────────────────────
+ * SaveGreen · SolarRadiationService (일사량 격자 캐시)
+ * ────────────────────────────────────────────────────────────────────────────
+ * 목적
+ *  - 시뮬레이터가 요청마다 NASA POWER(수백 ms)를 동기 호출하던 것을 위경도 격자 칸 단위 캐시로 바꾼다.
+ *    NASA POWER 자체 해상도가 0.5° × 0.625° 이므로 0.05° 칸 중심으로 묻어도 값 차이는 없다.
+ *
+ * 흐름
+ *  - (lat, lon) → 칸(floor(lat/grid), floor(lon/grid)) → 메모리 맵 조회
+ *  - 메모리 MISS → 칸 중심 좌표로 NASA 호출(칸당 single-flight) → 메모리 + solar_radiation_cache(V7) 저장
+ *  - 기동 시 테이블 전체를 메모리로 적재(국내 0.05° 칸 수만 개 이하)
+ *  - fetched_at 이 refresh-after-days 를 넘은 칸은 기존 값으로 응답하고 백그라운드에서 다시 받는다
+ *    (칸당 1건 + 유한 스레드풀/큐, ForecastService 의 stale-while-revalidate 와 같은 방식)
+ *
+ * 격자 파일 우선(app.solar.source=grid, 격자 파일을 만든 뒤 켠다 — 기본값 remote)
+ *  - SolarGridFile(번들 classpath:solar/solar-grid.bin 또는 app.solar.grid.path)을 기동 시 열어 양선형 보간값으로 바로 응답.
+ *    칸 캐시에 원격 값이 이미 있으면 그 값을 우선한다.
+ *  - app.solar.grid.refine-remote=true 면 격자로 응답한 칸을 백그라운드에서 원격 조회해 칸 캐시를 채운다(선택적 보정).
+ *  - 격자 파일이 없거나 격자 밖/결측이면 위의 원격 + 칸 캐시 경로로 폴백.
+ *
+ * 결과값
+ *  - 기존 SimulatorService.getSolarRadiation 과 동일: 연평균(소수 3자리 HALF_UP) × 366 (kWh/m²/year)
+ * ────────────────────────────────────────────────────────────────────────────
+ */
+@Slf4j
+@Service
+public class SolarRadiationService {
+
+    private static final String POWER_URL = "https://power.larc.nasa.gov/api/temporal/monthly/point"
+            + "?parameters=ALLSKY_SFC_SW_DWN&community=RE&latitude=%s&longitude=%s&start=2024&end=2024&format=JSON";
+    private static final BigDecimal DAYS = BigDecimal.valueOf(366);
+    private static final String BUNDLED_GRID = "solar/solar-grid.bin";
+
+    private final SolarRadiationCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final RestTemplate nasaRestTemplate;
+
+    @Value("${app.solar.grid-deg:0.05}")
+    private double gridDeg;
+
+    // grid: 격자 파일 우선(없으면 원격) / remote: 항상 칸 캐시 + 원격(기본 — 번들 격자 파일 없음)
+    @Value("${app.solar.source:remote}")
+    private String source;
+
+    // 외부 격자 파일(비우면 번들 리소스)
+    @Value("${app.solar.grid.path:}")
+    private String gridPath;
+
+    @Value("${app.solar.grid.refine-remote:false}")
+    private boolean refineRemote;
+
+    @Value("${app.solar.refresh-after-days:180}")
+    private int refreshAfterDays;
+
+    @Value("${app.solar.refresh.threads:1}")
+    private int refreshThreads;
+
+    @Value("${app.solar.refresh.queue-capacity:50}")
+    private int refreshQueueCapacity;
+
+    /** 칸 1개 값(연평균 kWh/m²/day + 받은 시각) */
+    private record Entry(BigDecimal annualMean, LocalDateTime fetchedAt) {}
+
+    private final Map<String, Entry> cells = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Entry> fetchFlight = new SingleFlight<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder gridHits = new LongAdder();
+    private ThreadPoolExecutor refreshExecutor;
+    private volatile SolarGridFile grid; // null = 격자 없음(원격만)
+
+    public SolarRadiationService(SolarRadiationCacheRepository repository, ObjectMapper objectMapper,
+                                 @Value("${app.solar.timeout-ms.connect:2000}") int connectTimeoutMs,
+                                 @Value("${app.solar.timeout-ms.read:5000}") int readTimeoutMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+        this.nasaRestTemplate = new RestTemplate(factory);
+    }
+
+    @PostConstruct
+    void init() {
+        if (!(gridDeg > 0)) gridDeg = 0.05;
+        final AtomicInteger seq = new AtomicInteger();
+        refreshExecutor = new ThreadPoolExecutor(
+                Math.max(1, refreshThreads), Math.max(1, refreshThreads),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, refreshQueueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "solar-refresh-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        refreshExecutor.allowCoreThreadTimeOut(true);
+
+        if ("grid".equalsIgnoreCase(source)) grid = loadGrid();
+
+        String prefix = gridPrefix();
+        try {
+            int loaded = 0;
+            for (SolarRadiationCache row : repository.findAll()) {
+                if (!row.getCellKey().startsWith(prefix)) continue; // 다른 격자 크기로 쌓인 행
+                cells.put(row.getCellKey(), new Entry(row.getAnnualMean(), row.getFetchedAt()));
+                loaded++;
+            }
+            log.info("[solar] {} cached cells loaded (grid {}°)", loaded, gridDeg);
+        } catch (Exception e) {
+            log.warn("[solar] cache table load failed, starting empty: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refreshExecutor != null) refreshExecutor.shutdown();
+    }
+
+    /** 연간 일사량(kWh/m²/year) = 칸 연평균 × 366 */
+    public BigDecimal annualRadiation(double lat, double lon) throws Exception {
+        return annualMean(lat, lon).multiply(DAYS);
+    }
+
+    /** 칸 연평균(kWh/m²/day, 소수 3자리) */
+    public BigDecimal annualMean(double lat, double lon) throws Exception {
+        long latIdx = (long) Math.floor(lat / gridDeg);
+        long lonIdx = (long) Math.floor(lon / gridDeg);
+        String key = cellKey(latIdx, lonIdx);
+
+        Entry e = cells.get(key);
+        if (e != null) {
+            hits.increment();
+            if (e.fetchedAt().isBefore(LocalDateTime.now().minusDays(refreshAfterDays))) {
+                scheduleRefresh(key, latIdx, lonIdx);
+            }
+            return e.annualMean();
+        }
+        SolarGridFile g = grid;
+        if (g != null) {
+            double v = g.annual(lat, lon);
+            if (!Double.isNaN(v)) {
+                gridHits.increment();
+                if (refineRemote) scheduleRefresh(key, latIdx, lonIdx);
+                return BigDecimal.valueOf(v).setScale(3, RoundingMode.HALF_UP);
+            }
+        }
+        misses.increment();
+        return fetchFlight.call(key, () -> fetchAndStore(key, latIdx, lonIdx)).annualMean();
+    }
+
+    /** 칸 키(격자 크기 포함) — 같은 칸이면 원격 조회 1회로 충분(일괄 계산의 칸별 중복 제거용) */
+    public String cellKeyOf(double lat, double lon) {
+        return cellKey((long) Math.floor(lat / gridDeg), (long) Math.floor(lon / gridDeg));
+    }
+
+    /** [ADD] 격자 캐시 지표 — /simulator/solar/stats */
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("gridDeg", gridDeg);
+        m.put("cells", cells.size());
+        m.put("hits", hits.sum());
+        m.put("misses", misses.sum());
+        m.put("refreshing", refreshing.size());
+        SolarGridFile g = grid;
+        m.put("grid", (g == null) ? "none" : Map.of(
+                "rows", g.rows(), "cols", g.cols(), "lat0", g.lat0(), "lon0", g.lon0(),
+                "step", g.step(), "year", g.year(), "hits", gridHits.sum()));
+        return m;
+    }
+
+    /* ===== 내부 ===== */
+
+    // 외부 경로 → 번들 리소스 순. 없거나 깨졌으면 null(원격 폴백)
+    private SolarGridFile loadGrid() {
+        try {
+            SolarGridFile g;
+            String label;
+            if (gridPath != null && !gridPath.isBlank()) {
+                label = gridPath.trim();
+                g = SolarGridFile.open(Path.of(label));
+            } else {
+                label = "classpath:" + BUNDLED_GRID;
+                try (InputStream in = getClass().getClassLoader().getResourceAsStream(BUNDLED_GRID)) {
+                    if (in == null) {
+                        // source=grid 인데 파일이 없으면 모든 MISS 가 원격으로 간다 → ./gradlew solarGrid 로 생성 필요
+                        log.warn("[solar] app.solar.source=grid but no grid at {} (run ./gradlew solarGrid), using remote lookups", label);
+                        return null;
+                    }
+                    g = SolarGridFile.read(in, label);
+                }
+            }
+            log.info("[solar] grid loaded from {}: {}x{} nodes, step {}°, year {}",
+                    label, g.rows(), g.cols(), g.step(), g.year());
+            return g;
+        } catch (Exception ex) {
+            log.warn("[solar] grid load failed, using remote lookups: {}", ex.toString());
+            return null;
+        }
+    }
+
+    private void scheduleRefresh(String key, long latIdx, long lonIdx) {
+        if (!refreshing.add(key)) return; // 이미 갱신 중
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    fetchFlight.call(key, () -> fetchAndStore(key, latIdx, lonIdx));
+                } catch (Exception ex) {
+                    log.warn("[solar] background refresh failed cell = {}: {}", key, ex.toString());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key);
+            log.debug("[solar] refresh queue full, skipped cell = {}", key);
+        }
+    }
+
+    private Entry fetchAndStore(String key, long latIdx, long lonIdx) throws Exception {
+        BigDecimal lat = center(latIdx);
+        BigDecimal lon = center(lonIdx);
+        long t0 = System.nanoTime();
+        BigDecimal mean = fetchAnnualMean(lat, lon);
+        Entry e = new Entry(mean, LocalDateTime.now());
+        cells.put(key, e);
+        log.debug("[solar] fetched cell = {} ({}, {}) mean = {} in {} ms",
+                key, lat, lon, mean, (System.nanoTime() - t0) / 1_000_000);
+
+        try {
+            SolarRadiationCache row = new SolarRadiationCache();
+            row.setCellKey(key);
+            row.setLat(lat);
+            row.setLon(lon);
+            row.setAnnualMean(mean);
+            row.setFetchedAt(e.fetchedAt());
+            repository.save(row);
+        } catch (Exception ex) {
+            log.warn("[solar] cache row save failed cell = {}: {}", key, ex.toString()); // 메모리 값은 유지
+        }
+        return e;
+    }
+
+    private BigDecimal fetchAnnualMean(BigDecimal lat, BigDecimal lon) throws Exception {
+        String response = nasaRestTemplate.getForObject(
+                String.format(POWER_URL, lat.toPlainString(), lon.toPlainString()), String.class);
+        JsonNode annual = objectMapper.readTree(response)
+                .path("properties").path("parameter").path("ALLSKY_SFC_SW_DWN").path("202413");
+        if (annual.isMissingNode() || annual.isNull()) {
+            throw new Exception("No data for the specified year");
+        }
+        return BigDecimal.valueOf(annual.asDouble()).setScale(3, RoundingMode.HALF_UP);
+    }
+
+    // 칸 중심(소수 5자리)
+    private BigDecimal center(long idx) {
+        return BigDecimal.valueOf((idx + 0.5) * gridDeg).setScale(5, RoundingMode.HALF_UP);
+    }
+
+    private String cellKey(long latIdx, long lonIdx) {
+        return gridPrefix() + latIdx + ":" + lonIdx;
+    }
+
+    private String gridPrefix() {
+        return BigDecimal.valueOf(gridDeg).stripTrailingZeros().toPlainString() + ":";
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import com.example.co2.dto.SimulatorDto;
+import com.example.co2.util.SingleFlight;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -20,8 +21,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class VworldService {
     private static final String VWORLD_KEY = "AED66EDE-3B3C-3034-AE11-9DBA47236C69";
 
+    // 동일 키워드/주소 동시 요청 합치기(원격 호출 1회)
+    private final SingleFlight<String, List<SimulatorDto>> jusoFlight = new SingleFlight<>();
+    private final SingleFlight<String, Map<String, Object>> coordFlight = new SingleFlight<>();
+
+    private final LocalAddressSearchService localAddressSearch; // [ADD] 적재 데이터셋 로컬 자동완성
+
+    public VworldService(LocalAddressSearchService localAddressSearch) {
+        this.localAddressSearch = localAddressSearch;
+    }
+
     // juso API 주소 검색
+    // [ADD] 로컬 데이터셋에서 먼저 찾고, 없을 때만 juso 호출
     public List<SimulatorDto> getCoordinates(String keyword) throws Exception {
+        List<SimulatorDto> local = localAddressSearch.searchSimulator(keyword);
+        if (!local.isEmpty()) return local;
+        return jusoFlight.call(keyword, () -> fetchJuso(keyword));
+    }
+
+    private List<SimulatorDto> fetchJuso(String keyword) throws Exception {
         String url = "https://www.juso.go.kr/addrlink/addrLinkApi.do?currentPage=1"
                 + "&countPerPage=5"
                 + "&keyword=" + keyword
@@ -49,26 +67,45 @@ public class VworldService {
     }
     // vWorld API 좌표 변환
     public Map<String, Object> getCoordFromVworld(String address) {
+        return coordFlight.run(address, () -> fetchCoord(address));
+    }
+
+    private Map<String, Object> fetchCoord(String address) {
         try {
-            String encoded = URLEncoder.encode(address, StandardCharsets.UTF_8);
-            String url = "https://api.vworld.kr/req/address"
-                    + "?service=address"
-                    + "&request=getCoord"
-                    + "&version=2.0"
-                    + "&crs=epsg:4326"
-                    + "&key=" + VWORLD_KEY
-                    + "&address=" + encoded
-                    + "&type=road";
-
-            RestTemplate restTemplate = new RestTemplate();
-            String response = restTemplate.getForObject(url, String.class);
-
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(response, new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> result = requestCoord(address, "road");
+            // [ADD] 로컬 자동완성 결과는 지번 주소 → 도로명으로 못 찾으면 지번(parcel)으로 한 번 더
+            if (!isOk(result)) {
+                Map<String, Object> parcel = requestCoord(address, "parcel");
+                if (isOk(parcel)) return parcel;
+            }
+            return result;
         } catch (Exception e) {
             throw new RuntimeException("Vworld API 호출 실패", e);
         }
     }
 
+    private Map<String, Object> requestCoord(String address, String type) throws Exception {
+        String encoded = URLEncoder.encode(address, StandardCharsets.UTF_8);
+        String url = "https://api.vworld.kr/req/address"
+                + "?service=address"
+                + "&request=getCoord"
+                + "&version=2.0"
+                + "&crs=epsg:4326"
+                + "&key=" + VWORLD_KEY
+                + "&address=" + encoded
+                + "&type=" + type;
+
+        RestTemplate restTemplate = new RestTemplate();
+        String response = restTemplate.getForObject(url, String.class);
+
+        ObjectMapper mapper = new ObjectMapper();
+        return mapper.readValue(response, new TypeReference<Map<String, Object>>() {});
+    }
+
+    private static boolean isOk(Map<String, Object> result) {
+        Object resp = (result == null) ? null : result.get("response");
+        return resp instanceof Map<?, ?> m && "OK".equals(m.get("status"));
+    }
+
     
 }
@@ -0,0 +1,51 @@
+package com.example.co2.tool;
+
+import com.example.co2.service.BuildingDatasetRegistry;
+import com.example.co2.util.BuildingColumnStore;
+import com.example.co2.util.BuildingSnapshotFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+	역할(빌드/관리 단계 도구):
+	- 클래스패스 JSON 4종(BuildingDatasetRegistry.Dataset)을 컬럼 저장소로 변환해 바이너리 스냅샷 1개로 기록한다.
+	- 실행: ./gradlew datasetSnapshot  → build/dataset/buildings.snapshot
+	        (다른 위치: java -cp ... com.example.co2.tool.DatasetSnapshotCompiler <출력 경로> [데이터 디렉터리])
+	- 데이터 디렉터리(app.dataset.dir 과 같은 곳)를 주면 그 안에 같은 파일명이 있는 데이터셋은 그 파일로 만든다.
+	- 애플리케이션은 app.dataset.snapshot.path 로 이 파일을 지정하면 JSON 대신 매핑해서 기동한다.
+	- 데이터셋별 원본 JSON 지문(바이트 수, 외부 파일 수정 시각, SHA-256)을 함께 기록
+	  → JSON만 바뀐 낡은 스냅샷은 그 데이터셋만 JSON으로 적재된다.
+*/
+public final class DatasetSnapshotCompiler {
+
+	private DatasetSnapshotCompiler() {}
+
+	public static void main(String[] args) throws Exception {
+		Path out = Path.of(args.length > 0 ? args[0] : "build/dataset/buildings.snapshot");
+		Path dataDir = (args.length > 1) ? Path.of(args[1]) : null;
+
+		Map<String, BuildingColumnStore> datasets = new LinkedHashMap<>();
+		Map<String, BuildingSnapshotFile.Source> sources = new LinkedHashMap<>();
+		for (BuildingDatasetRegistry.Dataset d : BuildingDatasetRegistry.Dataset.values()) {
+			Path file = (dataDir == null) ? null : dataDir.resolve(BuildingDatasetRegistry.fileName(d));
+			boolean external = file != null && Files.isRegularFile(file);
+			BuildingColumnStore columns = external ? BuildingDatasetRegistry.readColumns(d, file)
+					: BuildingDatasetRegistry.readColumns(d);
+			BuildingSnapshotFile.Source source = external ? BuildingDatasetRegistry.fileSource(file)
+					: BuildingDatasetRegistry.classpathSource(d);
+			datasets.put(d.id(), columns);
+			sources.put(d.id(), source);
+			System.out.println("[snapshot] " + d.id() + " : " + columns.size() + " rows (" + source.location() + ", sha256 "
+					+ source.sha256().substring(0, 12) + ")");
+		}
+
+		BuildingSnapshotFile.write(out, datasets, sources);
+		// 쓰기 직후 검증(매핑 + CRC)
+		BuildingSnapshotFile.open(out, true);
+		System.out.println("[snapshot] wrote " + out.toAbsolutePath() + " (" + Files.size(out) + " bytes, v"
+				+ BuildingSnapshotFile.VERSION + ")");
+	}
+}
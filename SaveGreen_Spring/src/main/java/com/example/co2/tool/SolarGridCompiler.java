@@ -0,0 +1,93 @@
+package com.example.co2.tool;
+
+import com.example.co2.util.SolarGridFile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+	역할(빌드/관리 단계 도구):
+	- NASA POWER 월별 point API를 격자 노드마다 1회 호출해 연평균 + 월평균 12개를 일사량 격자 파일(SolarGridFile)로 기록한다.
+	- 실행: ./gradlew solarGrid  → build/solar/solar-grid.bin
+	        (범위 지정: ./gradlew solarGrid -PsolarGridArgs="<출력> <남> <서> <북> <동> <간격°> <연도>")
+	- 기본 범위는 국내(33.0~39.0N, 124.5~131.0E), 간격 0.5°(NASA POWER 원 해상도 0.5° × 0.625°와 비슷하게).
+	- 결과 파일을 src/main/resources/solar/solar-grid.bin 으로 두면 번들, 또는 app.solar.grid.path 로 외부 지정.
+	- 실패한 노드는 1회 재시도 후 NaN(보간에서 제외)으로 남긴다.
+*/
+public final class SolarGridCompiler {
+
+	private static final String POWER_URL = "https://power.larc.nasa.gov/api/temporal/monthly/point"
+			+ "?parameters=ALLSKY_SFC_SW_DWN&community=RE&latitude=%s&longitude=%s&start=%d&end=%d&format=JSON";
+
+	private SolarGridCompiler() {}
+
+	public static void main(String[] args) throws Exception {
+		Path out = Path.of(arg(args, 0, "build/solar/solar-grid.bin"));
+		double south = Double.parseDouble(arg(args, 1, "33.0"));
+		double west = Double.parseDouble(arg(args, 2, "124.5"));
+		double north = Double.parseDouble(arg(args, 3, "39.0"));
+		double east = Double.parseDouble(arg(args, 4, "131.0"));
+		double step = Double.parseDouble(arg(args, 5, "0.5"));
+		int year = Integer.parseInt(arg(args, 6, "2024"));
+
+		int rows = (int) Math.round((north - south) / step) + 1;
+		int cols = (int) Math.round((east - west) / step) + 1;
+		float[][] values = new float[SolarGridFile.PLANES][rows * cols];
+		for (float[] plane : values) Arrays.fill(plane, Float.NaN);
+
+		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+		factory.setConnectTimeout(5000);
+		factory.setReadTimeout(30000);
+		RestTemplate rest = new RestTemplate(factory);
+		ObjectMapper mapper = new ObjectMapper();
+
+		int ok = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				double lat = south + i * step;
+				double lon = west + j * step;
+				JsonNode node = fetch(rest, mapper, lat, lon, year);
+				if (node == null) node = fetch(rest, mapper, lat, lon, year); // 1회 재시도
+				if (node == null) {
+					System.out.printf(Locale.ROOT, "[solar-grid] (%.3f, %.3f) failed, left empty%n", lat, lon);
+					continue;
+				}
+				for (int p = 0; p < SolarGridFile.PLANES; p++) {
+					String key = String.format(Locale.ROOT, "%d%02d", year, (p == SolarGridFile.ANNUAL) ? 13 : p);
+					double v = node.path(key).asDouble(Double.NaN);
+					values[p][i * cols + j] = (v < 0) ? Float.NaN : (float) v; // -999 = 결측
+				}
+				ok++;
+			}
+			System.out.printf(Locale.ROOT, "[solar-grid] row %d/%d done%n", i + 1, rows);
+		}
+
+		SolarGridFile.write(out, rows, cols, south, west, step, year, values);
+		SolarGridFile.open(out); // 쓰기 직후 검증(매핑 + CRC)
+		System.out.printf(Locale.ROOT, "[solar-grid] wrote %s (%dx%d, %d/%d nodes, %d bytes)%n",
+				out.toAbsolutePath(), rows, cols, ok, rows * cols, Files.size(out));
+	}
+
+	// ALLSKY_SFC_SW_DWN 노드(월 키 → 값), 실패 시 null
+	private static JsonNode fetch(RestTemplate rest, ObjectMapper mapper, double lat, double lon, int year) {
+		try {
+			String url = String.format(Locale.ROOT, POWER_URL,
+					String.format(Locale.ROOT, "%.4f", lat), String.format(Locale.ROOT, "%.4f", lon), year, year);
+			JsonNode values = mapper.readTree(rest.getForObject(url, String.class))
+					.path("properties").path("parameter").path("ALLSKY_SFC_SW_DWN");
+			return values.isMissingNode() ? null : values;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static String arg(String[] args, int i, String def) {
+		return (args.length > i && !args[i].isBlank()) ? args[i] : def;
+	}
+}
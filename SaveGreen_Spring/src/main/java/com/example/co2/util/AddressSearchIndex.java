@@ -0,0 +1,318 @@
+package com.example.co2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+	역할(건물 주소/이름/PNU 자동완성 인덱스, 불변):
+	- 적재된 건물 데이터셋(BuildingColumnStore)의 address / buildingName / pnu 를 메모리에서 바로 검색한다.
+	  (GreenFinder·시뮬레이터 검색창 입력마다 juso.go.kr 원격 호출 → 로컬에서 찾으면 원격 호출 없음)
+
+	정규화(jamo):
+	- 한글 음절은 초성/중성/종성 호환 자모로 분해, 영문 소문자, 공백·기호 제거
+	  예) "문평동 78-4" → "ㅁㅜㄴㅍㅕㅇㄷㅗㅇ784"
+	  → 입력 중인 음절("문ㅍ", "무")도 접두어로 맞고, 받침 하나 틀린 오타도 n-gram 대부분이 겹친다.
+
+	구조:
+	- 접두어 : 정렬된 String[] terms + 이분 탐색(lower bound) 후 startsWith 구간 스캔
+	           term = 주소/이름의 각 어절부터 끝까지(예: "대덕구 문평동 78-4", "문평동 78-4", "78-4"), pnu
+	- 오타    : 자모 3-gram 역색인(gram → 필드 번호 int[]). 질의 gram 중 필드에 있는 비율(포함도)로 점수
+	- 결과    : 접두어 일치 먼저(어절 위치 → 짧은 term 순), 모자라면 오타 후보(포함도 → Dice 순)로 채움
+*/
+public final class AddressSearchIndex {
+
+	private static final int GRAM = 3;
+	private static final long ENTRY_MASK = 0x7FFF_FFFFL;
+
+	// 음절 분해용 호환 자모(초성 19 / 중성 21 / 종성 27 + 없음)
+	private static final char[] CHO = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ".toCharArray();
+	private static final char[] JUNG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ".toCharArray();
+	private static final char[] JONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ".toCharArray();
+
+	public static final AddressSearchIndex EMPTY = builder().build();
+
+	/** 검색 결과 1건(prefix=true면 접두어 일치, score는 오타 후보의 포함도 0~1) */
+	public record Hit(String pnu, String buildingName, String address, boolean prefix, double score) {}
+
+	// 항목(건물 1건)
+	private final String[] pnu;
+	private final String[] name;
+	private final String[] address;
+
+	// 접두어: 정렬된 term → 항목 번호 / 어절 위치
+	private final String[] terms;
+	private final int[] termEntry;
+	private final int[] termToken;
+
+	// 오타: gram → 필드 번호(항목*2 + 0:주소,1:이름), 필드별 gram 수
+	private final Map<String, int[]> grams;
+	private final int[] fieldGrams;
+
+	private AddressSearchIndex(String[] pnu, String[] name, String[] address,
+							   String[] terms, int[] termEntry, int[] termToken,
+							   Map<String, int[]> grams, int[] fieldGrams) {
+		this.pnu = pnu;
+		this.name = name;
+		this.address = address;
+		this.terms = terms;
+		this.termEntry = termEntry;
+		this.termToken = termToken;
+		this.grams = grams;
+		this.fieldGrams = fieldGrams;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int size() {
+		return pnu.length;
+	}
+
+	/**
+	 * 자동완성 검색.
+	 *
+	 * @param query         입력 문자열
+	 * @param limit         최대 건수
+	 * @param minContainment 오타 후보 최소 포함도(질의 gram 중 필드에 있는 비율, 0~1)
+	 */
+	public List<Hit> search(String query, int limit, double minContainment) {
+		String q = normalize(query);
+		if (q.isEmpty() || limit <= 0) return List.of();
+
+		Map<Integer, Hit> out = new LinkedHashMap<>();
+		prefix(q, limit, out);
+		if (out.size() < limit) fuzzy(q, limit, minContainment, out);
+		return new ArrayList<>(out.values());
+	}
+
+	// [lo, hi) = q 로 시작하는 term 구간 → (어절 위치, term 길이, 항목) 순 상위 limit 개 항목(중복 없이).
+	// 구간 전체를 정렬하지 않고 길이 limit 의 정렬 배열(rankKey)만 유지하며 한 번 훑는다 → 짧은 접두어도 할당 O(limit)
+	private void prefix(String q, int limit, Map<Integer, Hit> out) {
+		int lo = lowerBound(q);
+		int hi = lowerBound(q + Character.MAX_VALUE); // 정규화 문자열에는 U+FFFF 가 없다
+		if (lo == hi) return;
+
+		long[] top = new long[Math.min(limit, hi - lo)];
+		int n = 0;
+		for (int t = lo; t < hi; t++) {
+			long key = rankKey(t);
+			if (n == top.length && key >= top[n - 1]) continue; // 상위 limit 밖
+			int e = termEntry[t];
+			int at = -1;
+			for (int i = 0; i < n; i++) {
+				if ((int) (top[i] & ENTRY_MASK) == e) {
+					at = i;
+					break;
+				}
+			}
+			if (at >= 0) {
+				if (key >= top[at]) continue;                      // 같은 항목의 더 앞선 term 이 이미 있음
+				System.arraycopy(top, at + 1, top, at, n - at - 1); // 기존 자리 빼고 다시 넣는다
+				n--;
+			} else if (n == top.length) {
+				n--;                                                // 가장 뒤 항목을 밀어냄
+			}
+			int pos = Arrays.binarySearch(top, 0, n, key);
+			if (pos < 0) pos = -pos - 1;
+			System.arraycopy(top, pos, top, pos + 1, n - pos);
+			top[pos] = key;
+			n++;
+		}
+		for (int i = 0; i < n && out.size() < limit; i++) {
+			int e = (int) (top[i] & ENTRY_MASK);
+			out.putIfAbsent(e, hit(e, true, 1.0));
+		}
+	}
+
+	// 정렬 키 = 어절 위치(16비트) | term 길이(16비트) | 항목 번호(31비트). 위치·길이는 0xFFFF 에서 포화
+	private long rankKey(int t) {
+		long token = Math.min(termToken[t], 0xFFFF);
+		long length = Math.min(terms[t].length(), 0xFFFF);
+		return (token << 47) | (length << 31) | termEntry[t];
+	}
+
+	private void fuzzy(String q, int limit, double minContainment, Map<Integer, Hit> out) {
+		Set<String> qGrams = gramsOf(q);
+		if (qGrams.isEmpty()) return;
+
+		Map<Integer, Integer> shared = new HashMap<>();
+		for (String g : qGrams) {
+			int[] fields = grams.get(g);
+			if (fields == null) continue;
+			for (int f : fields) shared.merge(f, 1, Integer::sum);
+		}
+		// 항목별 최고 점수 필드(포함도 → Dice)
+		Map<Integer, double[]> best = new HashMap<>();
+		for (Map.Entry<Integer, Integer> en : shared.entrySet()) {
+			int field = en.getKey();
+			int entry = field >> 1;
+			if (out.containsKey(entry)) continue;
+			double containment = en.getValue() / (double) qGrams.size();
+			if (containment < minContainment) continue;
+			double dice = 2.0 * en.getValue() / (qGrams.size() + fieldGrams[field]);
+			double[] cur = best.get(entry);
+			if (cur == null || containment > cur[0] || (containment == cur[0] && dice > cur[1])) {
+				best.put(entry, new double[]{containment, dice});
+			}
+		}
+		List<Map.Entry<Integer, double[]>> ranked = new ArrayList<>(best.entrySet());
+		ranked.sort((a, b) -> {
+			int c = Double.compare(b.getValue()[0], a.getValue()[0]);
+			if (c != 0) return c;
+			c = Double.compare(b.getValue()[1], a.getValue()[1]);
+			return (c != 0) ? c : Integer.compare(a.getKey(), b.getKey());
+		});
+		for (Map.Entry<Integer, double[]> en : ranked) {
+			if (out.size() >= limit) return;
+			out.put(en.getKey(), hit(en.getKey(), false, en.getValue()[0]));
+		}
+	}
+
+	private Hit hit(int e, boolean prefix, double score) {
+		return new Hit(pnu[e], name[e], address[e], prefix, score);
+	}
+
+	private int lowerBound(String q) {
+		int lo = 0, hi = terms.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (terms[mid].compareTo(q) < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	/* ===== 정규화 ===== */
+
+	/** 한글 음절 → 호환 자모, 영문 소문자, 글자/숫자 외 제거 */
+	public static String normalize(String s) {
+		if (s == null) return "";
+		StringBuilder sb = new StringBuilder(s.length() * 3);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0xAC00 && c <= 0xD7A3) {
+				int idx = c - 0xAC00;
+				sb.append(CHO[idx / 588]).append(JUNG[(idx % 588) / 28]);
+				int jong = idx % 28;
+				if (jong != 0) sb.append(JONG[jong]);
+			} else if (Character.isLetterOrDigit(c)) {
+				sb.append(Character.toLowerCase(c));
+			}
+		}
+		return sb.toString();
+	}
+
+	private static Set<String> gramsOf(String normalized) {
+		Set<String> out = new HashSet<>();
+		for (int i = 0; i + GRAM <= normalized.length(); i++) {
+			out.add(normalized.substring(i, i + GRAM));
+		}
+		return out;
+	}
+
+	/* ===== 빌더 ===== */
+
+	public static final class Builder {
+		private final List<String> pnu = new ArrayList<>();
+		private final List<String> name = new ArrayList<>();
+		private final List<String> address = new ArrayList<>();
+		private final Set<String> seenPnu = new HashSet<>();
+
+		private Builder() {}
+
+		/** 항목 추가. 같은 PNU는 먼저 들어온 것만, 주소·이름이 모두 없으면 건너뜀 */
+		public Builder add(String pnu, String buildingName, String address) {
+			String p = (pnu == null) ? null : pnu.trim();
+			if (p != null && !p.isEmpty() && !seenPnu.add(p)) return this;
+			if (isBlank(buildingName) && isBlank(address)) return this;
+			this.pnu.add(p);
+			this.name.add(buildingName);
+			this.address.add(address);
+			return this;
+		}
+
+		/** 컬럼 저장소의 모든 행 추가 */
+		public Builder addAll(BuildingColumnStore columns) {
+			if (columns.size() == 0) return this;
+			BuildingColumnStore.Row r = columns.row(0);
+			for (int i = 0; i < columns.size(); i++) {
+				r.moveTo(i);
+				add(r.pnu(), r.buildingName(), r.address());
+			}
+			return this;
+		}
+
+		public AddressSearchIndex build() {
+			int n = pnu.size();
+			List<String> termList = new ArrayList<>();
+			List<int[]> termMeta = new ArrayList<>(); // {entry, token}
+			Map<String, List<Integer>> gramLists = new HashMap<>();
+			int[] fieldGrams = new int[n * 2];
+
+			for (int e = 0; e < n; e++) {
+				addTerms(address.get(e), e, termList, termMeta);
+				addTerms(name.get(e), e, termList, termMeta);
+				String p = normalize(pnu.get(e));
+				if (!p.isEmpty()) {
+					termList.add(p);
+					termMeta.add(new int[]{e, 0});
+				}
+				fieldGrams[e * 2] = addGrams(address.get(e), e * 2, gramLists);
+				fieldGrams[e * 2 + 1] = addGrams(name.get(e), e * 2 + 1, gramLists);
+			}
+
+			Integer[] order = new Integer[termList.size()];
+			for (int i = 0; i < order.length; i++) order[i] = i;
+			Arrays.sort(order, Comparator.comparing(termList::get));
+			String[] terms = new String[order.length];
+			int[] termEntry = new int[order.length];
+			int[] termToken = new int[order.length];
+			for (int i = 0; i < order.length; i++) {
+				terms[i] = termList.get(order[i]);
+				termEntry[i] = termMeta.get(order[i])[0];
+				termToken[i] = termMeta.get(order[i])[1];
+			}
+
+			Map<String, int[]> grams = new HashMap<>(gramLists.size() * 2);
+			for (Map.Entry<String, List<Integer>> en : gramLists.entrySet()) {
+				grams.put(en.getKey(), en.getValue().stream().mapToInt(Integer::intValue).toArray());
+			}
+
+			return new AddressSearchIndex(
+					pnu.toArray(new String[0]), name.toArray(new String[0]), address.toArray(new String[0]),
+					terms, termEntry, termToken, grams, fieldGrams);
+		}
+
+		// 어절마다 "그 어절부터 끝까지"를 term 으로
+		private static void addTerms(String text, int entry, List<String> termList, List<int[]> termMeta) {
+			if (isBlank(text)) return;
+			String[] tokens = text.trim().split("\\s+");
+			Set<String> seen = new HashSet<>();
+			for (int t = 0; t < tokens.length; t++) {
+				String term = normalize(String.join(" ", Arrays.asList(tokens).subList(t, tokens.length)));
+				if (!term.isEmpty() && seen.add(term)) {
+					termList.add(term);
+					termMeta.add(new int[]{entry, t});
+				}
+			}
+		}
+
+		private static int addGrams(String text, int field, Map<String, List<Integer>> gramLists) {
+			Set<String> gs = gramsOf(normalize(text));
+			for (String g : gs) gramLists.computeIfAbsent(g, k -> new ArrayList<>()).add(field);
+			return gs.size();
+		}
+
+		private static boolean isBlank(String s) {
+			return s == null || s.isBlank();
+		}
+	}
+}
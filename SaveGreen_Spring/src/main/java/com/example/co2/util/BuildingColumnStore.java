@@ -0,0 +1,697 @@
+package com.example.co2.util;
+
+import com.example.co2.dto.SearchBuilding;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+	역할(건물 데이터 컬럼 저장소):
+	- SearchBuilding DTO 목록과 같은 입력을 "컬럼 단위 원시 배열"로 보관한다(전국 단위 수백만 행 대비).
+	  DTO 1건은 박싱 필드 + 중첩 List 객체 수십 개(수 KB)지만, 여기서는 행당 수십~수백 바이트.
+
+	컬럼(모두 java.nio 버퍼 — 힙 배열 래핑 또는 파일 매핑(스냅샷) 양쪽을 같은 코드로 읽는다):
+	- pnuKey            : 19자리 PNU → long (19자리 숫자가 아니면 NO_KEY, 원문은 irregularByRow에 보관)
+	- sortedKeys/Rows   : pnuKey 오름차순 + 행 번호 → 이진 탐색 조회(해시맵 박싱 없음)
+	- floorArea/intensity/electricity : double (없으면 NaN)
+	- usageYear         : int (없으면 NO_YEAR)
+	- type1/type2       : 사전 코드(int, 없으면 -1) + typeDict
+	- name/address      : UTF-8 바이트 blob + 행별 (시작, 길이) 쌍(길이 -1 = null)
+	- monthly/yearly    : 행별 offset(size+1) + 평탄화한 (월|연도, 값) 배열
+	- lat/lon           : WGS84 좌표 double (없으면 NaN — 현재 더미 데이터에는 없음)
+
+	조회:
+	- find(pnu) → Row(행 번호만 든 경량 뷰). 필요한 컬럼만 읽고, DTO가 꼭 필요할 때만 toDto().
+	- 대량 순회는 Row.moveTo(row)로 뷰 하나를 재사용.
+
+	주의:
+	- 불변. 빌드 후 버퍼는 읽기 전용 뷰로만 노출한다.
+*/
+public final class BuildingColumnStore {
+
+	/** pnuKey 없음(19자리 숫자가 아닌 PNU) */
+	public static final long NO_KEY = -1L;
+	/** usageYear 없음 */
+	public static final int NO_YEAR = Integer.MIN_VALUE;
+
+	private static final int PNU_DIGITS = 19;
+
+	final int size;
+	final LongBuffer pnuKey;
+	final LongBuffer sortedKeys;
+	final IntBuffer sortedRows;
+	final DoubleBuffer floorArea;
+	final DoubleBuffer intensity;
+	final DoubleBuffer electricity;
+	final IntBuffer usageYear;
+	final IntBuffer type1;
+	final IntBuffer type2;
+	final String[] typeDict;
+	final IntBuffer nameRefs;
+	final IntBuffer addressRefs;
+	final ByteBuffer text;
+	final IntBuffer monthlyOffsets;
+	final ByteBuffer monthlyMonth;
+	final DoubleBuffer monthlyValue;
+	final IntBuffer yearlyOffsets;
+	final ShortBuffer yearlyYear;
+	final DoubleBuffer yearlyValue;
+	final DoubleBuffer lat;
+	final DoubleBuffer lon;
+	final Map<Integer, String> irregularByRow; // 행 → PNU 원문 (pnuKey == NO_KEY 인 행 전부, 같은 원문 중복 포함)
+	final Map<String, Integer> irregularPnu;   // PNU 원문 → 첫 행 (find 용, irregularByRow 에서 만든다)
+
+	BuildingColumnStore(int size, LongBuffer pnuKey, LongBuffer sortedKeys, IntBuffer sortedRows,
+						DoubleBuffer floorArea, DoubleBuffer intensity, DoubleBuffer electricity,
+						IntBuffer usageYear, IntBuffer type1, IntBuffer type2, String[] typeDict,
+						IntBuffer nameRefs, IntBuffer addressRefs, ByteBuffer text,
+						IntBuffer monthlyOffsets, ByteBuffer monthlyMonth, DoubleBuffer monthlyValue,
+						IntBuffer yearlyOffsets, ShortBuffer yearlyYear, DoubleBuffer yearlyValue,
+						DoubleBuffer lat, DoubleBuffer lon, Map<Integer, String> irregularByRow) {
+		this.size = size;
+		this.pnuKey = pnuKey;
+		this.sortedKeys = sortedKeys;
+		this.sortedRows = sortedRows;
+		this.floorArea = floorArea;
+		this.intensity = intensity;
+		this.electricity = electricity;
+		this.usageYear = usageYear;
+		this.type1 = type1;
+		this.type2 = type2;
+		this.typeDict = typeDict;
+		this.nameRefs = nameRefs;
+		this.addressRefs = addressRefs;
+		this.text = text;
+		this.monthlyOffsets = monthlyOffsets;
+		this.monthlyMonth = monthlyMonth;
+		this.monthlyValue = monthlyValue;
+		this.yearlyOffsets = yearlyOffsets;
+		this.yearlyYear = yearlyYear;
+		this.yearlyValue = yearlyValue;
+		this.lat = lat;
+		this.lon = lon;
+		this.irregularByRow = irregularByRow;
+		// 같은 원문이 여러 행이면 먼저 들어온 행(19자리 PNU 의 sortedKeys 와 같은 규칙)
+		Map<String, Integer> first = new HashMap<>(Math.max(4, irregularByRow.size() * 2));
+		irregularByRow.forEach((row, p) -> first.merge(p, row, Math::min));
+		this.irregularPnu = Collections.unmodifiableMap(first);
+	}
+
+	/** DTO 목록 → 컬럼 저장소(null 행 제외, 순서 유지) */
+	public static BuildingColumnStore from(List<SearchBuilding> rows) {
+		Builder b = builder(rows.size());
+		for (SearchBuilding row : rows) {
+			if (row != null) b.add(row);
+		}
+		return b.build();
+	}
+
+	public static Builder builder(int expectedRows) {
+		return new Builder(expectedRows);
+	}
+
+	/** upsert 결과: 새 저장소 + 행별 출처(sourceRow[새 행] = 그대로 복사한 base 행, 바뀌었거나 새 행이면 -1) */
+	public record Merge(BuildingColumnStore store, int[] sourceRow, int replaced, int appended) {}
+
+	/**
+	 * base 에 delta 행을 PNU 기준으로 덮어쓴다(upsert).
+	 *  - base 에 있는 PNU → 같은 자리에서 delta 행으로 교체(순서 유지)
+	 *  - 없는 PNU → 끝에 추가(delta 순서)
+	 *  - 삭제는 지원하지 않는다(전체 재적재로 처리)
+	 */
+	public static Merge upsert(BuildingColumnStore base, BuildingColumnStore delta) {
+		int[] replacedBy = new int[base.size];
+		Arrays.fill(replacedBy, -1);
+		int[] appendedRows = new int[delta.size];
+		int appended = 0;
+		int replaced = 0;
+
+		Row d = (delta.size > 0) ? delta.row(0) : null;
+		for (int r = 0; r < delta.size; r++) {
+			d.moveTo(r);
+			long key = d.pnuKey();
+			int br = (key != NO_KEY) ? base.rowOf(key) : base.rowOf(d.pnu());
+			if (br >= 0) {
+				if (replacedBy[br] < 0) replaced++;
+				replacedBy[br] = r;                  // 같은 PNU가 delta에 여러 번 → 마지막 행
+			} else {
+				appendedRows[appended++] = r;
+			}
+		}
+
+		Builder b = builder(base.size + appended);
+		int[] sourceRow = new int[base.size + appended];
+		Row src = (base.size > 0) ? base.row(0) : null;
+		for (int r = 0; r < base.size; r++) {
+			if (replacedBy[r] >= 0) {
+				b.addRow(d.moveTo(replacedBy[r]));
+				sourceRow[r] = -1;
+			} else {
+				b.addRow(src.moveTo(r));
+				sourceRow[r] = r;
+			}
+		}
+		for (int i = 0; i < appended; i++) {
+			b.addRow(d.moveTo(appendedRows[i]));
+			sourceRow[base.size + i] = -1;
+		}
+		return new Merge(b.build(), sourceRow, replaced, appended);
+	}
+
+	/* ===== 조회 ===== */
+
+	public int size() {
+		return size;
+	}
+
+	/** PNU(앞뒤 공백 무시) → 행 뷰. 없으면 null (중복 PNU는 먼저 들어온 행) */
+	public Row find(String pnu) {
+		int row = rowOf(pnu);
+		return (row < 0) ? null : new Row(this, row);
+	}
+
+	/** PNU → 행 번호. 없으면 -1 */
+	public int rowOf(String pnu) {
+		if (pnu == null) return -1;
+		String p = pnu.trim();
+		long key = packPnu(p);
+		if (key != NO_KEY) return rowOf(key);
+		Integer row = irregularPnu.get(p);
+		return (row == null) ? -1 : row;
+	}
+
+	/** pnuKey → 행 번호. 없으면 -1 */
+	public int rowOf(long key) {
+		int lo = 0, hi = sortedKeys.limit() - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long k = sortedKeys.get(mid);
+			if (k < key) lo = mid + 1;
+			else if (k > key) hi = mid - 1;
+			else return sortedRows.get(mid);
+		}
+		return -1;
+	}
+
+	/** 행 번호 → 뷰(0 ≤ row < size) */
+	public Row row(int row) {
+		if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " / " + size);
+		return new Row(this, row);
+	}
+
+	/** 컬럼이 차지하는 바이트 수(대략, 사전/irregularPnu 포함) */
+	public long approxBytes() {
+		long bytes = 0;
+		bytes += (long) pnuKey.capacity() * Long.BYTES;
+		bytes += (long) sortedKeys.capacity() * Long.BYTES + (long) sortedRows.capacity() * Integer.BYTES;
+		bytes += (long) (floorArea.capacity() + intensity.capacity() + electricity.capacity()) * Double.BYTES;
+		bytes += (long) (usageYear.capacity() + type1.capacity() + type2.capacity()) * Integer.BYTES;
+		bytes += (long) (nameRefs.capacity() + addressRefs.capacity()) * Integer.BYTES + text.capacity();
+		bytes += (long) monthlyOffsets.capacity() * Integer.BYTES + monthlyMonth.capacity()
+				+ (long) monthlyValue.capacity() * Double.BYTES;
+		bytes += (long) yearlyOffsets.capacity() * Integer.BYTES + (long) yearlyYear.capacity() * Short.BYTES
+				+ (long) yearlyValue.capacity() * Double.BYTES;
+		bytes += (long) (lat.capacity() + lon.capacity()) * Double.BYTES;
+		for (String s : typeDict) bytes += 40 + 2L * s.length();
+		bytes += (irregularByRow.size() + irregularPnu.size()) * 96L;
+		return bytes;
+	}
+
+	/* ===== PNU 패킹 ===== */
+
+	/** 19자리 숫자 PNU → long. 형식이 다르거나 long 범위를 넘으면 NO_KEY */
+	public static long packPnu(String pnu) {
+		if (pnu == null || pnu.length() != PNU_DIGITS) return NO_KEY;
+		long v = 0;
+		for (int i = 0; i < PNU_DIGITS; i++) {
+			char c = pnu.charAt(i);
+			if (c < '0' || c > '9') return NO_KEY;
+			int d = c - '0';
+			if (v > (Long.MAX_VALUE - d) / 10) return NO_KEY;
+			v = v * 10 + d;
+		}
+		return v;
+	}
+
+	/** packPnu 역변환(19자리 0 채움) */
+	public static String unpackPnu(long key) {
+		char[] out = new char[PNU_DIGITS];
+		long v = key;
+		for (int i = PNU_DIGITS - 1; i >= 0; i--) {
+			out[i] = (char) ('0' + (v % 10));
+			v /= 10;
+		}
+		return new String(out);
+	}
+
+	/* ===== 경량 행 뷰 ===== */
+
+	/** 행 번호만 가진 뷰. 값은 호출 시 컬럼에서 읽는다(문자열은 그때 디코딩) */
+	public static final class Row {
+
+		private final BuildingColumnStore s;
+		private int row;
+
+		Row(BuildingColumnStore s, int row) {
+			this.s = s;
+			this.row = row;
+		}
+
+		/** 같은 뷰를 다른 행으로 이동(순회 시 재사용) */
+		public Row moveTo(int row) {
+			if (row < 0 || row >= s.size) throw new IndexOutOfBoundsException("row " + row + " / " + s.size);
+			this.row = row;
+			return this;
+		}
+
+		public int index() {
+			return row;
+		}
+
+		public long pnuKey() {
+			return s.pnuKey.get(row);
+		}
+
+		public String pnu() {
+			long key = pnuKey();
+			return (key != NO_KEY) ? unpackPnu(key) : s.irregularByRow.get(row);
+		}
+
+		public String buildingName() {
+			return s.string(s.nameRefs, row);
+		}
+
+		public String address() {
+			return s.string(s.addressRefs, row);
+		}
+
+		public String buildingType1() {
+			return s.type(s.type1.get(row));
+		}
+
+		public String buildingType2() {
+			return s.type(s.type2.get(row));
+		}
+
+		/** 연면적(㎡), 없으면 NaN */
+		public double floorAreaM2() {
+			return s.floorArea.get(row);
+		}
+
+		/** 사용승인 연도, 없으면 NO_YEAR */
+		public int usageYear() {
+			return s.usageYear.get(row);
+		}
+
+		/** 연간 전력(kWh), 없으면 NaN */
+		public double electricityUsageKwh() {
+			return s.electricity.get(row);
+		}
+
+		/** 원단위(kWh/㎡), 없으면 NaN */
+		public double energyIntensityKwhPerM2() {
+			return s.intensity.get(row);
+		}
+
+		/** 위도(WGS84), 없으면 NaN */
+		public double lat() {
+			return s.lat.get(row);
+		}
+
+		/** 경도(WGS84), 없으면 NaN */
+		public double lon() {
+			return s.lon.get(row);
+		}
+
+		/** 좌표가 있는 행인지 */
+		public boolean hasLocation() {
+			return !Double.isNaN(lat()) && !Double.isNaN(lon());
+		}
+
+		public int monthlyCount() {
+			return s.monthlyOffsets.get(row + 1) - s.monthlyOffsets.get(row);
+		}
+
+		/** i번째 월별 항목의 월(1~12, 없으면 0) */
+		public int month(int i) {
+			return s.monthlyMonth.get(s.monthlyOffsets.get(row) + i);
+		}
+
+		/** i번째 월별 항목의 전력, 없으면 NaN */
+		public double monthlyElectricity(int i) {
+			return s.monthlyValue.get(s.monthlyOffsets.get(row) + i);
+		}
+
+		public int yearlyCount() {
+			return s.yearlyOffsets.get(row + 1) - s.yearlyOffsets.get(row);
+		}
+
+		public int year(int i) {
+			return s.yearlyYear.get(s.yearlyOffsets.get(row) + i);
+		}
+
+		public double yearlyElectricity(int i) {
+			return s.yearlyValue.get(s.yearlyOffsets.get(row) + i);
+		}
+
+		/** 기존 API 응답용 DTO로 복원(할당 발생 — 단건 응답에서만 사용) */
+		public SearchBuilding toDto() {
+			SearchBuilding b = new SearchBuilding();
+			b.setPnu(pnu());
+			b.setBuildingName(buildingName());
+			b.setAddress(address());
+			b.setBuildingType1(buildingType1());
+			b.setBuildingType2(buildingType2());
+			b.setFloorAreaM2(boxed(floorAreaM2()));
+			b.setUsageYear(usageYear() == NO_YEAR ? null : usageYear());
+			b.setElectricityUsageKwh(boxed(electricityUsageKwh()));
+			b.setEnergyIntensityKwhPerM2(boxed(energyIntensityKwhPerM2()));
+			b.setLat(boxed(lat()));
+			b.setLon(boxed(lon()));
+
+			int mc = monthlyCount();
+			if (mc > 0) {
+				List<SearchBuilding.MonthlyConsumption> months = new ArrayList<>(mc);
+				for (int i = 0; i < mc; i++) {
+					SearchBuilding.MonthlyConsumption m = new SearchBuilding.MonthlyConsumption();
+					m.setMonth(month(i) == 0 ? null : month(i));
+					m.setElectricity(boxed(monthlyElectricity(i)));
+					months.add(m);
+				}
+				b.setMonthlyConsumption(months);
+			}
+			int yc = yearlyCount();
+			if (yc > 0) {
+				List<SearchBuilding.YearlyConsumption> years = new ArrayList<>(yc);
+				for (int i = 0; i < yc; i++) {
+					SearchBuilding.YearlyConsumption y = new SearchBuilding.YearlyConsumption();
+					y.setYear(year(i) == 0 ? null : year(i));
+					y.setElectricity(boxed(yearlyElectricity(i)));
+					years.add(y);
+				}
+				b.setYearlyConsumption(years);
+			}
+			return b;
+		}
+
+		private static Double boxed(double v) {
+			return Double.isNaN(v) ? null : v;
+		}
+	}
+
+	/* ===== 내부 ===== */
+
+	private String string(IntBuffer refs, int row) {
+		int len = refs.get(2 * row + 1);
+		if (len < 0) return null;
+		byte[] bytes = new byte[len];
+		text.get(refs.get(2 * row), bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private String type(int code) {
+		return (code < 0) ? null : typeDict[code];
+	}
+
+	/* ===== 빌더 ===== */
+
+	/** 행 단위 적재. beginRow → (monthly/yearly)* → 다음 beginRow 또는 build */
+	public static final class Builder {
+
+		private int size;
+		private long[] pnuKey;
+		private double[] floorArea;
+		private double[] intensity;
+		private double[] electricity;
+		private double[] lat;
+		private double[] lon;
+		private int[] usageYear;
+		private int[] type1;
+		private int[] type2;
+		private int[] nameRefs;
+		private int[] addressRefs;
+		private int[] monthlyOffsets;
+		private int[] yearlyOffsets;
+
+		private byte[] text = new byte[1024];
+		private int textLen;
+
+		private byte[] monthlyMonth = new byte[64];
+		private double[] monthlyValue = new double[64];
+		private int monthlyLen;
+
+		private short[] yearlyYear = new short[64];
+		private double[] yearlyValue = new double[64];
+		private int yearlyLen;
+
+		private final Map<String, Integer> typeCodes = new LinkedHashMap<>();
+		private final Map<Integer, String> irregularByRow = new HashMap<>();
+
+		Builder(int expectedRows) {
+			int cap = Math.max(16, expectedRows);
+			pnuKey = new long[cap];
+			floorArea = new double[cap];
+			intensity = new double[cap];
+			electricity = new double[cap];
+			lat = new double[cap];
+			lon = new double[cap];
+			usageYear = new int[cap];
+			type1 = new int[cap];
+			type2 = new int[cap];
+			nameRefs = new int[cap * 2];
+			addressRefs = new int[cap * 2];
+			monthlyOffsets = new int[cap + 1];
+			yearlyOffsets = new int[cap + 1];
+		}
+
+		/** 다른 저장소의 행 1건 복사(DTO 없이 컬럼 값 그대로) */
+		public Builder addRow(Row row) {
+			beginRow(row.pnu(), row.buildingName(), row.address(), row.buildingType1(), row.buildingType2(),
+					row.floorAreaM2(), row.usageYear(), row.electricityUsageKwh(), row.energyIntensityKwhPerM2());
+			location(row.lat(), row.lon());
+			for (int i = 0, n = row.monthlyCount(); i < n; i++) monthly(row.month(i), row.monthlyElectricity(i));
+			for (int i = 0, n = row.yearlyCount(); i < n; i++) yearly(row.year(i), row.yearlyElectricity(i));
+			return this;
+		}
+
+		/** DTO 1건 적재 */
+		public Builder add(SearchBuilding b) {
+			beginRow(
+					b.getPnu(), b.getBuildingName(), b.getAddress(), b.getBuildingType1(), b.getBuildingType2(),
+					nanIfNull(b.getFloorAreaM2()),
+					(b.getUsageYear() == null) ? NO_YEAR : b.getUsageYear(),
+					nanIfNull(b.getElectricityUsageKwh()),
+					nanIfNull(b.getEnergyIntensityKwhPerM2())
+			);
+			location(nanIfNull(b.getLat()), nanIfNull(b.getLon()));
+			if (b.getMonthlyConsumption() != null) {
+				for (SearchBuilding.MonthlyConsumption m : b.getMonthlyConsumption()) {
+					if (m == null) continue;
+					monthly((m.getMonth() == null) ? 0 : m.getMonth(), nanIfNull(m.getElectricity()));
+				}
+			}
+			if (b.getYearlyConsumption() != null) {
+				for (SearchBuilding.YearlyConsumption y : b.getYearlyConsumption()) {
+					if (y == null) continue;
+					yearly((y.getYear() == null) ? 0 : y.getYear(), nanIfNull(y.getElectricity()));
+				}
+			}
+			return this;
+		}
+
+		/** 새 행 시작(스칼라 컬럼). 없는 값: double → NaN, usageYear → NO_YEAR, 문자열 → null */
+		public Builder beginRow(String pnu, String buildingName, String address, String buildingType1,
+								String buildingType2, double floorAreaM2, int usageYear,
+								double electricityUsageKwh, double energyIntensityKwhPerM2) {
+			ensureRows(size + 1);
+			int r = size++;
+
+			String p = (pnu == null) ? null : pnu.trim();
+			long key = packPnu(p);
+			pnuKey[r] = key;
+			if (key == NO_KEY && p != null && !p.isEmpty()) irregularByRow.put(r, p);
+
+			floorArea[r] = floorAreaM2;
+			this.usageYear[r] = usageYear;
+			electricity[r] = electricityUsageKwh;
+			intensity[r] = energyIntensityKwhPerM2;
+			lat[r] = Double.NaN;
+			lon[r] = Double.NaN;
+			type1[r] = typeCode(buildingType1);
+			type2[r] = typeCode(buildingType2);
+
+			appendText(buildingName, nameRefs, r);
+			appendText(address, addressRefs, r);
+
+			monthlyOffsets[r] = monthlyLen;
+			monthlyOffsets[r + 1] = monthlyLen;
+			yearlyOffsets[r] = yearlyLen;
+			yearlyOffsets[r + 1] = yearlyLen;
+			return this;
+		}
+
+		/** 현재 행 좌표(WGS84). 둘 중 하나라도 없으면 둘 다 NaN */
+		public Builder location(double latitude, double longitude) {
+			requireRow();
+			boolean ok = !Double.isNaN(latitude) && !Double.isNaN(longitude);
+			lat[size - 1] = ok ? latitude : Double.NaN;
+			lon[size - 1] = ok ? longitude : Double.NaN;
+			return this;
+		}
+
+		/** 현재 행에 월별 항목 추가(month 1~12, 없으면 0) */
+		public Builder monthly(int month, double electricity) {
+			requireRow();
+			if (monthlyLen == monthlyValue.length) {
+				monthlyMonth = Arrays.copyOf(monthlyMonth, monthlyLen * 2);
+				monthlyValue = Arrays.copyOf(monthlyValue, monthlyLen * 2);
+			}
+			monthlyMonth[monthlyLen] = (byte) month;
+			monthlyValue[monthlyLen++] = electricity;
+			monthlyOffsets[size] = monthlyLen;
+			return this;
+		}
+
+		/** 현재 행에 연도별 항목 추가(year 없으면 0) */
+		public Builder yearly(int year, double electricity) {
+			requireRow();
+			if (yearlyLen == yearlyValue.length) {
+				yearlyYear = Arrays.copyOf(yearlyYear, yearlyLen * 2);
+				yearlyValue = Arrays.copyOf(yearlyValue, yearlyLen * 2);
+			}
+			yearlyYear[yearlyLen] = (short) year;
+			yearlyValue[yearlyLen++] = electricity;
+			yearlyOffsets[size] = yearlyLen;
+			return this;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public BuildingColumnStore build() {
+			// PNU 정렬 인덱스(중복 키는 먼저 들어온 행만)
+			long[] keys = new long[size];
+			int[] rows = new int[size];
+			int n = 0;
+			int[] idx = new int[size];
+			int m = 0;
+			for (int r = 0; r < size; r++) {
+				if (pnuKey[r] != NO_KEY) idx[m++] = r;
+			}
+			sortRowsByKey(idx, m, pnuKey);
+			for (int i = 0; i < m; i++) {
+				int r = idx[i];
+				if (n > 0 && keys[n - 1] == pnuKey[r]) continue;   // 안정 정렬 → 먼저 들어온 행 유지
+				keys[n] = pnuKey[r];
+				rows[n++] = r;
+			}
+
+			String[] dict = typeCodes.keySet().toArray(new String[0]);
+
+			return new BuildingColumnStore(
+					size,
+					LongBuffer.wrap(Arrays.copyOf(pnuKey, size)).asReadOnlyBuffer(),
+					LongBuffer.wrap(Arrays.copyOf(keys, n)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(rows, n)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(floorArea, size)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(intensity, size)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(electricity, size)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(usageYear, size)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(type1, size)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(type2, size)).asReadOnlyBuffer(),
+					dict,
+					IntBuffer.wrap(Arrays.copyOf(nameRefs, size * 2)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(addressRefs, size * 2)).asReadOnlyBuffer(),
+					ByteBuffer.wrap(Arrays.copyOf(text, textLen)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(monthlyOffsets, size + 1)).asReadOnlyBuffer(),
+					ByteBuffer.wrap(Arrays.copyOf(monthlyMonth, monthlyLen)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(monthlyValue, monthlyLen)).asReadOnlyBuffer(),
+					IntBuffer.wrap(Arrays.copyOf(yearlyOffsets, size + 1)).asReadOnlyBuffer(),
+					ShortBuffer.wrap(Arrays.copyOf(yearlyYear, yearlyLen)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(yearlyValue, yearlyLen)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(lat, size)).asReadOnlyBuffer(),
+					DoubleBuffer.wrap(Arrays.copyOf(lon, size)).asReadOnlyBuffer(),
+					Collections.unmodifiableMap(new HashMap<>(irregularByRow))
+			);
+		}
+
+		/* --- 내부 --- */
+
+		private void requireRow() {
+			if (size == 0) throw new IllegalStateException("beginRow() 먼저 호출");
+		}
+
+		private int typeCode(String type) {
+			if (type == null) return -1;
+			return typeCodes.computeIfAbsent(type, k -> typeCodes.size());
+		}
+
+		// 문자열을 blob에 붙이고 refs[2r] = 시작, refs[2r+1] = 길이(null 이면 -1)
+		private void appendText(String s, int[] refs, int r) {
+			refs[2 * r] = textLen;
+			if (s == null) {
+				refs[2 * r + 1] = -1;
+				return;
+			}
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			if (textLen + bytes.length > text.length) {
+				text = Arrays.copyOf(text, Math.max(text.length * 2, textLen + bytes.length));
+			}
+			System.arraycopy(bytes, 0, text, textLen, bytes.length);
+			textLen += bytes.length;
+			refs[2 * r + 1] = bytes.length;
+		}
+
+		private void ensureRows(int need) {
+			if (need <= pnuKey.length) return;
+			int cap = Math.max(need, pnuKey.length * 2);
+			pnuKey = Arrays.copyOf(pnuKey, cap);
+			floorArea = Arrays.copyOf(floorArea, cap);
+			intensity = Arrays.copyOf(intensity, cap);
+			electricity = Arrays.copyOf(electricity, cap);
+			lat = Arrays.copyOf(lat, cap);
+			lon = Arrays.copyOf(lon, cap);
+			usageYear = Arrays.copyOf(usageYear, cap);
+			type1 = Arrays.copyOf(type1, cap);
+			type2 = Arrays.copyOf(type2, cap);
+			nameRefs = Arrays.copyOf(nameRefs, cap * 2);
+			addressRefs = Arrays.copyOf(addressRefs, cap * 2);
+			monthlyOffsets = Arrays.copyOf(monthlyOffsets, cap + 1);
+			yearlyOffsets = Arrays.copyOf(yearlyOffsets, cap + 1);
+		}
+
+		// idx[0, n) 를 keys[idx[i]] 오름차순으로 안정 정렬(병합 정렬, 박싱 없음)
+		private static void sortRowsByKey(int[] idx, int n, long[] keys) {
+			int[] tmp = new int[n];
+			for (int width = 1; width < n; width <<= 1) {
+				for (int lo = 0; lo < n - width; lo += width << 1) {
+					int mid = lo + width;
+					int hi = Math.min(lo + (width << 1), n);
+					int i = lo, j = mid, k = lo;
+					while (i < mid && j < hi) {
+						tmp[k++] = (keys[idx[j]] < keys[idx[i]]) ? idx[j++] : idx[i++];
+					}
+					while (i < mid) tmp[k++] = idx[i++];
+					while (j < hi) tmp[k++] = idx[j++];
+					System.arraycopy(tmp, lo, idx, lo, hi - lo);
+				}
+			}
+		}
+
+		private static double nanIfNull(Number v) {
+			return (v == null) ? Double.NaN : v.doubleValue();
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package com.example.co2.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+	역할(건물 JSON 스트리밍 적재):
+	- [ {...}, {...}, ... ] 형태의 건물 JSON을 JsonParser 토큰 단위로 읽어 BuildingColumnStore.Builder 에 바로 적재한다.
+	  readValue(List<SearchBuilding>)처럼 전체 목록/DTO를 만들지 않으므로 적재 중 메모리는 "결과 컬럼 + 레코드 1건"뿐.
+
+	필드(SearchBuilding과 같은 이름, ml_dataset.json 별칭 포함):
+	- 문자열 : pnu, buildingName, address, buildingType1, buildingType2
+	- 숫자   : floorAreaM2, usageYear, electricityUsageKwh(energy_kwh), energyIntensityKwhPerM2(eui_kwh_m2y)
+	- 좌표   : lat(latitude), lon(lng, longitude) — 선택, 한쪽만 있으면 없는 것으로 본다
+	- 시계열 : monthlyConsumption[{month, electricity}], yearlyConsumption[{year, electricity}]
+	- 그 외 키는 건너뜀(skipChildren)
+
+	검증(레코드 단위로 건너뛰고 사유별 카운트):
+	- notObject      : 배열 원소가 객체가 아님
+	- badField:<키>  : 타입이 맞지 않는 값(숫자 자리에 객체 등, 숫자로 못 바꾸는 문자열)
+	- negativeArea   : floorAreaM2 < 0
+	- invalidMonth   : month 없음 또는 1~12 밖
+	- JSON 문법 오류는 복구할 수 없으므로 IOException(그때까지의 카운트 포함)
+
+	값 보정(행은 적재, 해당 필드만 없는 것으로 두고 사유별 카운트):
+	- invalidCoordinate : 위도 -90~90 / 경도 -180~180 밖 → lat/lon 모두 NaN(공간 인덱스에서만 빠진다)
+*/
+public final class BuildingJsonStreamReader {
+
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private BuildingJsonStreamReader() {}
+
+	/** 적재 결과: 컬럼 저장소 + 카운터 */
+	public record Result(BuildingColumnStore columns, Stats stats) {}
+
+	/** 레코드 카운터(읽음/적재/사유별 건너뜀/사유별 필드 보정) */
+	public static final class Stats {
+		private long records;
+		private long accepted;
+		private final Map<String, Long> skipped = new LinkedHashMap<>();
+		private final Map<String, Long> cleared = new LinkedHashMap<>();
+
+		void skip(String reason) {
+			skipped.merge(reason, 1L, Long::sum);
+		}
+
+		void clear(String reason) {
+			cleared.merge(reason, 1L, Long::sum);
+		}
+
+		public long records() {
+			return records;
+		}
+
+		public long accepted() {
+			return accepted;
+		}
+
+		public long skippedTotal() {
+			return records - accepted;
+		}
+
+		public Map<String, Long> skipped() {
+			return Collections.unmodifiableMap(skipped);
+		}
+
+		/** 적재는 했지만 필드를 비운 행 수(사유별) */
+		public Map<String, Long> cleared() {
+			return Collections.unmodifiableMap(cleared);
+		}
+
+		@Override
+		public String toString() {
+			return "records=" + records + ", accepted=" + accepted + ", skipped=" + skipped + ", cleared=" + cleared;
+		}
+	}
+
+	/**
+	 * 스트림 → 컬럼 저장소. 스트림은 호출부가 닫는다.
+	 *
+	 * @param expectedRows 예상 행 수(빌더 초기 용량, 모르면 0)
+	 */
+	public static Result read(InputStream in, int expectedRows) throws IOException {
+		BuildingColumnStore.Builder builder = BuildingColumnStore.builder(expectedRows);
+		Stats stats = new Stats();
+		Record rec = new Record();
+
+		try (JsonParser p = FACTORY.createParser(in)) {
+			p.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			if (p.nextToken() != JsonToken.START_ARRAY) {
+				throw new IOException("expected JSON array of buildings");
+			}
+			JsonToken t;
+			while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+				if (t == null) throw new IOException("unexpected end of input (" + stats + ")");
+				stats.records++;
+				if (t != JsonToken.START_OBJECT) {
+					p.skipChildren();
+					stats.skip("notObject");
+					continue;
+				}
+				rec.reset();
+				readRecord(p, rec);
+				String reason = (rec.error != null) ? rec.error : rec.validate();
+				if (reason != null) {
+					stats.skip(reason);
+					continue;
+				}
+				if (rec.clearInvalidCoordinate()) stats.clear("invalidCoordinate");
+				rec.appendTo(builder);
+				stats.accepted++;
+			}
+		} catch (JsonProcessingException e) {
+			throw new IOException("building JSON parse failed (" + stats + ")", e);
+		}
+		return new Result(builder.build(), stats);
+	}
+
+	/* ===== 레코드 1건 ===== */
+
+	// START_OBJECT 다음부터 END_OBJECT 까지 소비(오류가 있어도 끝까지 읽어 스트림 위치를 맞춘다)
+	private static void readRecord(JsonParser p, Record rec) throws IOException {
+		while (p.nextToken() == JsonToken.FIELD_NAME) {
+			String name = p.currentName();
+			JsonToken v = p.nextToken();
+			switch (name) {
+				case "pnu" -> rec.pnu = text(p, v, rec, name);
+				case "buildingName" -> rec.name = text(p, v, rec, name);
+				case "address" -> rec.address = text(p, v, rec, name);
+				case "buildingType1" -> rec.type1 = text(p, v, rec, name);
+				case "buildingType2" -> rec.type2 = text(p, v, rec, name);
+				case "floorAreaM2" -> rec.floorArea = number(p, v, rec, name);
+				case "electricityUsageKwh", "energy_kwh" -> rec.electricity = number(p, v, rec, name);
+				case "energyIntensityKwhPerM2", "eui_kwh_m2y" -> rec.intensity = number(p, v, rec, name);
+				case "lat", "latitude" -> rec.lat = number(p, v, rec, name);
+				case "lon", "lng", "longitude" -> rec.lon = number(p, v, rec, name);
+				case "usageYear" -> {
+					double y = number(p, v, rec, name);
+					rec.usageYear = Double.isNaN(y) ? BuildingColumnStore.NO_YEAR : (int) y;
+				}
+				case "monthlyConsumption" -> series(p, v, rec, name, true);
+				case "yearlyConsumption" -> series(p, v, rec, name, false);
+				default -> p.skipChildren();
+			}
+		}
+	}
+
+	// [{month|year, electricity}, ...] → rec 의 평탄 배열
+	private static void series(JsonParser p, JsonToken v, Record rec, String field, boolean monthly) throws IOException {
+		if (v == JsonToken.VALUE_NULL) return;
+		if (v != JsonToken.START_ARRAY) {
+			p.skipChildren();
+			rec.fail("badField:" + field);
+			return;
+		}
+		JsonToken t;
+		while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+			if (t == JsonToken.VALUE_NULL) continue; // null 원소는 무시(DTO 경로와 동일)
+			if (t != JsonToken.START_OBJECT) {
+				p.skipChildren();
+				rec.fail("badField:" + field);
+				continue;
+			}
+			int key = 0;
+			double electricity = Double.NaN;
+			while (p.nextToken() == JsonToken.FIELD_NAME) {
+				String name = p.currentName();
+				JsonToken x = p.nextToken();
+				switch (name) {
+					case "month", "year" -> {
+						double k = number(p, x, rec, field + "." + name);
+						key = Double.isNaN(k) ? 0 : (int) k;
+					}
+					case "electricity" -> electricity = number(p, x, rec, field + ".electricity");
+					default -> p.skipChildren();
+				}
+			}
+			if (monthly) rec.addMonthly(key, electricity);
+			else rec.addYearly(key, electricity);
+		}
+	}
+
+	private static String text(JsonParser p, JsonToken v, Record rec, String field) throws IOException {
+		if (v == JsonToken.VALUE_NULL) return null;
+		if (v.isScalarValue()) return p.getText();
+		p.skipChildren();
+		rec.fail("badField:" + field);
+		return null;
+	}
+
+	// 숫자(또는 숫자 문자열) → double, null → NaN
+	private static double number(JsonParser p, JsonToken v, Record rec, String field) throws IOException {
+		if (v == JsonToken.VALUE_NULL) return Double.NaN;
+		if (v == JsonToken.VALUE_NUMBER_INT || v == JsonToken.VALUE_NUMBER_FLOAT) return p.getDoubleValue();
+		if (v == JsonToken.VALUE_STRING) {
+			String s = p.getText().trim();
+			if (s.isEmpty()) return Double.NaN;
+			try {
+				double d = Double.parseDouble(s);
+				if (Double.isFinite(d)) return d;
+			} catch (NumberFormatException ignore) {
+				// 아래에서 badField 처리
+			}
+		}
+		p.skipChildren();
+		rec.fail("badField:" + field);
+		return Double.NaN;
+	}
+
+	/** 재사용 레코드 버퍼(레코드마다 reset) */
+	private static final class Record {
+		String pnu, name, address, type1, type2;
+		double floorArea, electricity, intensity, lat, lon;
+		int usageYear;
+		String error;
+
+		int[] monthKeys = new int[16];
+		double[] monthValues = new double[16];
+		int months;
+
+		int[] yearKeys = new int[32];
+		double[] yearValues = new double[32];
+		int years;
+
+		void reset() {
+			pnu = name = address = type1 = type2 = null;
+			floorArea = electricity = intensity = lat = lon = Double.NaN;
+			usageYear = BuildingColumnStore.NO_YEAR;
+			error = null;
+			months = 0;
+			years = 0;
+		}
+
+		void fail(String reason) {
+			if (error == null) error = reason;
+		}
+
+		void addMonthly(int month, double value) {
+			if (months == monthKeys.length) {
+				monthKeys = Arrays.copyOf(monthKeys, months * 2);
+				monthValues = Arrays.copyOf(monthValues, months * 2);
+			}
+			monthKeys[months] = month;
+			monthValues[months++] = value;
+		}
+
+		void addYearly(int year, double value) {
+			if (years == yearKeys.length) {
+				yearKeys = Arrays.copyOf(yearKeys, years * 2);
+				yearValues = Arrays.copyOf(yearValues, years * 2);
+			}
+			yearKeys[years] = year;
+			yearValues[years++] = value;
+		}
+
+		String validate() {
+			if (floorArea < 0) return "negativeArea";
+			for (int i = 0; i < months; i++) {
+				if (monthKeys[i] < 1 || monthKeys[i] > 12) return "invalidMonth";
+			}
+			return null;
+		}
+
+		// 좌표는 선택 필드 → 범위 밖이면 좌표만 없는 것으로(NaN 은 비교가 거짓이라 그대로)
+		boolean clearInvalidCoordinate() {
+			if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+				lat = lon = Double.NaN;
+				return true;
+			}
+			return false;
+		}
+
+		void appendTo(BuildingColumnStore.Builder b) {
+			b.beginRow(pnu, name, address, type1, type2, floorArea, usageYear, electricity, intensity);
+			b.location(lat, lon);
+			for (int i = 0; i < months; i++) b.monthly(monthKeys[i], monthValues[i]);
+			for (int i = 0; i < years; i++) b.yearly(yearKeys[i], yearValues[i]);
+		}
+	}
+}
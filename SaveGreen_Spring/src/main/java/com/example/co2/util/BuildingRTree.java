@@ -0,0 +1,262 @@
+package com.example.co2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+	역할(건물 좌표 공간 인덱스, 불변):
+	- BuildingColumnStore 의 lat/lon 이 있는 행을 STR(Sort-Tile-Recursive)로 묶은 정적 R-tree.
+	  지도 이동마다 원격 호출 대신 메모리에서 "화면 영역 안 건물", "가까운 건물 k개"를 찾는다.
+
+	구조(배열만 사용, 노드 객체 없음):
+	- 점    : 경도로 정렬 → √(잎 수)개 세로 띠로 자르고 띠마다 위도 정렬 → NODE_SIZE개씩 잎 노드
+	- 상위  : 아래 레벨 노드를 STR 순서 그대로 NODE_SIZE개씩 묶어 박스만 계산(루트 1개가 될 때까지)
+	- 노드 i(레벨 l)의 자식 = 레벨 l-1 의 [i*NODE_SIZE, (i+1)*NODE_SIZE)  /  레벨 0 이면 점 구간
+
+	거리:
+	- 질의점 위도 기준 등장방형 근사(m). 지도 화면·수 km 범위에서는 하버사인과 차이가 무시할 수준이고,
+	  노드 박스 최소 거리와 같은 척도라 best-first 탐색 순서가 정확하다.
+	- 날짜변경선(경도 ±180) 넘는 영역은 고려하지 않는다(국내 데이터).
+*/
+public final class BuildingRTree {
+
+	public static final int NODE_SIZE = 16;
+
+	private static final double EARTH_RADIUS_M = 6_371_008.8;
+
+	public static final BuildingRTree EMPTY = build(new int[0], new double[0], new double[0]);
+
+	/** 근접 검색 결과(행 번호 + 거리 m) */
+	public record Neighbor(int row, double distanceM) {}
+
+	// 점(STR 순서)
+	private final int[] rows;
+	private final double[] lat;
+	private final double[] lon;
+
+	// 레벨별 노드 박스(0 = 잎)
+	private final double[][] minLat;
+	private final double[][] minLon;
+	private final double[][] maxLat;
+	private final double[][] maxLon;
+
+	private BuildingRTree(int[] rows, double[] lat, double[] lon,
+						  double[][] minLat, double[][] minLon, double[][] maxLat, double[][] maxLon) {
+		this.rows = rows;
+		this.lat = lat;
+		this.lon = lon;
+		this.minLat = minLat;
+		this.minLon = minLon;
+		this.maxLat = maxLat;
+		this.maxLon = maxLon;
+	}
+
+	/** 컬럼 저장소 중 좌표가 있는 행만 색인 */
+	public static BuildingRTree of(BuildingColumnStore columns) {
+		int n = columns.size();
+		int[] r = new int[n];
+		double[] la = new double[n];
+		double[] lo = new double[n];
+		int m = 0;
+		if (n > 0) {
+			BuildingColumnStore.Row v = columns.row(0);
+			for (int i = 0; i < n; i++) {
+				v.moveTo(i);
+				if (!v.hasLocation()) continue;
+				r[m] = i;
+				la[m] = v.lat();
+				lo[m++] = v.lon();
+			}
+		}
+		return build(Arrays.copyOf(r, m), Arrays.copyOf(la, m), Arrays.copyOf(lo, m));
+	}
+
+	/** (행, 위도, 경도) 배열로 생성. 입력 배열은 복사하지 않고 재배열한다 */
+	public static BuildingRTree build(int[] rows, double[] lat, double[] lon) {
+		int n = rows.length;
+		strSort(rows, lat, lon, n);
+
+		List<double[]> mnLa = new ArrayList<>(), mnLo = new ArrayList<>(), mxLa = new ArrayList<>(), mxLo = new ArrayList<>();
+		// 레벨 0: 점 → 잎 박스
+		int count = ceilDiv(n, NODE_SIZE);
+		double[][] level = boxes(count);
+		for (int i = 0; i < count; i++) {
+			for (int p = i * NODE_SIZE, end = Math.min(p + NODE_SIZE, n); p < end; p++) {
+				extend(level, i, lat[p], lon[p], lat[p], lon[p]);
+			}
+		}
+		mnLa.add(level[0]); mnLo.add(level[1]); mxLa.add(level[2]); mxLo.add(level[3]);
+		// 상위 레벨
+		while (count > 1) {
+			int parents = ceilDiv(count, NODE_SIZE);
+			double[][] up = boxes(parents);
+			for (int i = 0; i < parents; i++) {
+				for (int c = i * NODE_SIZE, end = Math.min(c + NODE_SIZE, count); c < end; c++) {
+					extend(up, i, level[0][c], level[1][c], level[2][c], level[3][c]);
+				}
+			}
+			mnLa.add(up[0]); mnLo.add(up[1]); mxLa.add(up[2]); mxLo.add(up[3]);
+			level = up;
+			count = parents;
+		}
+		return new BuildingRTree(rows, lat, lon,
+				mnLa.toArray(new double[0][]), mnLo.toArray(new double[0][]),
+				mxLa.toArray(new double[0][]), mxLo.toArray(new double[0][]));
+	}
+
+	public int size() {
+		return rows.length;
+	}
+
+	/**
+	 * 영역 안 행 번호(경계 포함). limit 을 넘으면 거기서 멈춘다.
+	 */
+	public int[] within(double south, double west, double north, double east, int limit) {
+		if (rows.length == 0 || limit <= 0 || south > north || west > east) return new int[0];
+		int[] out = new int[Math.min(limit, 64)];
+		int found = 0;
+		int top = minLat.length - 1;
+		// (레벨, 노드) 스택
+		int[] stackLevel = new int[64];
+		int[] stackNode = new int[64];
+		int sp = 0;
+		stackLevel[sp] = top;
+		stackNode[sp++] = 0;
+		while (sp > 0) {
+			int l = stackLevel[--sp];
+			int node = stackNode[sp];
+			if (minLat[l][node] > north || maxLat[l][node] < south || minLon[l][node] > east || maxLon[l][node] < west) continue;
+			if (l == 0) {
+				for (int p = node * NODE_SIZE, end = Math.min(p + NODE_SIZE, rows.length); p < end; p++) {
+					if (lat[p] < south || lat[p] > north || lon[p] < west || lon[p] > east) continue;
+					if (found == out.length) out = Arrays.copyOf(out, Math.min(limit, out.length * 2));
+					out[found++] = rows[p];
+					if (found >= limit) return out;
+				}
+				continue;
+			}
+			int children = minLat[l - 1].length;
+			for (int c = node * NODE_SIZE, end = Math.min(c + NODE_SIZE, children); c < end; c++) {
+				if (sp == stackLevel.length) {
+					stackLevel = Arrays.copyOf(stackLevel, sp * 2);
+					stackNode = Arrays.copyOf(stackNode, sp * 2);
+				}
+				stackLevel[sp] = l - 1;
+				stackNode[sp++] = c;
+			}
+		}
+		return Arrays.copyOf(out, found);
+	}
+
+	/**
+	 * (lat, lon) 에서 가까운 순 최대 k개(maxDistanceM 이내, 0 이하면 제한 없음).
+	 */
+	public List<Neighbor> nearest(double qLat, double qLon, int k, double maxDistanceM) {
+		if (rows.length == 0 || k <= 0) return List.of();
+		double limit = (maxDistanceM > 0) ? maxDistanceM : Double.POSITIVE_INFINITY;
+		double cos = Math.cos(Math.toRadians(qLat));
+
+		// 원소: {거리, 레벨(-1 = 점), 인덱스}
+		PriorityQueue<double[]> pq = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+		int top = minLat.length - 1;
+		pq.add(new double[]{boxDistance(top, 0, qLat, qLon, cos), top, 0});
+		List<Neighbor> out = new ArrayList<>(Math.min(k, 64));
+		while (!pq.isEmpty() && out.size() < k) {
+			double[] e = pq.poll();
+			if (e[0] > limit) break;
+			int l = (int) e[1];
+			int idx = (int) e[2];
+			if (l < 0) {
+				out.add(new Neighbor(rows[idx], e[0]));
+				continue;
+			}
+			if (l == 0) {
+				for (int p = idx * NODE_SIZE, end = Math.min(p + NODE_SIZE, rows.length); p < end; p++) {
+					double d = distance(qLat, qLon, lat[p], lon[p], cos);
+					if (d <= limit) pq.add(new double[]{d, -1, p});
+				}
+				continue;
+			}
+			int children = minLat[l - 1].length;
+			for (int c = idx * NODE_SIZE, end = Math.min(c + NODE_SIZE, children); c < end; c++) {
+				double d = boxDistance(l - 1, c, qLat, qLon, cos);
+				if (d <= limit) pq.add(new double[]{d, l - 1, c});
+			}
+		}
+		return out;
+	}
+
+	/* ===== 내부 ===== */
+
+	private double boxDistance(int l, int node, double qLat, double qLon, double cos) {
+		double la = Math.max(minLat[l][node], Math.min(qLat, maxLat[l][node]));
+		double lo = Math.max(minLon[l][node], Math.min(qLon, maxLon[l][node]));
+		return distance(qLat, qLon, la, lo, cos);
+	}
+
+	// 등장방형 근사(m) — cos 는 질의점 위도 기준으로 고정
+	private static double distance(double lat1, double lon1, double lat2, double lon2, double cos) {
+		double dy = Math.toRadians(lat2 - lat1);
+		double dx = Math.toRadians(lon2 - lon1) * cos;
+		return EARTH_RADIUS_M * Math.sqrt(dx * dx + dy * dy);
+	}
+
+	// STR: 경도 정렬 → 띠(slice)별 위도 정렬
+	private static void strSort(int[] rows, double[] lat, double[] lon, int n) {
+		if (n <= NODE_SIZE) {
+			sortRange(rows, lat, lon, 0, n, false);
+			return;
+		}
+		int leaves = ceilDiv(n, NODE_SIZE);
+		int slices = (int) Math.ceil(Math.sqrt(leaves));
+		int perSlice = slices * NODE_SIZE;
+		sortRange(rows, lat, lon, 0, n, true);
+		for (int from = 0; from < n; from += perSlice) {
+			sortRange(rows, lat, lon, from, Math.min(from + perSlice, n), false);
+		}
+	}
+
+	// [from, to) 를 경도(byLon) 또는 위도 기준으로 정렬(세 배열 함께 이동)
+	private static void sortRange(int[] rows, double[] lat, double[] lon, int from, int to, boolean byLon) {
+		int len = to - from;
+		if (len < 2) return;
+		double[] key = byLon ? lon : lat;
+		Integer[] order = new Integer[len];
+		for (int i = 0; i < len; i++) order[i] = from + i;
+		Arrays.sort(order, (a, b) -> Double.compare(key[a], key[b]));
+		int[] r = new int[len];
+		double[] la = new double[len];
+		double[] lo = new double[len];
+		for (int i = 0; i < len; i++) {
+			int o = order[i];
+			r[i] = rows[o];
+			la[i] = lat[o];
+			lo[i] = lon[o];
+		}
+		System.arraycopy(r, 0, rows, from, len);
+		System.arraycopy(la, 0, lat, from, len);
+		System.arraycopy(lo, 0, lon, from, len);
+	}
+
+	private static double[][] boxes(int count) {
+		double[][] b = new double[4][count];
+		Arrays.fill(b[0], Double.POSITIVE_INFINITY);
+		Arrays.fill(b[1], Double.POSITIVE_INFINITY);
+		Arrays.fill(b[2], Double.NEGATIVE_INFINITY);
+		Arrays.fill(b[3], Double.NEGATIVE_INFINITY);
+		return b;
+	}
+
+	private static void extend(double[][] b, int i, double mnLa, double mnLo, double mxLa, double mxLo) {
+		if (mnLa < b[0][i]) b[0][i] = mnLa;
+		if (mnLo < b[1][i]) b[1][i] = mnLo;
+		if (mxLa > b[2][i]) b[2][i] = mxLa;
+		if (mxLo > b[3][i]) b[3][i] = mxLo;
+	}
+
+	private static int ceilDiv(int a, int b) {
+		return (a + b - 1) / b;
+	}
+}
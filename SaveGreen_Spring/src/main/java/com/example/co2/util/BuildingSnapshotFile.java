@@ -0,0 +1,355 @@
+package com.example.co2.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/*
+	역할(건물 데이터셋 바이너리 스냅샷):
+	- 여러 BuildingColumnStore를 파일 1개로 저장하고, 기동 시 FileChannel.map 으로 열어 컬럼을 "그 자리에서" 읽는다.
+	  → JSON 파싱 없이 파일 매핑만으로 기동, 같은 호스트의 여러 JVM이 OS 페이지 캐시를 공유.
+
+	파일 구조(빅엔디언, 버전 5 — v2에서 lat/lon 컬럼 추가, v3에서 비정형 PNU를 행마다 기록, v4에서 원본 지문 추가,
+	          v5에서 원본 수정 시각 추가):
+	- 헤더 32B : magic "SGBS" | version(int) | datasetCount(int) | reserved(int) | bodyLength(long) | crc32(long, 본문 전체)
+	- 디렉터리 : 데이터셋별 [id | size | typeDict | 비정형 PNU (원문, 행)* | 원본(위치, 바이트 수, 수정 시각, SHA-256)
+	             | 컬럼 20개 (offset, length)]
+	- 데이터   : 컬럼 바이트(8바이트 정렬, offset은 파일 기준 절대 위치)
+
+	주의:
+	- 단일 매핑이므로 파일은 2GB 미만.
+	- 쓰기는 임시 파일에 기록 후 원자적 이동 → 읽는 쪽이 반쯤 쓴 파일을 보지 않는다.
+	- 형식이 바뀌면 VERSION을 올린다. 버전/magic/CRC가 맞지 않으면 open()이 예외 → 호출부가 JSON으로 폴백.
+	- CRC는 파일 손상만 잡는다. 원본 JSON이 바뀐 뒤 다시 만들지 않은 스냅샷은 데이터셋별 원본 지문(Source)으로
+	  호출부가 가려낸다(지문이 다르면 그 데이터셋만 JSON).
+*/
+public final class BuildingSnapshotFile {
+
+	public static final int MAGIC = 0x53474253; // "SGBS"
+	public static final int VERSION = 5;
+
+	private static final int HEADER_BYTES = 32;
+	private static final int COLUMN_COUNT = 20;
+	private static final ByteOrder ORDER = ByteOrder.BIG_ENDIAN;
+
+	private BuildingSnapshotFile() {}
+
+	/**
+	 * 스냅샷을 만든 원본 JSON의 지문.
+	 * location 은 기록용(클래스패스/외부 경로), 같은 내용인지는 size + sha256 으로만 판단한다.
+	 * modifiedMillis 는 외부 파일의 수정 시각(클래스패스 등 알 수 없으면 -1) — 읽는 쪽이 해시 생략 여부를 정할 때만 쓴다.
+	 */
+	public record Source(String location, long size, long modifiedMillis, String sha256) {
+
+		/** 지문 없음(알 수 없는 원본 — 어떤 원본과도 일치하지 않음) */
+		public static final Source UNKNOWN = new Source("", -1, -1, "");
+
+		/** in 을 끝까지 읽어 바이트 수 + SHA-256 (스트림은 호출부가 닫는다) */
+		public static Source of(String location, long modifiedMillis, InputStream in) throws IOException {
+			MessageDigest md;
+			try {
+				md = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-256 not supported", e);
+			}
+			byte[] buf = new byte[64 * 1024];
+			long size = 0;
+			int n;
+			while ((n = in.read(buf)) != -1) {
+				md.update(buf, 0, n);
+				size += n;
+			}
+			return new Source(location, size, modifiedMillis, HashUtils.toHex(md.digest()));
+		}
+
+		public boolean sameContent(Source other) {
+			return other != null && size >= 0 && size == other.size && sha256.equals(other.sha256);
+		}
+	}
+
+	/** open() 결과: id → 저장소, id → 원본 지문(순서 = 파일 순서) */
+	public record Contents(Map<String, BuildingColumnStore> datasets, Map<String, Source> sources) {}
+
+	/* ===== 쓰기 ===== */
+
+	/**
+	 * datasets(id → 저장소, 순서 유지)를 out 에 기록(임시 파일 → 원자적 교체).
+	 * sources 에 없는 데이터셋은 Source.UNKNOWN 으로 기록 → 읽는 쪽 원본 확인에서 항상 불일치.
+	 */
+	public static void write(Path out, Map<String, BuildingColumnStore> datasets, Map<String, Source> sources)
+			throws IOException {
+		// 1) 디렉터리(가변 길이 메타) 직렬화 — 컬럼 offset 자리는 나중에 채운다
+		List<byte[]> metas = new ArrayList<>();
+		List<Buffer[]> columns = new ArrayList<>();
+		long dirBytes = 0;
+		for (Map.Entry<String, BuildingColumnStore> e : datasets.entrySet()) {
+			byte[] meta = encodeMeta(e.getKey(), e.getValue(), sources.getOrDefault(e.getKey(), Source.UNKNOWN));
+			metas.add(meta);
+			columns.add(columnsOf(e.getValue()));
+			dirBytes += meta.length + (long) COLUMN_COUNT * 16;
+		}
+
+		// 2) 컬럼 배치(8바이트 정렬, 절대 offset)
+		long pos = align8(HEADER_BYTES + dirBytes);
+		List<long[]> layouts = new ArrayList<>();
+		for (Buffer[] cols : columns) {
+			long[] layout = new long[COLUMN_COUNT * 2];
+			for (int c = 0; c < COLUMN_COUNT; c++) {
+				long len = byteLength(cols[c]);
+				layout[2 * c] = pos;
+				layout[2 * c + 1] = len;
+				pos = align8(pos + len);
+			}
+			layouts.add(layout);
+		}
+		final long fileLength = pos;
+		if (fileLength > Integer.MAX_VALUE) {
+			throw new IOException("snapshot too large for format v" + VERSION + ": " + fileLength + " bytes");
+		}
+
+		Path dir = out.toAbsolutePath().getParent();
+		if (dir != null) Files.createDirectories(dir);
+		Path tmp = Files.createTempFile(dir, out.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				CRC32 crc = new CRC32();
+				ch.position(HEADER_BYTES);
+
+				// 3) 디렉터리
+				for (int i = 0; i < metas.size(); i++) {
+					writeBody(ch, crc, ByteBuffer.wrap(metas.get(i)));
+					ByteBuffer layout = ByteBuffer.allocate(COLUMN_COUNT * 16).order(ORDER);
+					for (long v : layouts.get(i)) layout.putLong(v);
+					writeBody(ch, crc, layout.flip());
+				}
+
+				// 4) 컬럼 데이터(정렬 패딩 포함)
+				for (int i = 0; i < columns.size(); i++) {
+					long[] layout = layouts.get(i);
+					Buffer[] cols = columns.get(i);
+					for (int c = 0; c < COLUMN_COUNT; c++) {
+						pad(ch, crc, layout[2 * c]);
+						writeBody(ch, crc, bytesOf(cols[c]));
+					}
+				}
+				pad(ch, crc, fileLength);
+
+				// 5) 헤더(CRC 확정 후)
+				ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+				header.putInt(MAGIC).putInt(VERSION).putInt(datasets.size()).putInt(0)
+						.putLong(fileLength - HEADER_BYTES).putLong(crc.getValue());
+				header.flip();
+				ch.position(0);
+				while (header.hasRemaining()) ch.write(header);
+				ch.force(true);
+			}
+			Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/* ===== 읽기(매핑) ===== */
+
+	/**
+	 * 스냅샷 매핑 → id → 저장소(컬럼은 매핑 버퍼의 읽기 전용 슬라이스) + 원본 지문.
+	 *
+	 * @param verifyChecksum true 면 본문 CRC32 확인(파일 전체를 한 번 순차로 읽음)
+	 * @throws IOException 파일 없음/magic·버전·길이·CRC 불일치
+	 */
+	public static Contents open(Path file, boolean verifyChecksum) throws IOException {
+		MappedByteBuffer map;
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+				throw new IOException("invalid snapshot size: " + size);
+			}
+			map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size); // 채널을 닫아도 매핑은 유지된다
+		}
+		map.order(ORDER);
+
+		if (map.getInt(0) != MAGIC) throw new IOException("not a building snapshot: " + file);
+		int version = map.getInt(4);
+		if (version != VERSION) throw new IOException("unsupported snapshot version " + version + " (expected " + VERSION + ")");
+		int datasetCount = map.getInt(8);
+		long bodyLength = map.getLong(16);
+		long expectedCrc = map.getLong(24);
+		if (HEADER_BYTES + bodyLength != map.capacity()) {
+			throw new IOException("truncated snapshot: body " + bodyLength + " / file " + map.capacity());
+		}
+		if (verifyChecksum) {
+			CRC32 crc = new CRC32();
+			crc.update(map.slice(HEADER_BYTES, (int) bodyLength));
+			if (crc.getValue() != expectedCrc) throw new IOException("snapshot checksum mismatch: " + file);
+		}
+
+		ByteBuffer dir = map.duplicate().order(ORDER).position(HEADER_BYTES);
+		Map<String, BuildingColumnStore> out = new LinkedHashMap<>();
+		Map<String, Source> sources = new LinkedHashMap<>();
+		for (int d = 0; d < datasetCount; d++) {
+			String id = getString(dir);
+			int size = dir.getInt();
+			String[] dict = new String[dir.getInt()];
+			for (int i = 0; i < dict.length; i++) dict[i] = getString(dir);
+			int irregular = dir.getInt();
+			Map<Integer, String> irregularByRow = new HashMap<>(Math.max(4, irregular * 2));
+			for (int i = 0; i < irregular; i++) {
+				String pnu = getString(dir);
+				irregularByRow.put(dir.getInt(), pnu);
+			}
+			String location = getString(dir);
+			long sourceSize = dir.getLong();
+			long sourceModified = dir.getLong();
+			sources.put(id, new Source(location, sourceSize, sourceModified, getString(dir)));
+
+			ByteBuffer[] cols = new ByteBuffer[COLUMN_COUNT];
+			for (int c = 0; c < COLUMN_COUNT; c++) {
+				long off = dir.getLong();
+				long len = dir.getLong();
+				if (off < HEADER_BYTES || off + len > map.capacity()) {
+					throw new IOException("column out of range: dataset " + id + ", column " + c);
+				}
+				cols[c] = map.slice((int) off, (int) len).order(ORDER);
+			}
+
+			out.put(id, new BuildingColumnStore(
+					size,
+					cols[0].asLongBuffer().asReadOnlyBuffer(),
+					cols[1].asLongBuffer().asReadOnlyBuffer(),
+					cols[2].asIntBuffer().asReadOnlyBuffer(),
+					cols[3].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[4].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[5].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[6].asIntBuffer().asReadOnlyBuffer(),
+					cols[7].asIntBuffer().asReadOnlyBuffer(),
+					cols[8].asIntBuffer().asReadOnlyBuffer(),
+					dict,
+					cols[9].asIntBuffer().asReadOnlyBuffer(),
+					cols[10].asIntBuffer().asReadOnlyBuffer(),
+					cols[11].asReadOnlyBuffer(),
+					cols[12].asIntBuffer().asReadOnlyBuffer(),
+					cols[13].asReadOnlyBuffer(),
+					cols[14].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[15].asIntBuffer().asReadOnlyBuffer(),
+					cols[16].asShortBuffer().asReadOnlyBuffer(),
+					cols[17].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[18].asDoubleBuffer().asReadOnlyBuffer(),
+					cols[19].asDoubleBuffer().asReadOnlyBuffer(),
+					Collections.unmodifiableMap(irregularByRow)
+			));
+		}
+		return new Contents(Collections.unmodifiableMap(out), Collections.unmodifiableMap(sources));
+	}
+
+	/* ===== 내부 ===== */
+
+	// BuildingColumnStore 생성자와 같은 순서(open() 의 cols[0..19])
+	private static Buffer[] columnsOf(BuildingColumnStore s) {
+		return new Buffer[]{
+				s.pnuKey, s.sortedKeys, s.sortedRows,
+				s.floorArea, s.intensity, s.electricity,
+				s.usageYear, s.type1, s.type2,
+				s.nameRefs, s.addressRefs, s.text,
+				s.monthlyOffsets, s.monthlyMonth, s.monthlyValue,
+				s.yearlyOffsets, s.yearlyYear, s.yearlyValue,
+				s.lat, s.lon
+		};
+	}
+
+	private static byte[] encodeMeta(String id, BuildingColumnStore s, Source source) {
+		ByteBuffer buf = ByteBuffer.allocate(256).order(ORDER);
+		buf = putString(buf, id);
+		buf = ensure(buf, 8);
+		buf.putInt(s.size).putInt(s.typeDict.length);
+		for (String t : s.typeDict) buf = putString(buf, t);
+		buf = ensure(buf, 4);
+		buf.putInt(s.irregularByRow.size());
+		for (Map.Entry<Integer, String> e : s.irregularByRow.entrySet()) {
+			buf = putString(buf, e.getValue());
+			buf = ensure(buf, 4);
+			buf.putInt(e.getKey());
+		}
+		buf = putString(buf, source.location());
+		buf = ensure(buf, 16);
+		buf.putLong(source.size()).putLong(source.modifiedMillis());
+		buf = putString(buf, source.sha256());
+		byte[] out = new byte[buf.position()];
+		buf.flip().get(out);
+		return out;
+	}
+
+	private static ByteBuffer putString(ByteBuffer buf, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		buf = ensure(buf, 4 + bytes.length);
+		return buf.putInt(bytes.length).put(bytes);
+	}
+
+	private static String getString(ByteBuffer buf) {
+		byte[] bytes = new byte[buf.getInt()];
+		buf.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer ensure(ByteBuffer buf, int extra) {
+		if (buf.remaining() >= extra) return buf;
+		ByteBuffer next = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + extra)).order(ORDER);
+		return next.put(buf.flip());
+	}
+
+	private static long byteLength(Buffer b) {
+		if (b instanceof ByteBuffer) return b.capacity();
+		if (b instanceof ShortBuffer) return (long) b.capacity() * Short.BYTES;
+		if (b instanceof IntBuffer) return (long) b.capacity() * Integer.BYTES;
+		if (b instanceof LongBuffer) return (long) b.capacity() * Long.BYTES;
+		if (b instanceof DoubleBuffer) return (long) b.capacity() * Double.BYTES;
+		throw new IllegalArgumentException("unsupported column buffer: " + b.getClass());
+	}
+
+	// 타입 버퍼 → 빅엔디언 바이트(원본 위치는 건드리지 않음)
+	private static ByteBuffer bytesOf(Buffer b) {
+		ByteBuffer out = ByteBuffer.allocate((int) byteLength(b)).order(ORDER);
+		if (b instanceof ByteBuffer x) out.put(x.duplicate().clear());
+		else if (b instanceof ShortBuffer x) out.asShortBuffer().put(x.duplicate().clear());
+		else if (b instanceof IntBuffer x) out.asIntBuffer().put(x.duplicate().clear());
+		else if (b instanceof LongBuffer x) out.asLongBuffer().put(x.duplicate().clear());
+		else if (b instanceof DoubleBuffer x) out.asDoubleBuffer().put(x.duplicate().clear());
+		return out.clear();
+	}
+
+	private static void writeBody(FileChannel ch, CRC32 crc, ByteBuffer buf) throws IOException {
+		crc.update(buf.duplicate());
+		while (buf.hasRemaining()) ch.write(buf);
+	}
+
+	// 현재 위치 → target 까지 0 채움(CRC 포함)
+	private static void pad(FileChannel ch, CRC32 crc, long target) throws IOException {
+		long gap = target - ch.position();
+		if (gap > 0) writeBody(ch, crc, ByteBuffer.allocate((int) gap));
+	}
+
+	private static long align8(long v) {
+		return (v + 7) & ~7L;
+	}
+}
@@ -0,0 +1,307 @@
+package com.example.co2.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/*
+	역할(지역 × 용도 × 준공 연대 원단위 통계 큐브, 불변):
+	- "대전에서 2000년 이전에 지은 공장 대비 내 건물" 같은 비교를 데이터셋 스캔 없이 답한다.
+	- 적재 시 1회, 행마다 롤업 조합 12칸(지역 3단계 × 용도 2 × 연대 2)에 누적 → 조회는 해시 1회.
+
+	차원:
+	- 지역   : PNU 앞자리 — 전체("*") / 시도(2자리) / 시군구(5자리)
+	- 용도   : buildingType2(trim) — 전체("*") / 값
+	- 연대   : usageYear 의 10년 단위(1990 = 1990~1999) — 전체(ALL_DECADES) / 값
+	  (PNU·용도·연도가 없는 행은 해당 차원의 "전체" 칸에만 들어간다)
+
+	칸(Cell):
+	- energyIntensityKwhPerM2 의 count / sum / min / max + 로그 버킷 분위수 스케치(상대오차 1%)
+	- 연대 구간(예: 2000년 이전) 조회는 연대 칸 몇 개를 병합 — 연대 수만큼의 상수 시간.
+*/
+public final class EnergyStatsCube {
+
+	/** 차원 "전체" */
+	public static final String ALL = "*";
+	/** 연대 "전체" */
+	public static final int ALL_DECADES = Integer.MIN_VALUE;
+
+	public static final EnergyStatsCube EMPTY = of(BuildingColumnStore.builder(0).build());
+
+	private final Map<String, Cell> cells;
+	private final Map<String, String> regionNames;   // 지역 코드 → 주소 앞 어절(최초 등장)
+	private final List<String> sidos;
+	private final List<String> sigungus;
+	private final List<String> types;
+	private final List<Integer> decades;
+
+	private EnergyStatsCube(Map<String, Cell> cells, Map<String, String> regionNames,
+							List<String> sidos, List<String> sigungus, List<String> types, List<Integer> decades) {
+		this.cells = cells;
+		this.regionNames = regionNames;
+		this.sidos = sidos;
+		this.sigungus = sigungus;
+		this.types = types;
+		this.decades = decades;
+	}
+
+	/** 컬럼 저장소 → 큐브(원단위 없는 행은 제외) */
+	public static EnergyStatsCube of(BuildingColumnStore columns) {
+		Map<String, Cell> cells = new HashMap<>();
+		Map<String, String> names = new HashMap<>();
+		TreeSet<String> sidos = new TreeSet<>(), sigungus = new TreeSet<>(), types = new TreeSet<>();
+		TreeSet<Integer> decades = new TreeSet<>();
+
+		String[] regions = new String[3];
+		String[] typeKeys = new String[2];
+		int[] decadeKeys = new int[2];
+		int n = columns.size();
+		BuildingColumnStore.Row v = (n > 0) ? columns.row(0) : null;
+		for (int r = 0; r < n; r++) {
+			v.moveTo(r);
+			double eui = v.energyIntensityKwhPerM2();
+			if (Double.isNaN(eui)) continue;
+
+			int rc = 0;
+			regions[rc++] = ALL;
+			String pnu = v.pnu();
+			if (pnu != null && pnu.length() >= 5 && isDigits(pnu, 5)) {
+				String sido = pnu.substring(0, 2), sgg = pnu.substring(0, 5);
+				regions[rc++] = sido;
+				regions[rc++] = sgg;
+				sidos.add(sido);
+				sigungus.add(sgg);
+				String[] tokens = (v.address() == null) ? new String[0] : v.address().trim().split("\\s+");
+				if (tokens.length > 0) names.putIfAbsent(sido, tokens[0]);
+				if (tokens.length > 1) names.putIfAbsent(sgg, tokens[0] + " " + tokens[1]);
+			}
+			int tc = 0;
+			typeKeys[tc++] = ALL;
+			String t = v.buildingType2();
+			if (t != null && !t.isBlank()) {
+				typeKeys[tc++] = t.trim();
+				types.add(t.trim());
+			}
+			int dc = 0;
+			decadeKeys[dc++] = ALL_DECADES;
+			if (v.usageYear() != BuildingColumnStore.NO_YEAR) {
+				decadeKeys[dc++] = Math.floorDiv(v.usageYear(), 10) * 10;
+				decades.add(decadeKeys[1]);
+			}
+
+			for (int a = 0; a < rc; a++) {
+				for (int b = 0; b < tc; b++) {
+					for (int c = 0; c < dc; c++) {
+						cells.computeIfAbsent(key(regions[a], typeKeys[b], decadeKeys[c]), k -> new Cell()).add(eui);
+					}
+				}
+			}
+		}
+		return new EnergyStatsCube(cells, names,
+				List.copyOf(sidos), List.copyOf(sigungus), List.copyOf(types), List.copyOf(decades));
+	}
+
+	/**
+	 * 칸 1개(해시 조회). region: "*" | 시도 2자리 | 시군구 5자리, type2: "*" | 용도, decade: ALL_DECADES | 연대.
+	 * 데이터가 없으면 null.
+	 */
+	public Cell cell(String region, String type2, int decade) {
+		return cells.get(key(norm(region), norm(type2), decade));
+	}
+
+	/** 연대 구간 [decadeFrom, decadeTo](양끝 포함, 10년 단위) 병합. 둘 다 ALL_DECADES면 cell() 과 같다 */
+	public Cell range(String region, String type2, int decadeFrom, int decadeTo) {
+		if (decadeFrom == ALL_DECADES && decadeTo == ALL_DECADES) return cell(region, type2, ALL_DECADES);
+		int from = (decadeFrom == ALL_DECADES) ? Integer.MIN_VALUE + 10 : decadeFrom;
+		int to = (decadeTo == ALL_DECADES) ? Integer.MAX_VALUE : decadeTo;
+		Cell merged = null;
+		for (int d : decades) {
+			if (d < from || d > to) continue;
+			Cell c = cell(region, type2, d);
+			if (c == null) continue;
+			if (merged == null) merged = new Cell();
+			merged.merge(c);
+		}
+		return merged;
+	}
+
+	/** 지역 코드 → 주소 앞 어절("대전광역시", "대전광역시 대덕구"), 모르면 null */
+	public String regionName(String region) {
+		return ALL.equals(norm(region)) ? ALL : regionNames.get(region);
+	}
+
+	public List<String> sidos() {
+		return sidos;
+	}
+
+	public List<String> sigungus() {
+		return sigungus;
+	}
+
+	public List<String> types() {
+		return types;
+	}
+
+	public List<Integer> decades() {
+		return decades;
+	}
+
+	public int cellCount() {
+		return cells.size();
+	}
+
+	private static String key(String region, String type2, int decade) {
+		return region + '|' + type2 + '|' + decade;
+	}
+
+	private static String norm(String s) {
+		return (s == null || s.isBlank()) ? ALL : s.trim();
+	}
+
+	private static boolean isDigits(String s, int len) {
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9') return false;
+		}
+		return true;
+	}
+
+	/* ===== 칸 ===== */
+
+	/** count / sum / min / max + 로그 버킷 분위수 스케치. 빌드 후에는 읽기만 한다 */
+	public static final class Cell {
+
+		// 상대오차 α = 1% → γ = (1+α)/(1-α), 버킷 i = ceil(log_γ v) 는 (γ^(i-1), γ^i]
+		private static final double ALPHA = 0.01;
+		private static final double GAMMA = (1 + ALPHA) / (1 - ALPHA);
+		private static final double LOG_GAMMA = Math.log(GAMMA);
+
+		private long count;
+		private double sum;
+		private double min = Double.POSITIVE_INFINITY;
+		private double max = Double.NEGATIVE_INFINITY;
+
+		private long nonPositive;          // v <= 0
+		private int offset;                // buckets[0] 의 버킷 번호
+		private long[] buckets = new long[0];
+
+		void add(double v) {
+			count++;
+			sum += v;
+			if (v < min) min = v;
+			if (v > max) max = v;
+			if (v <= 0) {
+				nonPositive++;
+				return;
+			}
+			int i = (int) Math.ceil(Math.log(v) / LOG_GAMMA);
+			grow(i, i);
+			buckets[i - offset]++;
+		}
+
+		void merge(Cell o) {
+			count += o.count;
+			sum += o.sum;
+			min = Math.min(min, o.min);
+			max = Math.max(max, o.max);
+			nonPositive += o.nonPositive;
+			if (o.buckets.length == 0) return;
+			grow(o.offset, o.offset + o.buckets.length - 1);
+			for (int j = 0; j < o.buckets.length; j++) buckets[o.offset + j - offset] += o.buckets[j];
+		}
+
+		public long count() {
+			return count;
+		}
+
+		public double sum() {
+			return sum;
+		}
+
+		public double min() {
+			return min;
+		}
+
+		public double max() {
+			return max;
+		}
+
+		public double avg() {
+			return sum / count;
+		}
+
+		/** q 분위수(0~1) 근사값(상대오차 1%, [min, max] 로 제한) */
+		public double quantile(double q) {
+			if (count == 0) return Double.NaN;
+			long target = (long) Math.floor(Math.max(0, Math.min(1, q)) * (count - 1));
+			long seen = nonPositive;
+			if (target < seen) return min;
+			for (int j = 0; j < buckets.length; j++) {
+				seen += buckets[j];
+				if (target < seen) {
+					double v = 2 * Math.pow(GAMMA, offset + j) / (GAMMA + 1);
+					return Math.max(min, Math.min(max, v));
+				}
+			}
+			return max;
+		}
+
+		/** value 이하 비율(0~1) 근사 — value 가 든 버킷은 전부 포함 */
+		public double rank(double value) {
+			if (count == 0 || Double.isNaN(value)) return Double.NaN;
+			if (value < min) return 0;
+			if (value >= max) return 1;
+			long le = nonPositive;
+			if (value > 0) {
+				int i = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+				for (int j = 0; j < buckets.length && offset + j <= i; j++) le += buckets[j];
+			}
+			return (double) le / count;
+		}
+
+		// 버킷 범위를 [lo, hi] 까지 넓힌다
+		private void grow(int lo, int hi) {
+			if (buckets.length == 0) {
+				offset = lo;
+				buckets = new long[hi - lo + 1];
+				return;
+			}
+			int curHi = offset + buckets.length - 1;
+			int newLo = Math.min(lo, offset);
+			int newHi = Math.max(hi, curHi);
+			if (newLo == offset && newHi == curHi) return;
+			long[] next = new long[newHi - newLo + 1];
+			System.arraycopy(buckets, 0, next, offset - newLo, buckets.length);
+			buckets = next;
+			offset = newLo;
+		}
+	}
+
+	/** 롤업 결과 한 줄(차원 값 + 칸) */
+	public record Group(String key, Cell cell) {}
+
+	/**
+	 * by 차원("sido" | "sigungu" | "category" | "decade")의 값마다 나머지 조건으로 자른 칸 목록(데이터 있는 것만).
+	 */
+	public List<Group> rollup(String by, String region, String type2, int decadeFrom, int decadeTo) {
+		Map<String, Cell> out = new LinkedHashMap<>();
+		switch (by == null ? "" : by) {
+			case "sido" -> sidos.forEach(s -> put(out, s, range(s, type2, decadeFrom, decadeTo)));
+			case "sigungu" -> sigungus.stream()
+					.filter(s -> ALL.equals(norm(region)) || s.startsWith(norm(region)))
+					.forEach(s -> put(out, s, range(s, type2, decadeFrom, decadeTo)));
+			case "category" -> types.forEach(t -> put(out, t, range(region, t, decadeFrom, decadeTo)));
+			case "decade" -> decades.stream()
+					.filter(d -> (decadeFrom == ALL_DECADES || d >= decadeFrom) && (decadeTo == ALL_DECADES || d <= decadeTo))
+					.forEach(d -> put(out, String.valueOf(d), cell(region, type2, d)));
+			default -> throw new IllegalArgumentException("unknown rollup dimension: " + by);
+		}
+		return out.entrySet().stream().map(e -> new Group(e.getKey(), e.getValue())).toList();
+	}
+
+	private static void put(Map<String, Cell> out, String key, Cell cell) {
+		if (cell != null) out.put(key, cell);
+	}
+}
@@ -0,0 +1,207 @@
+package com.example.co2.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+	역할(예측 캐시 키 정규화):
+	- ForecastService 요청 파라미터를 "정규형"으로 바꿔 cache_key_hash를 만든다.
+	- 같은 의미의 요청(923 / 923.0 / 923.00001, " 공장 " / "공장" 등)이 같은 키가 되도록 하여 HIT율을 올린다.
+
+	키 구성(Field.affectsCompute):
+	- 해시 대상은 computeStub 결과를 실제로 바꾸는 필드만: 연도 구간(from/to), 면적(양자화)
+	- 나머지(건물 식별/용도/준공연도/시나리오)는 현재 computeStub 출력에 영향이 없으므로
+	  cache_key_raw(디버그용)에만 기록. computeStub이 이 값을 쓰기 시작하면 affectsCompute를 true로 바꾸고 VERSION을 올린다.
+
+	정규화 규칙:
+	1) area  : app.cache.key.area-precision 단위로 반올림(기본 1㎡). null/0 이하 → na
+	2) use   : TypeRegionNormalizer.coreTypeOf (factory/hospital/school/office)
+	3) 건물  : pnu 우선, 없으면 buildingId → "pnu:..." / "id:..." / "none" 하나의 지문으로 합침
+	4) builtYear <= 0 → na, scenario 공백 → default
+
+	해시(KeyHasher):
+	- 해시 대상 필드를 태그+바이너리로 스레드 전용 버퍼에 기록 → 조회(HIT) 경로에서 String을 만들지 않는다.
+	- 정규화 문자열(use/건물 지문 등)과 cache_key_raw는 raw() 호출 시(MISS 저장 시)에만 만든다.
+	- 알고리즘은 app.cache.key.hash(sha256 | murmur3). 알고리즘 id가 해시 입력에 포함되어 모드 간 키가 섞이지 않는다.
+*/
+public final class ForecastCacheKey {
+
+	/** 키 포맷 버전(정규화/대상 필드/인코딩이 바뀌면 올린다 → 이전 행은 자연 만료) */
+	public static final String VERSION = "v3";
+
+	/** cache_key_raw 컬럼 길이 */
+	private static final int RAW_MAX = 512;
+
+	/** 키 필드와 computeStub 영향 여부 */
+	public enum Field {
+		RANGE(true),
+		AREA(true),
+		BUILDING(false),
+		USE(false),
+		BUILT_YEAR(false),
+		SCENARIO(false);
+
+		private final boolean affectsCompute;
+
+		Field(final boolean affectsCompute) {
+			this.affectsCompute = affectsCompute;
+		}
+
+		public boolean affectsCompute() {
+			return affectsCompute;
+		}
+	}
+
+	private final int from;
+	private final int to;
+	private final Double area;       // 양자화된 면적(없으면 null) — computeStub에도 이 값을 사용
+	private final double precision;
+	private final Long buildingId;
+	private final String pnu;
+	private final String use;        // 원본 입력(정규화는 지연)
+	private final Integer builtYear;
+	private final String scenario;   // 원본 입력(정규화는 지연)
+	private final KeyHasher.Algorithm algorithm;
+	private final String hash;
+
+	private ForecastCacheKey(final int from, final int to, final Double area, final double precision,
+							 final Long buildingId, final String pnu, final String use,
+							 final Integer builtYear, final String scenario, final KeyHasher.Algorithm algorithm) {
+		this.from = from;
+		this.to = to;
+		this.area = area;
+		this.precision = precision;
+		this.buildingId = buildingId;
+		this.pnu = pnu;
+		this.use = use;
+		this.builtYear = builtYear;
+		this.scenario = scenario;
+		this.algorithm = (algorithm == null) ? KeyHasher.Algorithm.SHA256 : algorithm;
+		this.hash = computeHash();
+	}
+
+	/**
+	 * 정규 키 생성(SHA-256). from/to는 ForecastService.normalizeRange 이후 값이어야 한다.
+	 *
+	 * @param areaPrecision 면적 양자화 단위(㎡). 0 이하이면 양자화하지 않음
+	 */
+	public static ForecastCacheKey of(final Long buildingId, final int from, final int to, final String scenario,
+									  final Integer builtYear, final String use, final Double floorArea,
+									  final String pnu, final double areaPrecision) {
+		return of(buildingId, from, to, scenario, builtYear, use, floorArea, pnu, areaPrecision, KeyHasher.Algorithm.SHA256);
+	}
+
+	/** 정규 키 생성(해시 알고리즘 지정 — app.cache.key.hash) */
+	public static ForecastCacheKey of(final Long buildingId, final int from, final int to, final String scenario,
+									  final Integer builtYear, final String use, final Double floorArea,
+									  final String pnu, final double areaPrecision, final KeyHasher.Algorithm algorithm) {
+		return new ForecastCacheKey(
+				from, to, quantize(floorArea, areaPrecision), areaPrecision,
+				buildingId, pnu, use, builtYear, scenario, algorithm
+		);
+	}
+
+	/** cache_key_hash (SHA-256 → 64자 hex, MURMUR3_128 → 32자 hex) */
+	public String hash() {
+		return hash;
+	}
+
+	/** 양자화된 면적(㎡). 없으면 null */
+	public Double area() {
+		return area;
+	}
+
+	/** cache_key_raw: 해시 대상 + '#' 뒤에 참고용 컨텍스트(해시 비대상). 호출 시마다 새로 만든다 */
+	public String raw() {
+		final StringBuilder sb = new StringBuilder(128).append(VERSION).append('/').append(algorithm.id());
+		for (final Field f : Field.values()) {
+			if (f.affectsCompute()) appendText(sb.append('|'), f);
+		}
+		char sep = '#';
+		for (final Field f : Field.values()) {
+			if (f.affectsCompute()) continue;
+			appendText(sb.append(sep), f);
+			sep = ';';
+		}
+		return sb.length() <= RAW_MAX ? sb.toString() : sb.substring(0, RAW_MAX);
+	}
+
+	/* ===== 내부 구현 ===== */
+
+	// 해시 입력: VERSION + (Field.affectsCompute == true 인 필드만) 태그/값 바이너리
+	private String computeHash() {
+		final KeyHasher h = KeyHasher.begin(algorithm).putString(VERSION);
+		for (final Field f : Field.values()) {
+			if (!f.affectsCompute()) continue;
+			h.putByte((byte) f.ordinal());
+			switch (f) {
+				case RANGE -> h.putInt(from).putInt(to);
+				case AREA -> {
+					h.putBoolean(area != null);
+					if (area != null) h.putDouble(area);
+				}
+				case BUILDING -> h.putString(fingerprint(buildingId, pnu));
+				case USE -> h.putString(normalizedUse());
+				case BUILT_YEAR -> h.putInt((builtYear == null || builtYear <= 0) ? 0 : builtYear);
+				case SCENARIO -> h.putString(normalizedScenario());
+			}
+		}
+		return h.hex();
+	}
+
+	private void appendText(final StringBuilder sb, final Field f) {
+		switch (f) {
+			case RANGE -> sb.append("from=").append(from).append("|to=").append(to);
+			case AREA -> sb.append("area=").append((area == null) ? "na" : plain(area, precision));
+			case BUILDING -> sb.append("bld=").append(fingerprint(buildingId, pnu));
+			case USE -> sb.append("use=").append(normalizedUse());
+			case BUILT_YEAR -> sb.append("builtYear=").append((builtYear == null || builtYear <= 0) ? "na" : builtYear);
+			case SCENARIO -> sb.append("scenario=").append(normalizedScenario());
+		}
+	}
+
+	private String normalizedUse() {
+		return orNa(TypeRegionNormalizer.coreTypeOf(use));
+	}
+
+	private String normalizedScenario() {
+		return (scenario == null || scenario.isBlank()) ? "default" : scenario.trim();
+	}
+
+	// 양자화: BigDecimal/문자열 없이 double 연산만 — 단위 반올림 후 단위의 소수 자릿수로 다시 반올림(0.1 단위 → 923.4000000000001 잔차 제거)
+	// 반환은 area 필드(없으면 null)에 맞춘 boxed Double 1개
+	private static Double quantize(final Double floorArea, final double precision) {
+		if (floorArea == null || !Double.isFinite(floorArea) || floorArea <= 0) return null;
+		if (precision <= 0) return floorArea;
+		final double q = Math.round(floorArea / precision) * precision;
+		final double scale = Math.pow(10, scaleOf(precision));
+		return Math.round(q * scale) / scale;
+	}
+
+	// 단위의 소수 자릿수(최대 9) — 1.0 → 0, 0.5 → 1, 0.01 → 2
+	private static int scaleOf(final double precision) {
+		int s = 0;
+		double p = precision;
+		while (s < 9 && Math.abs(p - Math.rint(p)) > 1e-9 * Math.max(1.0, Math.abs(p))) {
+			p *= 10;
+			s++;
+		}
+		return s;
+	}
+
+	private static String plain(final double v, final double precision) {
+		BigDecimal d = BigDecimal.valueOf(v);
+		if (precision > 0) d = d.setScale(scaleOf(precision), RoundingMode.HALF_UP);
+		return d.stripTrailingZeros().toPlainString();
+	}
+
+	private static String fingerprint(final Long buildingId, final String pnu) {
+		if (pnu != null && !pnu.isBlank()) return "pnu:" + pnu.trim();
+		if (buildingId != null) return "id:" + buildingId;
+		return "none";
+	}
+
+	private static String orNa(final String s) {
+		return (s == null || s.isEmpty()) ? "na" : s;
+	}
+}
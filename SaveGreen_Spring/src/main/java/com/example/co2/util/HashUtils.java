@@ -2,22 +2,134 @@ package com.example.co2.util;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class HashUtils {
     private HashUtils() {}
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // MessageDigest는 스레드 안전하지 않으므로 스레드별 1개를 재사용(getInstance 반복 호출 제거)
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(HashUtils::newSha256);
+
     public static String sha256Hex(String input){
+        return toHex(sha256(input.getBytes(StandardCharsets.UTF_8), 0, -1));
+    }
+
+    /** buf[off, off+len) 의 SHA-256 (len < 0 이면 끝까지) */
+    public static byte[] sha256(byte[] buf, int off, int len) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        md.update(buf, off, (len < 0) ? buf.length - off : len);
+        return md.digest();
+    }
+
+    /** 소문자 hex (조회 테이블) */
+    public static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xff;
+            out[j++] = HEX[v >>> 4];
+            out[j++] = HEX[v & 0x0f];
+        }
+        return new String(out);
+    }
+
+    /** 두 long(128bit)을 32자 hex로 (h1 상위 → h2 하위) */
+    public static String toHex(long h1, long h2) {
+        char[] out = new char[32];
+        for (int i = 0; i < 16; i++) {
+            out[i]      = HEX[(int) (h1 >>> (60 - 4 * i)) & 0x0f];
+            out[16 + i] = HEX[(int) (h2 >>> (60 - 4 * i)) & 0x0f];
+        }
+        return new String(out);
+    }
+
+    /**
+     * MurmurHash3 x64 128bit (비암호 해시, 캐시 키 전용).
+     * 반환: {h1, h2}
+     */
+    @SuppressWarnings("fallthrough") // 꼬리 switch는 원 구현대로 의도적 fall-through
+    public static long[] murmur3x64_128(byte[] data, int off, int len, long seed) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = seed;
+        long h2 = seed;
+
+        final int nblocks = len >>> 4;
+        for (int i = 0; i < nblocks; i++) {
+            int p = off + (i << 4);
+            long k1 = getLongLE(data, p);
+            long k2 = getLongLE(data, p + 8);
+
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // tail
+        long k1 = 0;
+        long k2 = 0;
+        int tail = off + (nblocks << 4);
+        switch (len & 15) {
+            case 15: k2 ^= ((long) data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= ((long) data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= ((long) data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= ((long) data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= ((long) data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= ((long) data[tail + 9] & 0xff) << 8;
+            case 9:  k2 ^= ((long) data[tail + 8] & 0xff);
+                     k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            case 8:  k1 ^= ((long) data[tail + 7] & 0xff) << 56;
+            case 7:  k1 ^= ((long) data[tail + 6] & 0xff) << 48;
+            case 6:  k1 ^= ((long) data[tail + 5] & 0xff) << 40;
+            case 5:  k1 ^= ((long) data[tail + 4] & 0xff) << 32;
+            case 4:  k1 ^= ((long) data[tail + 3] & 0xff) << 24;
+            case 3:  k1 ^= ((long) data[tail + 2] & 0xff) << 16;
+            case 2:  k1 ^= ((long) data[tail + 1] & 0xff) << 8;
+            case 1:  k1 ^= ((long) data[tail] & 0xff);
+                     k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            default: break;
+        }
+
+        // finalization
+        h1 ^= len;
+        h2 ^= len;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long getLongLE(byte[] b, int p) {
+        return ((long) b[p] & 0xff)
+                | ((long) b[p + 1] & 0xff) << 8
+                | ((long) b[p + 2] & 0xff) << 16
+                | ((long) b[p + 3] & 0xff) << 24
+                | ((long) b[p + 4] & 0xff) << 32
+                | ((long) b[p + 5] & 0xff) << 40
+                | ((long) b[p + 6] & 0xff) << 48
+                | ((long) b[p + 7] & 0xff) << 56;
+    }
+
+    private static MessageDigest newSha256() {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(hash.length * 2);
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) sb.append('0');
-                sb.append(hex);
-            }
-            return sb.toString();
-        } catch (Exception e) {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("SHA-256 not supported", e);
         }
     }
@@ -0,0 +1,172 @@
+package com.example.co2.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+	역할(저차원 특징 벡터 k-최근접 탐색, 불변):
+	- 점 n개(차원 dim, double)를 균형 KD-tree로 묶어 가중 유클리드 거리 k-NN을 찾는다.
+	  (전체 스캔 O(n) → 평균 O(log n + k), 차원 10 이하에서 효과적)
+
+	구조(배열만 사용):
+	- 점 순서 배열 idx 를 재귀적으로 "분산이 가장 큰 차원"의 중앙값으로 나눈다(quickselect).
+	  구간 [lo, hi) 의 노드 = mid = (lo+hi)/2 위치의 점, splitDim[mid] = 나눈 차원.
+	- 값은 points[row*dim + d] 평탄 배열.
+
+	거리:
+	- Σ w[d]·(q[d]-p[d])² (가중치는 질의마다 — 0이면 그 차원 무시). 분할면까지 거리도 같은 가중치로 계산해 가지치기.
+*/
+public final class KdTree {
+
+	/** 탐색 결과(행 번호 + 가중 거리) */
+	public record Neighbor(int row, double distance) {}
+
+	private final int dim;
+	private final double[] points;     // row*dim + d
+	private final int[] rows;          // 점 i → 호출부 행 번호
+	private final int[] idx;           // 트리 순서
+	private final byte[] splitDim;     // 트리 위치별 분할 차원
+
+	private KdTree(int dim, double[] points, int[] rows, int[] idx, byte[] splitDim) {
+		this.dim = dim;
+		this.points = points;
+		this.rows = rows;
+		this.idx = idx;
+		this.splitDim = splitDim;
+	}
+
+	/**
+	 * @param dim    차원(1~127)
+	 * @param points 점 i 의 좌표 = points[i*dim .. i*dim+dim) (NaN 없이 채워서 전달)
+	 * @param rows   점 i 의 행 번호
+	 */
+	public static KdTree build(int dim, double[] points, int[] rows) {
+		if (dim < 1 || dim > 127) throw new IllegalArgumentException("dim " + dim);
+		int n = rows.length;
+		if (points.length != (long) n * dim) throw new IllegalArgumentException("points length " + points.length + " != " + n + "*" + dim);
+		int[] idx = new int[n];
+		for (int i = 0; i < n; i++) idx[i] = i;
+		byte[] split = new byte[n];
+		build(dim, points, idx, split, 0, n);
+		return new KdTree(dim, points, rows, idx, split);
+	}
+
+	public int size() {
+		return rows.length;
+	}
+
+	public int dim() {
+		return dim;
+	}
+
+	/**
+	 * q 에서 가까운 순 최대 k개.
+	 *
+	 * @param weights 차원별 가중치(길이 dim, 0이면 무시)
+	 * @param exclude 결과에서 뺄 행 번호(없으면 -1) — 기준 건물 자신
+	 */
+	public List<Neighbor> nearest(double[] q, double[] weights, int k, int exclude) {
+		if (rows.length == 0 || k <= 0) return List.of();
+		// 최대 힙(가장 먼 후보가 head): {거리, 점}
+		PriorityQueue<double[]> heap = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b[0], a[0]));
+		search(q, weights, k, exclude, 0, rows.length, heap);
+		List<Neighbor> out = new ArrayList<>(heap.size());
+		for (double[] e : heap) out.add(new Neighbor(rows[(int) e[1]], e[0]));
+		out.sort((a, b) -> a.distance() != b.distance() ? Double.compare(a.distance(), b.distance()) : Integer.compare(a.row(), b.row()));
+		return Collections.unmodifiableList(out);
+	}
+
+	/* ===== 내부 ===== */
+
+	private void search(double[] q, double[] w, int k, int exclude, int lo, int hi, PriorityQueue<double[]> heap) {
+		if (lo >= hi) return;
+		int mid = (lo + hi) >>> 1;
+		int p = idx[mid];
+		if (rows[p] != exclude) {
+			double d = distance(q, w, p);
+			if (heap.size() < k) heap.add(new double[]{d, p});
+			else if (d < heap.peek()[0]) {
+				heap.poll();
+				heap.add(new double[]{d, p});
+			}
+		}
+		if (hi - lo == 1) return;
+
+		int sd = splitDim[mid];
+		double diff = q[sd] - points[p * dim + sd];
+		boolean left = diff < 0;
+		// 가까운 쪽 먼저, 먼 쪽은 분할면 거리로 가지치기
+		if (left) search(q, w, k, exclude, lo, mid, heap);
+		else search(q, w, k, exclude, mid + 1, hi, heap);
+		double plane = w[sd] * diff * diff;
+		if (heap.size() < k || plane < heap.peek()[0]) {
+			if (left) search(q, w, k, exclude, mid + 1, hi, heap);
+			else search(q, w, k, exclude, lo, mid, heap);
+		}
+	}
+
+	private double distance(double[] q, double[] w, int p) {
+		double s = 0;
+		int base = p * dim;
+		for (int d = 0; d < dim; d++) {
+			double x = q[d] - points[base + d];
+			s += w[d] * x * x;
+		}
+		return s;
+	}
+
+	// [lo, hi) 를 분산 최대 차원의 중앙값으로 나눠 재귀
+	private static void build(int dim, double[] pts, int[] idx, byte[] split, int lo, int hi) {
+		if (hi - lo <= 1) return;
+		int sd = widestDim(dim, pts, idx, lo, hi);
+		int mid = (lo + hi) >>> 1;
+		select(dim, pts, idx, lo, hi - 1, mid, sd);
+		split[mid] = (byte) sd;
+		build(dim, pts, idx, split, lo, mid);
+		build(dim, pts, idx, split, mid + 1, hi);
+	}
+
+	private static int widestDim(int dim, double[] pts, int[] idx, int lo, int hi) {
+		int best = 0;
+		double bestVar = -1;
+		int n = hi - lo;
+		for (int d = 0; d < dim; d++) {
+			double mean = 0, m2 = 0;
+			for (int i = lo; i < hi; i++) mean += pts[idx[i] * dim + d];
+			mean /= n;
+			for (int i = lo; i < hi; i++) {
+				double x = pts[idx[i] * dim + d] - mean;
+				m2 += x * x;
+			}
+			if (m2 > bestVar) {
+				bestVar = m2;
+				best = d;
+			}
+		}
+		return best;
+	}
+
+	// quickselect: idx[k] 가 차원 d 기준 k번째가 되도록(왼쪽 ≤, 오른쪽 ≥)
+	private static void select(int dim, double[] pts, int[] idx, int lo, int hi, int k, int d) {
+		while (hi > lo) {
+			double pivot = pts[idx[(lo + hi) >>> 1] * dim + d];
+			int i = lo, j = hi;
+			while (i <= j) {
+				while (pts[idx[i] * dim + d] < pivot) i++;
+				while (pts[idx[j] * dim + d] > pivot) j--;
+				if (i <= j) {
+					int t = idx[i];
+					idx[i] = idx[j];
+					idx[j] = t;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) hi = j;
+			else if (k >= i) lo = i;
+			else return;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.co2.util;
+
+import java.util.Locale;
+
+/*
+	역할(캐시 키 해시 버퍼):
+	- 키 필드를 스레드 전용 byte 버퍼에 직접 기록하고 해시한다(문자열 연결/중간 String 없음).
+	- 필드는 1바이트 태그 + 값으로 기록, 문자열은 길이 접두 → "a|b" 와 "a" + "|b" 같은 경계 모호성이 없다.
+	- 다이제스트는 HashUtils(스레드별 MessageDigest 재사용 + hex 테이블).
+
+	사용:
+		String h = KeyHasher.begin(KeyHasher.Algorithm.SHA256)
+				.putString("v3").putInt(from).putInt(to).putDouble(area)
+				.hex();
+
+	주의:
+	- begin() ~ hex() 사이에 같은 스레드에서 다시 begin()을 호출하면 버퍼가 초기화된다(중첩 사용 금지).
+*/
+public final class KeyHasher {
+
+	/** 해시 알고리즘(app.cache.key.hash) */
+	public enum Algorithm {
+		SHA256("sha256"),        // 64자 hex
+		MURMUR3_128("murmur3");  // 32자 hex, 비암호(캐시 키 전용)
+
+		private final String id;
+
+		Algorithm(final String id) {
+			this.id = id;
+		}
+
+		public String id() {
+			return id;
+		}
+
+		/** 설정값 → 알고리즘 (모르는 값은 SHA256) */
+		public static Algorithm of(final String id) {
+			if (id == null) return SHA256;
+			return switch (id.trim().toLowerCase(Locale.ROOT)) {
+				case "murmur3", "murmur3_128", "murmur3-128" -> MURMUR3_128;
+				default -> SHA256;
+			};
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 128;
+	private static final long MURMUR_SEED = 0L;
+
+	private static final ThreadLocal<KeyHasher> LOCAL = ThreadLocal.withInitial(KeyHasher::new);
+
+	private byte[] buf = new byte[INITIAL_CAPACITY];
+	private int len;
+	private Algorithm algorithm = Algorithm.SHA256;
+
+	private KeyHasher() {}
+
+	/** 현재 스레드의 버퍼를 비우고 시작. 알고리즘 id를 먼저 기록해 모드 간 키가 섞이지 않게 한다 */
+	public static KeyHasher begin(final Algorithm algorithm) {
+		final KeyHasher h = LOCAL.get();
+		h.len = 0;
+		h.algorithm = (algorithm == null) ? Algorithm.SHA256 : algorithm;
+		return h.putByte((byte) h.algorithm.ordinal());
+	}
+
+	public KeyHasher putByte(final byte v) {
+		ensure(1);
+		buf[len++] = v;
+		return this;
+	}
+
+	public KeyHasher putBoolean(final boolean v) {
+		return putByte(v ? (byte) 1 : (byte) 0);
+	}
+
+	public KeyHasher putInt(final int v) {
+		ensure(4);
+		buf[len++] = (byte) (v >>> 24);
+		buf[len++] = (byte) (v >>> 16);
+		buf[len++] = (byte) (v >>> 8);
+		buf[len++] = (byte) v;
+		return this;
+	}
+
+	public KeyHasher putLong(final long v) {
+		ensure(8);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			buf[len++] = (byte) (v >>> shift);
+		}
+		return this;
+	}
+
+	/** -0.0 은 0.0 으로, NaN은 하나의 비트 패턴으로 정규화 */
+	public KeyHasher putDouble(final double v) {
+		return putLong(Double.doubleToLongBits(v == 0.0d ? 0.0d : v));
+	}
+
+	/** 문자열: 길이(UTF-8 바이트 수가 아닌 char 수) + UTF-8 바이트. null은 -1 */
+	public KeyHasher putString(final CharSequence s) {
+		if (s == null) return putInt(-1);
+		final int n = s.length();
+		putInt(n);
+		ensure(n * 3);
+		for (int i = 0; i < n; i++) {
+			final char c = s.charAt(i);
+			if (c < 0x80) {
+				buf[len++] = (byte) c;
+			} else if (c < 0x800) {
+				buf[len++] = (byte) (0xc0 | (c >>> 6));
+				buf[len++] = (byte) (0x80 | (c & 0x3f));
+			} else {
+				// 서로게이트도 char 단위로 3바이트 기록(해시 입력 전용이므로 엄밀한 UTF-8일 필요 없음)
+				buf[len++] = (byte) (0xe0 | (c >>> 12));
+				buf[len++] = (byte) (0x80 | ((c >>> 6) & 0x3f));
+				buf[len++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+		return this;
+	}
+
+	/** 기록된 바이트의 해시 hex. SHA256 → 64자, MURMUR3_128 → 32자 */
+	public String hex() {
+		if (algorithm == Algorithm.MURMUR3_128) {
+			final long[] h = HashUtils.murmur3x64_128(buf, 0, len, MURMUR_SEED);
+			return HashUtils.toHex(h[0], h[1]);
+		}
+		return HashUtils.toHex(HashUtils.sha256(buf, 0, len));
+	}
+
+	/** 현재까지 기록된 바이트 수(디버그/테스트용) */
+	public int size() {
+		return len;
+	}
+
+	private void ensure(final int extra) {
+		final int need = len + extra;
+		if (need <= buf.length) return;
+		int cap = buf.length << 1;
+		while (cap < need) cap <<= 1;
+		final byte[] next = new byte[cap];
+		System.arraycopy(buf, 0, next, 0, len);
+		buf = next;
+	}
+}
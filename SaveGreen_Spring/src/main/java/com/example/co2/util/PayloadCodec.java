@@ -0,0 +1,120 @@
+package com.example.co2.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/*
+	역할(api_cache payload 저장 포맷):
+	- api_cache.payload_codec 값에 대응하는 인코딩/디코딩 규칙.
+	- 서비스/컨트롤러는 항상 "JSON 문자열"만 다루고, 저장 포맷은 이 enum이 책임진다.
+
+	포맷:
+	- json          : payload_json(JSON 컬럼)에 그대로 저장 (기존 행, 기본값)
+	- json+deflate  : payload_bin 에 UTF-8 JSON을 Deflate 압축
+	- smile+deflate : payload_bin 에 Jackson Smile(바이너리 JSON)을 Deflate 압축
+
+	포인트:
+	1) JSON ↔ Smile 변환은 토큰 스트리밍 복사(copyCurrentStructure) → 트리/DTO 생성 없음
+	2) 바이너리 포맷은 MySQL JSON 검증(CAST AS JSON)을 거치지 않음
+	3) 알 수 없는 codec 값은 json으로 취급(기존 행 호환)
+*/
+public enum PayloadCodec {
+
+	JSON("json", false, false),
+	JSON_DEFLATE("json+deflate", false, true),
+	SMILE_DEFLATE("smile+deflate", true, true);
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+
+	private final String id;
+	private final boolean smile;
+	private final boolean deflate;
+
+	PayloadCodec(final String id, final boolean smile, final boolean deflate) {
+		this.id = id;
+		this.smile = smile;
+		this.deflate = deflate;
+	}
+
+	/** DB(payload_codec)에 기록되는 값 */
+	public String id() {
+		return id;
+	}
+
+	/** payload_bin 사용 여부(json이면 payload_json 사용) */
+	public boolean binary() {
+		return this != JSON;
+	}
+
+	/** DB 값 → codec (null/미지정/알 수 없음 → JSON) */
+	public static PayloadCodec of(final String id) {
+		if (id == null || id.isBlank()) return JSON;
+		final String s = id.trim().toLowerCase();
+		for (final PayloadCodec c : values()) {
+			if (c.id.equals(s)) return c;
+		}
+		return JSON;
+	}
+
+	/** JSON 문자열 → payload_bin 바이트 (JSON 코덱이면 null) */
+	public byte[] encode(final String json) {
+		if (!binary() || json == null) return null;
+		try {
+			final ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, json.length() / 2));
+			try (OutputStream out = deflate ? new DeflaterOutputStream(bos, new Deflater(Deflater.BEST_SPEED)) : bos) {
+				if (smile) {
+					try (JsonParser p = JSON_FACTORY.createParser(json);
+						 JsonGenerator g = SMILE_FACTORY.createGenerator(out)) {
+						p.nextToken();
+						g.copyCurrentStructure(p);
+					}
+				} else {
+					out.write(json.getBytes(StandardCharsets.UTF_8));
+				}
+			}
+			return bos.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException("payload encode failed: " + id, e);
+		}
+	}
+
+	/** payload_bin 바이트 → JSON 문자열 */
+	public String decode(final byte[] bin) {
+		if (bin == null) return null;
+		try (InputStream in = deflate ? new InflaterInputStream(new ByteArrayInputStream(bin)) : new ByteArrayInputStream(bin)) {
+			if (smile) {
+				final StringWriter sw = new StringWriter(bin.length * 3);
+				try (JsonParser p = SMILE_FACTORY.createParser(in);
+					 JsonGenerator g = JSON_FACTORY.createGenerator(sw)) {
+					p.nextToken();
+					g.copyCurrentStructure(p);
+				}
+				return sw.toString();
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new IllegalStateException("payload decode failed: " + id, e);
+		}
+	}
+
+	/** api_cache 행 컬럼(payload_codec/payload_json/payload_bin) → JSON 문자열 */
+	public static String readJson(final String codecId, final String payloadJson, final byte[] payloadBin) {
+		final PayloadCodec c = of(codecId);
+		if (!c.binary() || payloadBin == null) return payloadJson;
+		return c.decode(payloadBin);
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.co2.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/*
+	역할(닫힌 구간 [min, max] → 정책 1건, 불변):
+	- tax_policy / zeb_policy 처럼 작은 구간 테이블을 메모리에 올려 "x 를 포함하는 정책"을 이진 탐색 1회로 찾는다.
+	- 기존 findFirstBy...MinLessThanEqualAnd...MaxGreaterThanEqual 과 같은 답:
+	  x 를 포함하는 구간 중 id 가 가장 작은 것(InnoDB PK 순 스캔의 첫 행), min/max 가 null 인 행은 제외.
+
+	구조(elementary segment):
+	- 모든 끝점을 정렬·중복 제거한 points[0..m) 으로 수직선을 2m+1 조각으로 나눈다.
+	  조각 2k+1 = 점 points[k],  조각 2k = 열린 구간 (points[k-1], points[k])  (양끝은 ±∞)
+	- 조각마다 답(가장 작은 id 의 포함 구간)을 미리 계산 → 조회는 points 이진 탐색 + 배열 1칸.
+	- 비교는 BigDecimal.compareTo(scale 무시 — DECIMAL 비교와 같음).
+*/
+public final class PolicyIntervalIndex<T> {
+
+	private final BigDecimal[] points;
+	private final Object[] answers;     // 길이 2m+1, 답 없으면 null
+	private final int size;
+
+	private PolicyIntervalIndex(BigDecimal[] points, Object[] answers, int size) {
+		this.points = points;
+		this.answers = answers;
+		this.size = size;
+	}
+
+	/**
+	 * @param rows 정책 행(순서 무관)
+	 * @param min  구간 하한(포함)
+	 * @param max  구간 상한(포함)
+	 * @param id   동률 시 우선순위(작을수록 우선)
+	 */
+	public static <T> PolicyIntervalIndex<T> of(List<T> rows, Function<T, BigDecimal> min, Function<T, BigDecimal> max,
+												ToLongFunction<T> id) {
+		List<T> valid = new ArrayList<>();
+		TreeSet<BigDecimal> ends = new TreeSet<>(); // compareTo 기준 중복 제거
+		for (T row : rows) {
+			BigDecimal lo = min.apply(row), hi = max.apply(row);
+			if (lo == null || hi == null || lo.compareTo(hi) > 0) continue; // 어떤 값도 포함하지 않는 행
+			valid.add(row);
+			ends.add(lo);
+			ends.add(hi);
+		}
+		valid.sort(Comparator.comparingLong(id));
+
+		BigDecimal[] points = ends.toArray(new BigDecimal[0]);
+		Object[] answers = new Object[2 * points.length + 1];
+		// id 오름차순으로 칠하고, 이미 답이 있는 조각은 건너뜀 → 조각별 최소 id
+		for (T row : valid) {
+			int from = 2 * Arrays.binarySearch(points, min.apply(row), BigDecimal::compareTo) + 1;
+			int to = 2 * Arrays.binarySearch(points, max.apply(row), BigDecimal::compareTo) + 1;
+			for (int s = from; s <= to; s++) {
+				if (answers[s] == null) answers[s] = row;
+			}
+		}
+		return new PolicyIntervalIndex<>(points, answers, valid.size());
+	}
+
+	/** x 를 포함하는 정책(가장 작은 id), 없으면 null */
+	@SuppressWarnings("unchecked")
+	public T find(BigDecimal x) {
+		if (x == null || points.length == 0) return null;
+		int i = Arrays.binarySearch(points, x, BigDecimal::compareTo);
+		return (T) answers[(i >= 0) ? 2 * i + 1 : 2 * (-i - 1)];
+	}
+
+	/** 색인된(유효 구간) 행 수 */
+	public int size() {
+		return size;
+	}
+}
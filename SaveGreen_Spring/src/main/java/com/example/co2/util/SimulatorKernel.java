@@ -0,0 +1,197 @@
+package com.example.co2.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+	역할(시뮬레이터 계산 커널, 상태 없음):
+	- SimulatorService.calculate1/2 의 BigDecimal 연산 사슬을 고정소수점 long 으로 다시 쓴 것.
+	  결과 값과 scale(소수 자릿수)까지 BigDecimal 구현과 똑같다(SimulatorKernelEquivalenceTest).
+	- 객체 할당 없음 → 수천 가지 패널 구성을 훑는 스윕에서도 건당 수백 ns.
+
+	단위(정수 = 값 × 10^scale):
+	- 일사량 solar        : scale 3 (연평균 소수 3자리 × 366)
+	- 면적/사용량 입력     : scale 6 (INPUT_SCALE) — 더 긴 소수나 long 범위를 넘는 입력은 fixed() 가 ArithmeticException
+	- 효율 0.8 = 8/10, 배출계수 0.415 = 415/1000, 전력 환산 185.5 = 1855/10
+
+	반올림:
+	- HALF_UP(0에서 먼 쪽), CEILING(+∞ 쪽)을 정수 나눗셈 몫/나머지로 재현.
+	- 곱셈 넘침은 Math.multiplyExact 가 ArithmeticException → 호출부가 BigDecimal 구현으로 폴백.
+*/
+public final class SimulatorKernel {
+
+	/** 일사량 scale */
+	public static final int SOLAR_SCALE = 3;
+	/** 면적/사용량 입력 scale */
+	public static final int INPUT_SCALE = 6;
+
+	// 등급별 구간 중앙값(×10). 0 = 범위 밖 등급(기존 BigDecimal.ZERO)
+	private static final long[] GRADE_MID_TENTHS = new long[11];
+
+	static {
+		int[][] ranges = {
+				{0, 80}, {80, 140}, {140, 200}, {200, 260}, {260, 320},
+				{320, 380}, {380, 450}, {450, 520}, {520, 610}, {610, 700}
+		};
+		for (int g = 1; g <= 10; g++) {
+			GRADE_MID_TENTHS[g] = (ranges[g - 1][0] + ranges[g - 1][1]) * 5L; // (a+b)/2 × 10
+		}
+	}
+
+	private SimulatorKernel() {}
+
+	/** BigDecimal → scale 자리 고정소수점(반올림이 필요하거나 long 범위를 넘으면 ArithmeticException) */
+	public static long fixed(BigDecimal v, int scale) {
+		return v.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+	}
+
+	/** 등급(1~10) 구간 중앙값 ×10, 그 밖은 0 */
+	public static long gradeMidTenths(int grade) {
+		return (grade >= 1 && grade <= 10) ? GRADE_MID_TENTHS[grade] : 0;
+	}
+
+	/* ===== calculate1 ===== */
+
+	// 연간 발전량 × 10^7 = solar(×10^3) × 0.8(8/10) × 패널용량 × 패널수 / 1000
+	private static long generation(long solar, long panelPower, long panelCount) {
+		return Math.multiplyExact(Math.multiplyExact(Math.multiplyExact(solar, 8), panelPower), panelCount);
+	}
+
+	/**
+	 * 자립률(%) ×10^3 — generation.divide(energy, 3, HALF_UP) × 100.
+	 *
+	 * @param solar  일사량(SOLAR_SCALE)
+	 * @param energy 연간 사용량(INPUT_SCALE), 0이면 ArithmeticException
+	 */
+	public static long energySelf(long solar, int panelPower, int panelCount, long energy) {
+		long g = generation(solar, panelPower, panelCount);
+		// (g / 10^7) / (energy / 10^6) × 10^3 = 100·g / energy
+		return Math.multiplyExact(divHalfUp(Math.multiplyExact(g, 100), energy), 100);
+	}
+
+	/**
+	 * 단위면적당 순사용량 ×10^3 — max(energy - generation, 0).divide(area, 3, HALF_UP).
+	 *
+	 * @param energy 연간 사용량(INPUT_SCALE)
+	 * @param area   면적(INPUT_SCALE), 0이면 ArithmeticException
+	 */
+	public static long usage(long solar, int panelPower, int panelCount, long energy, long area) {
+		long g = generation(solar, panelPower, panelCount);
+		long net = Math.max(Math.subtractExact(Math.multiplyExact(energy, 10), g), 0); // ×10^7
+		// (net / 10^7) / (area / 10^6) × 10^3 = 100·net / area
+		return divHalfUp(Math.multiplyExact(net, 100), area);
+	}
+
+	/* ===== calculate2 ===== */
+
+	/** 패널 계획 결과(재사용 가능, 필드 scale 은 각 접근자 참고) */
+	public static final class PanelPlan {
+		private long onePanelGeneration;
+		private long requiredPanels;
+		private long total;
+		private long annualSaveElectric;
+		private long annualSaveCO2;
+		private long onePanelCO2;
+		private long onePanelSaveElectric;
+		private long daySolar;
+
+		/** 패널 1장 연간 발전량, scale 5 */
+		public long onePanelGeneration() {
+			return onePanelGeneration;
+		}
+
+		/** 필요 패널 수, scale 0 */
+		public long requiredPanels() {
+			return requiredPanels;
+		}
+
+		/** 총 발전량, scale 1 */
+		public long total() {
+			return total;
+		}
+
+		/** 연간 절감 전력 환산값, scale 1 */
+		public long annualSaveElectric() {
+			return annualSaveElectric;
+		}
+
+		/** 연간 CO2 절감(t), scale 1 */
+		public long annualSaveCO2() {
+			return annualSaveCO2;
+		}
+
+		/** 패널 1장 CO2, scale 3 */
+		public long onePanelCO2() {
+			return onePanelCO2;
+		}
+
+		/** 패널 1장 절감 전력 환산값, scale 3 */
+		public long onePanelSaveElectric() {
+			return onePanelSaveElectric;
+		}
+
+		/** 일평균 일사량, scale 3 */
+		public long daySolar() {
+			return daySolar;
+		}
+
+		/** 차트용 패널 1장 발전량 = onePanelGeneration / 100 (BigDecimal.divide 와 같은 scale 5~7) */
+		public BigDecimal onePanelGeneForChart() {
+			long u = onePanelGeneration;
+			int scale = 7;
+			while (scale > 5 && u % 10 == 0) {
+				u /= 10;
+				scale--;
+			}
+			return BigDecimal.valueOf(u, scale);
+		}
+	}
+
+	/**
+	 * 목표 등급까지 필요한 패널 계획을 out 에 채운다.
+	 *
+	 * @param solar 일사량(SOLAR_SCALE)
+	 * @param area  면적(INPUT_SCALE)
+	 */
+	public static PanelPlan panelPlan(long solar, int panelPower, int currentGrade, int targetGrade, long area, PanelPlan out) {
+		long kw = divHalfUp(panelPower, 100);                                    // panelPower/1000, scale 1
+		long one = Math.multiplyExact(Math.multiplyExact(kw, solar), 8);         // × solar × 0.8, scale 5
+		long diff = gradeMidTenths(currentGrade) - gradeMidTenths(targetGrade);  // scale 1
+
+		long required = 0;
+		if (one > 0) {
+			// (diff/10 × area/10^6) / (one/10^5) = diff·area / (100·one), 올림
+			required = divCeiling(Math.multiplyExact(diff, area), Math.multiplyExact(one, 100));
+		}
+		long total = divHalfUp(Math.multiplyExact(required, one), 10_000);      // scale 5 → 1
+
+		out.onePanelGeneration = one;
+		out.requiredPanels = required;
+		out.total = total;
+		out.annualSaveElectric = divHalfUp(Math.multiplyExact(total, 1855), 100_000);    // ×185.5 / 10000, scale 1
+		out.annualSaveCO2 = divHalfUp(Math.multiplyExact(total, 415), 1_000_000);        // ×0.415 / 1000, scale 1
+		out.onePanelCO2 = divHalfUp(Math.multiplyExact(one, 415), 10_000_000);           // ×0.415 / 100, scale 3
+		out.onePanelSaveElectric = divHalfUp(Math.multiplyExact(one, 1855), 10_000_000); // ×185.5 / 10000, scale 3
+		out.daySolar = divHalfUp(solar, 366);                                             // / 366, scale 3
+		return out;
+	}
+
+	/* ===== 반올림 나눗셈 ===== */
+
+	/** n / d, HALF_UP(동점이면 0에서 먼 쪽). d == 0 이면 ArithmeticException */
+	static long divHalfUp(long n, long d) {
+		long q = n / d;
+		long r = n % d;
+		if (r == 0) return q;
+		long ar = Math.absExact(r), ad = Math.absExact(d);
+		if (ar >= ad - ar) q += ((n ^ d) < 0) ? -1 : 1;
+		return q;
+	}
+
+	/** n / d, CEILING(+∞ 쪽). d == 0 이면 ArithmeticException */
+	static long divCeiling(long n, long d) {
+		long q = n / d;
+		if (n % d != 0 && (n ^ d) >= 0) q++;
+		return q;
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.co2.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+	역할(요청 합치기, single-flight):
+	- 같은 키로 "동시에" 들어온 비싼 조회/계산을 1회만 수행하고, 나머지 호출은 그 결과를 공유한다.
+	- 결과를 보관하는 캐시가 아님: 진행 중(in-flight)인 동안만 합쳐지고, 끝나면 키가 즉시 제거된다.
+
+	사용처:
+	- ForecastService: 동일 cache_key_hash MISS → computeStub/upsert 1회
+	- SimulatorService: NASA 일사량 조회, juso 주소 검색
+	- VworldService / GreenFinderService: juso 검색, VWorld 좌표 변환
+
+	포인트:
+	1) 선행 호출(leader)의 예외는 대기 중인 호출(follower)에게도 같은 예외로 전달
+	2) 성공/실패와 무관하게 종료 시 키 제거 → 다음 호출은 새로 수행
+	3) leaders/followers 카운터로 합쳐진 비율 확인 가능
+*/
+public final class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder leaders = new LongAdder();
+	private final LongAdder followers = new LongAdder();
+
+	/** 체크 예외를 던지는 로더용(원본 예외를 그대로 전파) */
+	public V call(final K key, final Callable<V> loader) throws Exception {
+		final CompletableFuture<V> mine = new CompletableFuture<>();
+		final CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			followers.increment();
+			return await(existing);
+		}
+
+		leaders.increment();
+		try {
+			final V v = loader.call();
+			mine.complete(v);
+			return v;
+		} catch (Exception | Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	/** 체크 예외가 없는 로더용 */
+	public V run(final K key, final Supplier<V> loader) {
+		try {
+			return call(key, loader::get);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			// Supplier는 체크 예외를 던지지 않으므로 인터럽트 등 대기 중 예외만 해당
+			throw new IllegalStateException("single-flight wait failed: " + key, e);
+		}
+	}
+
+	public long leaders() {
+		return leaders.sum();
+	}
+
+	public long followers() {
+		return followers.sum();
+	}
+
+	public int inFlight() {
+		return inFlight.size();
+	}
+
+	// [추가] follower 대기: ExecutionException을 벗겨 원래 예외로 복원
+	private static <V> V await(final CompletableFuture<V> f) throws Exception {
+		try {
+			return f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw e;
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception ex) throw ex;
+			if (cause instanceof Error er) throw er;
+			throw e;
+		}
+	}
+}
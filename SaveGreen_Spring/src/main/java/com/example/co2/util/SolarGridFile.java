@@ -0,0 +1,198 @@
+package com.example.co2.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/*
+	역할(일사량 격자 파일, 불변):
+	- NASA POWER ALLSKY_SFC_SW_DWN(kWh/m²/day)의 연평균 + 월평균 12개를 위경도 등간격 격자 노드에 담은 바이너리.
+	  기동 시 FileChannel.map(외부 파일) 또는 힙 버퍼(클래스패스)로 열고, 임의 (lat, lon)을 양선형 보간한다.
+	  → 시뮬레이터가 해외 API 응답 시간과 무관하게 일사량을 얻는다.
+
+	파일 구조(빅엔디언, 버전 1):
+	- 헤더 64B : magic "SGSR" | version(int) | rows(int) | cols(int) | lat0(double) | lon0(double) | step(double)
+	             | year(int) | reserved(int) | bodyLength(long) | crc32(long, 본문 전체)
+	- 본문     : 평면 13개(0 = 연평균, 1~12 = 월) × rows × cols float, 행 우선(i = 위도 남→북, j = 경도 서→동)
+	- 노드 (i, j) 좌표 = (lat0 + i·step, lon0 + j·step). 값이 없는 노드는 NaN.
+
+	보간:
+	- (lat, lon)을 둘러싼 노드 4개의 양선형 가중 평균. NaN 노드(해상 등)는 빼고 남은 가중치로 정규화.
+	- 격자 밖이거나 4개가 모두 NaN이면 NaN → 호출부가 원격 조회로 폴백.
+*/
+public final class SolarGridFile {
+
+	public static final int MAGIC = 0x53475352; // "SGSR"
+	public static final int VERSION = 1;
+	/** 평면 수(연평균 + 12개월) */
+	public static final int PLANES = 13;
+	/** 연평균 평면 번호 */
+	public static final int ANNUAL = 0;
+
+	private static final int HEADER_BYTES = 64;
+	private static final ByteOrder ORDER = ByteOrder.BIG_ENDIAN;
+
+	private final int rows;
+	private final int cols;
+	private final double lat0;
+	private final double lon0;
+	private final double step;
+	private final int year;
+	private final FloatBuffer values; // 절대 인덱스로만 읽는다(스레드 안전)
+
+	private SolarGridFile(int rows, int cols, double lat0, double lon0, double step, int year, FloatBuffer values) {
+		this.rows = rows;
+		this.cols = cols;
+		this.lat0 = lat0;
+		this.lon0 = lon0;
+		this.step = step;
+		this.year = year;
+		this.values = values;
+	}
+
+	/* ===== 쓰기 ===== */
+
+	/**
+	 * values[plane][i * cols + j] 를 out 에 기록(임시 파일 → 원자적 교체).
+	 */
+	public static void write(Path out, int rows, int cols, double lat0, double lon0, double step, int year,
+							 float[][] values) throws IOException {
+		if (values.length != PLANES) throw new IllegalArgumentException("planes " + values.length + " != " + PLANES);
+		long cells = (long) rows * cols;
+		ByteBuffer body = ByteBuffer.allocate(Math.toIntExact(cells * PLANES * Float.BYTES)).order(ORDER);
+		for (float[] plane : values) {
+			if (plane.length != cells) throw new IllegalArgumentException("plane length " + plane.length + " != " + cells);
+			for (float v : plane) body.putFloat(v);
+		}
+		body.flip();
+		CRC32 crc = new CRC32();
+		crc.update(body.duplicate());
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols)
+				.putDouble(lat0).putDouble(lon0).putDouble(step)
+				.putInt(year).putInt(0)
+				.putLong(body.remaining()).putLong(crc.getValue());
+		header.flip();
+
+		Path parent = out.toAbsolutePath().getParent();
+		if (parent != null) Files.createDirectories(parent);
+		Path tmp = Files.createTempFile(parent, out.getFileName().toString(), ".tmp");
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining()) ch.write(header);
+			while (body.hasRemaining()) ch.write(body);
+			ch.force(true);
+		}
+		Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/* ===== 읽기 ===== */
+
+	/** 외부 파일을 읽기 전용으로 매핑 */
+	public static SolarGridFile open(Path path) throws IOException {
+		try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+			return parse(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), path.toString());
+		}
+	}
+
+	/** 클래스패스 리소스 등 스트림(힙으로 읽음) */
+	public static SolarGridFile read(InputStream in, String label) throws IOException {
+		return parse(ByteBuffer.wrap(in.readAllBytes()), label);
+	}
+
+	private static SolarGridFile parse(ByteBuffer buf, String label) throws IOException {
+		buf.order(ORDER);
+		if (buf.capacity() < HEADER_BYTES) throw new IOException(label + ": too short");
+		if (buf.getInt(0) != MAGIC) throw new IOException(label + ": bad magic");
+		int version = buf.getInt(4);
+		if (version != VERSION) throw new IOException(label + ": unsupported version " + version);
+		int rows = buf.getInt(8);
+		int cols = buf.getInt(12);
+		double lat0 = buf.getDouble(16);
+		double lon0 = buf.getDouble(24);
+		double step = buf.getDouble(32);
+		int year = buf.getInt(40);
+		long bodyLength = buf.getLong(48);
+		long crc = buf.getLong(56);
+		if (rows < 2 || cols < 2 || !(step > 0)) throw new IOException(label + ": bad grid " + rows + "x" + cols + " step " + step);
+		if (bodyLength != (long) rows * cols * PLANES * Float.BYTES || HEADER_BYTES + bodyLength > buf.capacity()) {
+			throw new IOException(label + ": body length " + bodyLength + " does not match grid");
+		}
+		ByteBuffer body = buf.duplicate().order(ORDER).position(HEADER_BYTES).limit((int) (HEADER_BYTES + bodyLength)).slice().order(ORDER);
+		CRC32 c = new CRC32();
+		c.update(body.duplicate());
+		if (c.getValue() != crc) throw new IOException(label + ": checksum mismatch");
+		return new SolarGridFile(rows, cols, lat0, lon0, step, year, body.asFloatBuffer());
+	}
+
+	/* ===== 조회 ===== */
+
+	/** 연평균(kWh/m²/day) 보간값, 없으면 NaN */
+	public double annual(double lat, double lon) {
+		return interpolate(ANNUAL, lat, lon);
+	}
+
+	/** month(1~12) 평균 보간값, 없으면 NaN */
+	public double monthly(double lat, double lon, int month) {
+		if (month < 1 || month > 12) throw new IllegalArgumentException("month " + month);
+		return interpolate(month, lat, lon);
+	}
+
+	/** 평면 plane 의 양선형 보간(NaN 노드 제외 후 정규화) */
+	public double interpolate(int plane, double lat, double lon) {
+		double y = (lat - lat0) / step;
+		double x = (lon - lon0) / step;
+		if (!(y >= 0 && y <= rows - 1 && x >= 0 && x <= cols - 1)) return Double.NaN;
+		int i = Math.min((int) y, rows - 2);
+		int j = Math.min((int) x, cols - 2);
+		double fy = y - i;
+		double fx = x - j;
+		int base = plane * rows * cols;
+
+		double sum = 0, weight = 0;
+		for (int di = 0; di <= 1; di++) {
+			double wy = (di == 0) ? 1 - fy : fy;
+			for (int dj = 0; dj <= 1; dj++) {
+				double w = wy * ((dj == 0) ? 1 - fx : fx);
+				if (w == 0) continue;
+				float v = values.get(base + (i + di) * cols + (j + dj));
+				if (Float.isNaN(v)) continue;
+				sum += w * v;
+				weight += w;
+			}
+		}
+		return (weight > 0) ? sum / weight : Double.NaN;
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	public int cols() {
+		return cols;
+	}
+
+	public double lat0() {
+		return lat0;
+	}
+
+	public double lon0() {
+		return lon0;
+	}
+
+	public double step() {
+		return step;
+	}
+
+	public int year() {
+		return year;
+	}
+}
@@ -88,6 +88,23 @@ public final class TypeRegionNormalizer {
 		}
 	}
 
+	/**
+	 * 자유 텍스트 용도 → 코어 타입(factory/hospital/school/office). 비어 있으면 "".
+	 *
+	 * <p>normalizeInPlace와 같은 어휘를 쓰되, 이미 코어 타입(영문)인 값은 그대로 둔다.
+	 * 예측 캐시 키(ForecastCacheKey) 등 "같은 용도를 같은 값으로" 묶어야 하는 곳에서 사용.
+	 */
+	public static String coreTypeOf(final String use) {
+		final String s = safe(use).toLowerCase();
+		if (s.isEmpty()) return "";
+		switch (s) {
+			case "factory", "hospital", "school", "office":
+				return s;
+			default:
+				return mapUseToCoreType(s);
+		}
+	}
+
 	// [추가] --- 아래는 내부 헬퍼들 ---
 
 	// [추가] null → "" 치환 + trim
@@ -0,0 +1,6 @@
+-- api_cache 바이너리 payload 저장 모드 (payload_codec: json | json+deflate | smile+deflate)
+--  - 기존 행은 payload_codec='json' 으로 payload_json 을 그대로 읽는다.
+ALTER TABLE api_cache
+  MODIFY COLUMN payload_json  JSON        NULL,
+  ADD COLUMN    payload_bin   MEDIUMBLOB  NULL AFTER payload_json,
+  ADD COLUMN    payload_codec VARCHAR(16) NOT NULL DEFAULT 'json' AFTER payload_bin;
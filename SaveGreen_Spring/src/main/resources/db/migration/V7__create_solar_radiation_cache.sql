@@ -0,0 +1,13 @@
+-- solar_radiation_cache : NASA POWER ALLSKY_SFC_SW_DWN 연평균(kWh/m²/day)을 위경도 격자 칸 단위로 보관
+--  - cell_key = "<grid_deg>:<lat_idx>:<lon_idx>" (격자 크기를 바꾸면 다른 키 → 기존 행은 그대로 둠)
+--  - lat/lon 은 실제 조회한 칸 중심 좌표
+CREATE TABLE IF NOT EXISTS solar_radiation_cache (
+  cell_key     VARCHAR(40)   NOT NULL,
+  lat          DECIMAL(9,5)  NOT NULL,
+  lon          DECIMAL(9,5)  NOT NULL,
+  annual_mean  DECIMAL(10,3) NOT NULL,
+  fetched_at   DATETIME(3)   NOT NULL,
+  PRIMARY KEY (cell_key)
+) ENGINE=InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_0900_ai_ci;
@@ -0,0 +1,127 @@
+package com.example.co2.service;
+
+import com.example.co2.dto.SimulatorResultDto;
+import com.example.co2.util.SimulatorKernel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/*
+ * 고정소수점 커널(SimulatorKernel) ↔ BigDecimal 기준 구현 일치 검증.
+ *  - BigDecimal.equals 로 비교 → 값뿐 아니라 scale(응답 JSON 자릿수)까지 같아야 한다.
+ *  - 고정 시드 난수 입력 + 반올림 경계/음수/0 같은 경계 입력.
+ */
+class SimulatorKernelEquivalenceTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void selfSufficiencyMatchesReference() {
+        Random r = new Random(20251017L);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal solar = solar(r);
+            Integer pp = panelPower(r);
+            Integer pc = r.nextInt(20) == 0 ? null : r.nextInt(2000);
+            BigDecimal energy = decimal(r, 1, 10_000_000);
+            BigDecimal area = decimal(r, 1, 200_000);
+            assertSelfSufficiency(solar, pp, pc, energy, area);
+        }
+    }
+
+    @Test
+    void selfSufficiencyEdgeCases() {
+        BigDecimal solar = new BigDecimal("1463.634"); // 3.999 × 366
+        assertSelfSufficiency(solar, 0, 0, new BigDecimal("1000"), new BigDecimal("100"));
+        assertSelfSufficiency(solar, 500, 10, new BigDecimal("5854.536"), new BigDecimal("0.5"));  // 자립률 정확히 100%
+        assertSelfSufficiency(solar, 500, 1000, new BigDecimal("1"), new BigDecimal("1"));        // 순사용량 음수 → 0
+        assertSelfSufficiency(solar, -300, 3, new BigDecimal("-2500.5"), new BigDecimal("12.25")); // 음수 입력
+        assertSelfSufficiency(solar, null, null, new BigDecimal("1E+3"), new BigDecimal("100.000000"));
+
+        // 0으로 나누기는 두 구현 모두 ArithmeticException
+        assertThrows(ArithmeticException.class, () -> SimulatorService.selfSufficiencyFixed(
+                solar, 500, 10, BigDecimal.ZERO, BigDecimal.TEN));
+        assertThrows(ArithmeticException.class, () -> SimulatorService.selfSufficiencyReference(
+                solar, 500, 10, BigDecimal.ZERO, BigDecimal.TEN));
+        // 커널 범위 밖(소수 7자리) → 폴백 경로가 기준 구현과 같다
+        BigDecimal longScale = new BigDecimal("1234.5678901");
+        assertArrayEquals(
+                SimulatorService.selfSufficiencyReference(solar, 500, 10, longScale, longScale),
+                SimulatorService.selfSufficiency(solar, 500, 10, longScale, longScale));
+    }
+
+    @Test
+    void panelPlanMatchesReference() {
+        Random r = new Random(7L);
+        SimulatorKernel.PanelPlan plan = new SimulatorKernel.PanelPlan();
+        for (int i = 0; i < SAMPLES; i++) {
+            assertPanelPlan(solar(r), panelPower(r), r.nextInt(12), r.nextInt(12), decimal(r, 1, 200_000), plan);
+        }
+    }
+
+    @Test
+    void panelPlanEdgeCases() {
+        SimulatorKernel.PanelPlan plan = new SimulatorKernel.PanelPlan();
+        BigDecimal solar = new BigDecimal("1500.000");
+        for (int pp : new int[]{0, 49, 50, 149, 150, 250, 350, 400}) {            // panelPower/1000 반올림 경계
+            assertPanelPlan(solar, pp, 8, 2, new BigDecimal("923.4"), plan);
+        }
+        assertPanelPlan(solar, 400, 2, 8, new BigDecimal("923.4"), plan);          // 목표가 더 나쁜 등급(음수, CEILING)
+        assertPanelPlan(solar, 400, 5, 5, new BigDecimal("923.4"), plan);          // 차이 0
+        assertPanelPlan(solar, null, 9, 1, new BigDecimal("923.4"), plan);         // 패널 없음
+        assertPanelPlan(solar, 400, 0, 11, new BigDecimal("923.4"), plan);         // 범위 밖 등급
+        assertPanelPlan(new BigDecimal("0.000"), 400, 9, 1, BigDecimal.ONE, plan); // 일사량 0
+    }
+
+    /* ===== 비교 ===== */
+
+    private static void assertSelfSufficiency(BigDecimal solar, Integer pp, Integer pc, BigDecimal energy, BigDecimal area) {
+        BigDecimal[] expected = SimulatorService.selfSufficiencyReference(solar, pp, pc, energy, area);
+        BigDecimal[] actual = SimulatorService.selfSufficiencyFixed(solar, pp, pc, energy, area);
+        String input = "solar=" + solar + " pp=" + pp + " pc=" + pc + " energy=" + energy + " area=" + area;
+        assertEquals(expected[0], actual[0], "energySelf " + input);
+        assertEquals(expected[1], actual[1], "usage " + input);
+    }
+
+    private static void assertPanelPlan(BigDecimal solar, Integer pp, int current, int target, BigDecimal area,
+                                        SimulatorKernel.PanelPlan plan) {
+        SimulatorResultDto expected = new SimulatorResultDto();
+        SimulatorResultDto actual = new SimulatorResultDto();
+        SimulatorService.panelPlanReference(solar, pp, current, target, area, expected);
+        SimulatorService.panelPlanFixed(solar, pp, current, target, area, plan, actual);
+        String input = "solar=" + solar + " pp=" + pp + " grade=" + current + "->" + target + " area=" + area;
+        assertEquals(expected.getDaySolar(), actual.getDaySolar(), "daySolar " + input);
+        assertEquals(expected.getOnePanelCO2(), actual.getOnePanelCO2(), "onePanelCO2 " + input);
+        assertEquals(expected.getOnePanelSaveElectric(), actual.getOnePanelSaveElectric(), "onePanelSaveElectric " + input);
+        assertEquals(expected.getOnePanelGeneration(), actual.getOnePanelGeneration(), "onePanelGeneration " + input);
+        assertEquals(expected.getOnePanelGeneForChart(), actual.getOnePanelGeneForChart(), "onePanelGeneForChart " + input);
+        assertEquals(expected.getAnnualSaveElectric(), actual.getAnnualSaveElectric(), "annualSaveElectric " + input);
+        assertEquals(expected.getAnnualSaveCO2(), actual.getAnnualSaveCO2(), "annualSaveCO2 " + input);
+        assertEquals(expected.getTotal(), actual.getTotal(), "total " + input);
+        assertEquals(expected.getRequiredPanels(), actual.getRequiredPanels(), "requiredPanels " + input);
+    }
+
+    /* ===== 입력 ===== */
+
+    // 연평균(2.000~5.999, 소수 3자리) × 366 — SolarRadiationService 결과와 같은 모양
+    private static BigDecimal solar(Random r) {
+        return BigDecimal.valueOf(2000 + r.nextInt(4000), 3).multiply(BigDecimal.valueOf(366));
+    }
+
+    // 50W 단위(반올림 경계)와 임의 값 반반, 가끔 null
+    private static Integer panelPower(Random r) {
+        if (r.nextInt(20) == 0) return null;
+        return r.nextBoolean() ? 50 * r.nextInt(20) : r.nextInt(1000);
+    }
+
+    // 소수 0~4자리 양수
+    private static BigDecimal decimal(Random r, int min, int max) {
+        int scale = r.nextInt(5);
+        long unscaled = (long) (min + r.nextInt(max - min)) * (long) Math.pow(10, scale) + r.nextInt((int) Math.pow(10, scale));
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 주소 자동완성 인덱스(AddressSearchIndex) 검증.
+ *  - 접두어: 어절 접미 term(+PNU)에 대한 startsWith 전수 스캔과 같은 항목·순서(어절 위치 → term 길이 → 입력 순),
+ *            항목당 1건, limit 1..N 전부
+ *  - 자모 정규화: 입력 중인 음절("문ㅍ")도 접두어로 일치
+ *  - 오타: 자모 하나 틀린 질의를 3-gram 포함도로 찾음(접두어 일치가 모자랄 때만)
+ */
+class AddressSearchIndexTest {
+
+    private static final String[] SIDO = {"대전광역시", "대전광역시", "서울특별시", ""};
+    private static final String[] GU = {"대덕구", "서구", "유성구", "중구"};
+    private static final String[] DONG = {"문평동", "문지동", "문화동", "평촌동", "대화동", "Munpyeong-dong"};
+    private static final String[] NAMES = {"공장", "문평 물류센터", "대덕 테크노밸리", "평촌 1공장", "", null};
+
+    private record Entry(String pnu, String name, String address) {}
+
+    @Test
+    void prefixHitsMatchLinearScan() {
+        Random r = new Random(17L);
+        List<Entry> input = randomEntries(r, 400);
+        AddressSearchIndex index = build(input);
+        List<Entry> entries = kept(input);
+        assertEquals(entries.size(), index.size());
+
+        // 질의 = 실제 term 을 임의 위치(음절 중간 자모 포함)에서 자른 것 + 고정 질의
+        List<String> queries = new ArrayList<>(List.of("ㄷ", "ㄷㅐ", "ㅁㅜㄴ", "78", "3020", "munp", "ㅅㅓ", "없는주소"));
+        for (int i = 0; i < 150; i++) {
+            Entry e = entries.get(r.nextInt(entries.size()));
+            List<String> terms = terms(e);
+            String term = terms.get(r.nextInt(terms.size()));
+            queries.add(term.substring(0, 1 + r.nextInt(term.length())));
+        }
+
+        for (String q : queries) {
+            List<AddressSearchIndex.Hit> expected = scan(entries, q);
+            for (int limit = 1; limit <= Math.min(expected.size() + 2, 60); limit++) {
+                List<AddressSearchIndex.Hit> got = index.search(q, limit, 1.1) // 포함도 > 1 → 오타 후보 없음
+                        .stream().filter(AddressSearchIndex.Hit::prefix).toList();
+                assertEquals(expected.subList(0, Math.min(limit, expected.size())), got, "q " + q + " limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void partialSyllableMatchesAsPrefix() {
+        AddressSearchIndex index = AddressSearchIndex.builder()
+                .add("3020011200100780004", "문평 물류센터", "대전광역시 대덕구 문평동 78-4")
+                .add("3020011300100010000", "문지 연구동", "대전광역시 유성구 문지동 1")
+                .add("3020011400100020000", null, "대전광역시 중구 문화동 2")
+                .build();
+        assertEquals("ㅁㅜㄴㅍㅕㅇㄷㅗㅇ784", AddressSearchIndex.normalize("문평동 78-4"));
+
+        List<AddressSearchIndex.Hit> hits = index.search("문ㅍ", 10, 1.1);
+        assertEquals(List.of("3020011200100780004"), hits.stream().map(AddressSearchIndex.Hit::pnu).toList());
+        assertTrue(hits.get(0).prefix());
+
+        // "무" → 문평/문지/문화 모두: 이름 첫 어절(위치 0)이 주소 동 어절(위치 2)보다 앞, 같은 위치면 짧은 term("문지연구동") 먼저
+        List<String> mu = index.search("무", 10, 1.1).stream().map(AddressSearchIndex.Hit::pnu).toList();
+        assertEquals(List.of("3020011300100010000", "3020011200100780004", "3020011400100020000"), mu);
+    }
+
+    @Test
+    void oneJamoTypoFoundByFuzzyFill() {
+        AddressSearchIndex index = AddressSearchIndex.builder()
+                .add("3020011200100780004", "문평 물류센터", "대전광역시 대덕구 문평동 78-4")
+                .add("3017011200100010000", "평촌 1공장", "대전광역시 서구 평촌동 1")
+                .build();
+        // "평"(ㅍㅕㅇ) → "펑"(ㅍㅓㅇ): 접두어로는 없고, 3-gram 10개 중 7개가 겹친다
+        List<AddressSearchIndex.Hit> hits = index.search("문펑동 78-4", 5, 0.6);
+        assertEquals(1, hits.size());
+        AddressSearchIndex.Hit h = hits.get(0);
+        assertEquals("3020011200100780004", h.pnu());
+        assertFalse(h.prefix());
+        assertEquals(0.7, h.score(), 1e-12);
+
+        // 포함도 기준을 넘기면 후보 없음, 접두어 일치가 limit 을 채우면 오타 후보를 보지 않는다
+        assertEquals(0, index.search("문펑동 78-4", 5, 0.71).size());
+        List<AddressSearchIndex.Hit> prefixOnly = index.search("평촌", 1, 0.0);
+        assertEquals(1, prefixOnly.size());
+        assertTrue(prefixOnly.get(0).prefix());
+    }
+
+    @Test
+    void pnuIsAPrefixTerm() {
+        AddressSearchIndex index = AddressSearchIndex.builder()
+                .add("3020011200100780004", "문평 물류센터", "대전광역시 대덕구 문평동 78-4")
+                .add(" 3020011200100780004 ", "중복", "중복 PNU는 먼저 들어온 것만")
+                .add("3020011300100010000", "문지 연구동", "대전광역시 유성구 문지동 1")
+                .add("1111010100100010000", null, null) // 주소·이름 없음 → 건너뜀
+                .build();
+        assertEquals(2, index.size());
+
+        List<String> all = index.search("30200113", 10, 1.1).stream().map(AddressSearchIndex.Hit::pnu).toList();
+        assertEquals(List.of("3020011300100010000"), all);
+        List<String> both = index.search("302001", 10, 1.1).stream().map(AddressSearchIndex.Hit::pnu).toList();
+        assertEquals(List.of("3020011200100780004", "3020011300100010000"), both);
+        assertEquals(0, index.search("11110101", 10, 1.1).size());
+        assertEquals(0, index.search("  -  ", 10, 0.0).size()); // 정규화 후 빈 질의
+        assertEquals(0, AddressSearchIndex.EMPTY.search("문평", 10, 0.0).size());
+    }
+
+    /* ===== 전수 스캔 ===== */
+
+    // 항목별로 q 로 시작하는 term 중 가장 앞선 것(어절 위치, 길이) → (위치, 길이, 입력 순) 정렬
+    private static List<AddressSearchIndex.Hit> scan(List<Entry> entries, String q) {
+        String nq = AddressSearchIndex.normalize(q);
+        List<int[]> ranked = new ArrayList<>(); // {token, length, entry}
+        for (int e = 0; e < entries.size(); e++) {
+            int[] best = null;
+            for (int[] t : termRanks(entries.get(e), nq)) {
+                if (best == null || t[0] < best[0] || (t[0] == best[0] && t[1] < best[1])) best = t;
+            }
+            if (best != null) ranked.add(new int[]{best[0], best[1], e});
+        }
+        ranked.sort(Comparator.<int[]>comparingInt(a -> a[0]).thenComparingInt(a -> a[1]).thenComparingInt(a -> a[2]));
+        List<AddressSearchIndex.Hit> out = new ArrayList<>();
+        for (int[] k : ranked) {
+            Entry e = entries.get(k[2]);
+            out.add(new AddressSearchIndex.Hit(e.pnu(), e.name(), e.address(), true, 1.0));
+        }
+        return out;
+    }
+
+    // 항목의 {어절 위치, term 길이} 중 nq 로 시작하는 것
+    private static List<int[]> termRanks(Entry e, String nq) {
+        List<int[]> out = new ArrayList<>();
+        for (String text : new String[]{e.address(), e.name()}) {
+            if (text == null || text.isBlank()) continue;
+            String[] tokens = text.trim().split("\\s+");
+            for (int t = 0; t < tokens.length; t++) {
+                String term = AddressSearchIndex.normalize(String.join(" ", Arrays.asList(tokens).subList(t, tokens.length)));
+                if (!term.isEmpty() && term.startsWith(nq)) out.add(new int[]{t, term.length()});
+            }
+        }
+        String p = AddressSearchIndex.normalize(e.pnu());
+        if (!p.isEmpty() && p.startsWith(nq)) out.add(new int[]{0, p.length()});
+        return out;
+    }
+
+    private static List<String> terms(Entry e) {
+        List<String> out = new ArrayList<>();
+        for (String text : new String[]{e.address(), e.name(), e.pnu()}) {
+            if (text == null || text.isBlank()) continue;
+            String[] tokens = text.trim().split("\\s+");
+            for (int t = 0; t < tokens.length; t++) {
+                String term = AddressSearchIndex.normalize(String.join(" ", Arrays.asList(tokens).subList(t, tokens.length)));
+                if (!term.isEmpty()) out.add(term);
+            }
+        }
+        return out;
+    }
+
+    // Builder.add 와 같은 거름: PNU 중복은 먼저 들어온 것만, 주소·이름 모두 공백이면 제외
+    private static List<Entry> kept(List<Entry> input) {
+        Set<String> seen = new HashSet<>();
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : input) {
+            String p = (e.pnu() == null) ? null : e.pnu().trim();
+            if (p != null && !p.isEmpty() && !seen.add(p)) continue;
+            if (isBlank(e.name()) && isBlank(e.address())) continue;
+            out.add(new Entry(p, e.name(), e.address()));
+        }
+        return out;
+    }
+
+    private static AddressSearchIndex build(List<Entry> entries) {
+        AddressSearchIndex.Builder b = AddressSearchIndex.builder();
+        for (Entry e : entries) b.add(e.pnu(), e.name(), e.address());
+        return b.build();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    /* ===== 입력 ===== */
+
+    // 같은 동·번지가 자주 겹치게(동률 순서 확인), 일부는 PNU 없음/중복, 주소·이름 없음
+    private static List<Entry> randomEntries(Random r, int n) {
+        List<Entry> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String pnu = switch (r.nextInt(15)) {
+                case 0 -> null;
+                case 1 -> (i > 0) ? out.get(r.nextInt(i)).pnu() : null; // 중복 PNU
+                default -> "30" + String.format("%017d", r.nextLong(1_000_000_000L));
+            };
+            String address = (r.nextInt(12) == 0) ? null
+                    : (SIDO[r.nextInt(SIDO.length)] + " " + GU[r.nextInt(GU.length)] + " " + DONG[r.nextInt(DONG.length)]
+                       + " " + (1 + r.nextInt(90)) + (r.nextBoolean() ? "-" + r.nextInt(10) : "")).trim();
+            out.add(new Entry(pnu, NAMES[r.nextInt(NAMES.length)], address));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/*
+ * 컬럼 저장소(BuildingColumnStore)의 비정형 PNU(19자리 숫자가 아닌 원문) 처리.
+ *  - 행마다 원문이 그대로 나와야 한다(같은 원문이 여러 행이어도).
+ *  - find/rowOf 는 먼저 들어온 행, upsert 는 비정형 행도 원문을 유지한다.
+ */
+class BuildingColumnStoreTest {
+
+    private static final String REGULAR = "3020011200100010000";
+
+    @Test
+    void irregularPnuPerRow() {
+        BuildingColumnStore s = store("row", "A-1", REGULAR, "A-1", " A-1 ", "B-2", null, "", "A-1");
+        String[] expected = {"A-1", REGULAR, "A-1", "A-1", "B-2", null, null, "A-1"};
+        BuildingColumnStore.Row v = s.row(0);
+        for (int r = 0; r < expected.length; r++) {
+            assertEquals(expected[r], v.moveTo(r).pnu(), "row " + r);
+        }
+        assertEquals(0, s.rowOf("A-1"));
+        assertEquals(0, s.rowOf(" A-1"));
+        assertEquals(4, s.find("B-2").index());
+        assertEquals(1, s.rowOf(REGULAR));
+        assertEquals(-1, s.rowOf("C-3"));
+        assertNull(s.find(null));
+    }
+
+    @Test
+    void upsertKeepsIrregularPnuOfCopiedRows() {
+        BuildingColumnStore base = store("base", "A-1", "A-1", REGULAR, "B-2");
+        BuildingColumnStore delta = store("delta", "B-2", "C-3");
+        BuildingColumnStore.Merge m = BuildingColumnStore.upsert(base, delta);
+
+        assertEquals(1, m.replaced());
+        assertEquals(1, m.appended());
+        String[] expected = {"A-1", "A-1", REGULAR, "B-2", "C-3"};
+        BuildingColumnStore.Row v = m.store().row(0);
+        for (int r = 0; r < expected.length; r++) {
+            assertEquals(expected[r], v.moveTo(r).pnu(), "row " + r);
+        }
+        assertEquals("delta 0", m.store().find("B-2").buildingName());
+        assertEquals(0, m.store().rowOf("A-1"));
+    }
+
+    private static BuildingColumnStore store(String name, String... pnus) {
+        BuildingColumnStore.Builder b = BuildingColumnStore.builder(pnus.length);
+        for (int i = 0; i < pnus.length; i++) {
+            b.beginRow(pnus[i], name + " " + i, null, null, null,
+                    Double.NaN, BuildingColumnStore.NO_YEAR, Double.NaN, Double.NaN);
+        }
+        return b.build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 건물 JSON 스트리밍 적재(BuildingJsonStreamReader) 검증.
+ *  - 범위 밖 좌표: 행은 적재하고 좌표만 NaN(cleared 카운트), 다른 컬럼은 그대로
+ *  - 레코드 단위 건너뜀 사유(notObject / badField / negativeArea / invalidMonth)
+ */
+class BuildingJsonStreamReaderTest {
+
+    @Test
+    void invalidCoordinateClearsLocationButKeepsRow() throws IOException {
+        BuildingJsonStreamReader.Result result = read("""
+                [
+                  {"pnu": "3020011200100010000", "buildingName": "정상", "lat": 36.35, "lng": 127.38},
+                  {"pnu": "3020011200100020000", "buildingName": "위도 밖", "lat": 136.35, "lng": 127.38,
+                   "buildingType2": "공장", "energyIntensityKwhPerM2": 210.5,
+                   "monthlyConsumption": [{"month": 1, "electricity": 10}]},
+                  {"pnu": "3020011200100030000", "buildingName": "경도 밖", "latitude": 36.35, "longitude": -190},
+                  {"pnu": "3020011200100040000", "buildingName": "좌표 없음"},
+                  {"pnu": "3020011200100050000", "buildingName": "한쪽만", "lat": 36.35}
+                ]
+                """);
+        BuildingColumnStore s = result.columns();
+        assertEquals(5, s.size());
+        assertEquals(Map.of(), result.stats().skipped());
+        assertEquals(Map.of("invalidCoordinate", 2L), result.stats().cleared());
+
+        assertTrue(s.find("3020011200100010000").hasLocation());
+        BuildingColumnStore.Row bad = s.find("3020011200100020000");
+        assertFalse(bad.hasLocation());
+        assertTrue(Double.isNaN(bad.lat()) && Double.isNaN(bad.lon()));
+        assertEquals("위도 밖", bad.buildingName());
+        assertEquals("공장", bad.buildingType2());
+        assertEquals(210.5, bad.energyIntensityKwhPerM2());
+        assertEquals(1, bad.monthlyCount());
+        assertFalse(s.find("3020011200100030000").hasLocation());
+        assertFalse(s.find("3020011200100040000").hasLocation());
+        assertFalse(s.find("3020011200100050000").hasLocation());
+    }
+
+    @Test
+    void invalidRecordsAreSkippedByReason() throws IOException {
+        BuildingJsonStreamReader.Result result = read("""
+                [
+                  1,
+                  {"pnu": "A", "floorAreaM2": {"x": 1}},
+                  {"pnu": "B", "floorAreaM2": -1},
+                  {"pnu": "C", "monthlyConsumption": [{"month": 13, "electricity": 1}]},
+                  {"pnu": "D", "lat": 999, "floorAreaM2": -5},
+                  {"pnu": "E", "unknown": {"nested": [1, 2]}}
+                ]
+                """);
+        assertEquals(6, result.stats().records());
+        assertEquals(1, result.stats().accepted());
+        assertEquals(Map.of("notObject", 1L, "badField:floorAreaM2", 1L, "negativeArea", 2L, "invalidMonth", 1L),
+                result.stats().skipped());
+        assertEquals(Map.of(), result.stats().cleared()); // 건너뛴 행은 보정 카운트에 넣지 않는다
+        assertEquals(0, result.columns().rowOf("E"));
+    }
+
+    private static BuildingJsonStreamReader.Result read(String json) throws IOException {
+        return BuildingJsonStreamReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 0);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 정적 R-tree(BuildingRTree) ↔ 전수 탐색 일치 검증.
+ *  - within : 영역 안 행 집합(경계 포함), limit 적용 시 개수 + 부분집합
+ *  - nearest: k개 거리 목록(동거리 순서는 무관), maxDistanceM 컷
+ *  - 같은 좌표 중복 점, 노드 크기 경계(NODE_SIZE ± 1) 포함
+ */
+class BuildingRTreeTest {
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    @Test
+    void withinMatchesLinearScan() {
+        Random r = new Random(18L);
+        for (int n : new int[]{0, 1, BuildingRTree.NODE_SIZE - 1, BuildingRTree.NODE_SIZE,
+                BuildingRTree.NODE_SIZE + 1, 300, 5000}) {
+            Points p = points(r, n);
+            BuildingRTree tree = p.tree();
+            for (int q = 0; q < 300; q++) {
+                double south = 33 + r.nextDouble() * 6, west = 124.5 + r.nextDouble() * 6.5;
+                double north = south + r.nextDouble() * 1.5, east = west + r.nextDouble() * 1.5;
+                if (q % 10 == 0 && n > 0) { // 점 좌표를 경계로
+                    int k = r.nextInt(n);
+                    south = p.lat[k];
+                    east = p.lon[k];
+                }
+                int[] expected = scanWithin(p, south, west, north, east);
+                int[] got = tree.within(south, west, north, east, Integer.MAX_VALUE);
+                Arrays.sort(got);
+                assertArrayEquals(expected, got, "n " + n + " query " + q);
+
+                int limit = 1 + r.nextInt(20);
+                int[] limited = tree.within(south, west, north, east, limit);
+                assertEquals(Math.min(limit, expected.length), limited.length);
+                Set<Integer> all = new HashSet<>();
+                for (int row : expected) all.add(row);
+                for (int row : limited) assertTrue(all.contains(row));
+            }
+            assertEquals(0, tree.within(35, 127, 34, 128, 10).length); // 뒤집힌 영역
+        }
+    }
+
+    @Test
+    void nearestMatchesLinearScan() {
+        Random r = new Random(19L);
+        for (int n : new int[]{0, 1, BuildingRTree.NODE_SIZE + 1, 300, 5000}) {
+            Points p = points(r, n);
+            BuildingRTree tree = p.tree();
+            for (int q = 0; q < 300; q++) {
+                double qLat = 33 + r.nextDouble() * 6, qLon = 124.5 + r.nextDouble() * 6.5;
+                int k = 1 + r.nextInt(30);
+                double maxM = (q % 3 == 0) ? 0 : r.nextDouble() * 50_000;
+
+                double[] expected = scanNearest(p, qLat, qLon, k, maxM);
+                List<BuildingRTree.Neighbor> got = tree.nearest(qLat, qLon, k, maxM);
+                assertEquals(expected.length, got.size(), "n " + n + " query " + q);
+                for (int i = 0; i < got.size(); i++) {
+                    BuildingRTree.Neighbor nb = got.get(i);
+                    assertEquals(expected[i], nb.distanceM(), 1e-6);
+                    // 돌려준 거리 = 그 행의 실제 거리
+                    assertEquals(distance(qLat, qLon, p.lat[nb.row()], p.lon[nb.row()]), nb.distanceM(), 1e-6);
+                }
+            }
+        }
+    }
+
+    /* ===== 전수 탐색 ===== */
+
+    private static int[] scanWithin(Points p, double south, double west, double north, double east) {
+        return IntStream.range(0, p.lat.length)
+                .filter(i -> p.lat[i] >= south && p.lat[i] <= north && p.lon[i] >= west && p.lon[i] <= east)
+                .toArray();
+    }
+
+    private static double[] scanNearest(Points p, double qLat, double qLon, int k, double maxM) {
+        double limit = (maxM > 0) ? maxM : Double.POSITIVE_INFINITY;
+        return Arrays.stream(IntStream.range(0, p.lat.length)
+                        .mapToDouble(i -> distance(qLat, qLon, p.lat[i], p.lon[i]))
+                        .filter(d -> d <= limit)
+                        .sorted()
+                        .toArray())
+                .limit(k)
+                .toArray();
+    }
+
+    // BuildingRTree 와 같은 등장방형 근사(질의점 위도 기준)
+    private static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double cos = Math.cos(Math.toRadians(lat1));
+        double dy = Math.toRadians(lat2 - lat1);
+        double dx = Math.toRadians(lon2 - lon1) * cos;
+        return EARTH_RADIUS_M * Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /* ===== 입력 ===== */
+
+    // 행 번호 = 배열 인덱스. 일부는 격자 좌표로 중복(같은 필지 여러 동)
+    private record Points(double[] lat, double[] lon) {
+        BuildingRTree tree() {
+            int n = lat.length;
+            int[] rows = new int[n];
+            for (int i = 0; i < n; i++) rows[i] = i;
+            return BuildingRTree.build(rows, lat.clone(), lon.clone()); // build 는 입력을 재배열
+        }
+    }
+
+    private static Points points(Random r, int n) {
+        double[] lat = new double[n], lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && r.nextInt(10) == 0) {
+                int j = r.nextInt(i);
+                lat[i] = lat[j];
+                lon[i] = lon[j];
+            } else {
+                lat[i] = 33 + r.nextDouble() * 6;
+                lon[i] = 124.5 + r.nextDouble() * 6.5;
+            }
+        }
+        return new Points(lat, lon);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 건물 데이터셋 스냅샷(BuildingSnapshotFile) 검증.
+ *  - 쓰기 → open 왕복: 모든 행의 모든 컬럼(비정형·중복 PNU, null 문자열, NaN, 좌표, 월별/연도별 가변 길이)이 그대로
+ *  - 데이터셋별 원본 지문(Source) 왕복, 지문 없는 데이터셋은 UNKNOWN
+ *  - 본문 1바이트 변조 → checksum mismatch, 버전 불일치 → 예외
+ */
+class BuildingSnapshotFileTest {
+
+    private static final String[] TYPES = {"공장", "교육연구시설", "업무시설", " 업무시설 ", "", null};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyRowRoundTrips() throws IOException {
+        Map<String, BuildingColumnStore> datasets = new LinkedHashMap<>();
+        datasets.put("search", randomStore(new Random(14L), 2000));
+        datasets.put("empty", BuildingColumnStore.builder(0).build());
+        datasets.put("energy", randomStore(new Random(15L), 37));
+        Path file = dir.resolve("buildings.snapshot");
+        BuildingSnapshotFile.write(file, datasets, Map.of());
+
+        BuildingSnapshotFile.Contents contents = BuildingSnapshotFile.open(file, true);
+        assertEquals(List.copyOf(datasets.keySet()), List.copyOf(contents.datasets().keySet()));
+        for (Map.Entry<String, BuildingColumnStore> e : datasets.entrySet()) {
+            assertSameRows(e.getValue(), contents.datasets().get(e.getKey()), e.getKey());
+        }
+    }
+
+    @Test
+    void lookupsWorkOnMappedStore() throws IOException {
+        BuildingColumnStore expected = randomStore(new Random(16L), 500);
+        Path file = dir.resolve("buildings.snapshot");
+        BuildingSnapshotFile.write(file, Map.of("search", expected), Map.of());
+        BuildingColumnStore got = BuildingSnapshotFile.open(file, true).datasets().get("search");
+
+        BuildingColumnStore.Row v = expected.row(0);
+        for (int r = 0; r < expected.size(); r++) {
+            String pnu = v.moveTo(r).pnu();
+            if (pnu == null) continue;
+            assertEquals(expected.rowOf(pnu), got.rowOf(pnu), pnu);
+        }
+        assertEquals(-1, got.rowOf("없는 PNU"));
+    }
+
+    @Test
+    void sourcesRoundTrip() throws IOException {
+        byte[] json = "[{\"pnu\":\"3020011200100010000\"}]".getBytes(StandardCharsets.UTF_8);
+        BuildingSnapshotFile.Source search = BuildingSnapshotFile.Source.of("/data/searchbuildingdata.json",
+                1_760_000_000_000L, new ByteArrayInputStream(json));
+        assertEquals(json.length, search.size());
+        assertEquals(HashUtils.toHex(HashUtils.sha256(json, 0, -1)), search.sha256());
+
+        Map<String, BuildingColumnStore> datasets = new LinkedHashMap<>();
+        datasets.put("search", randomStore(new Random(17L), 10));
+        datasets.put("green", randomStore(new Random(18L), 10));
+        Path file = dir.resolve("buildings.snapshot");
+        BuildingSnapshotFile.write(file, datasets, Map.of("search", search));
+
+        Map<String, BuildingSnapshotFile.Source> sources = BuildingSnapshotFile.open(file, true).sources();
+        assertEquals(search, sources.get("search"));
+        assertEquals(BuildingSnapshotFile.Source.UNKNOWN, sources.get("green"));
+
+        // 같은 내용이면 위치/수정 시각이 달라도 일치, 1바이트라도 다르면 불일치, UNKNOWN 은 무엇과도 불일치
+        assertTrue(search.sameContent(BuildingSnapshotFile.Source.of("classpath:search.json", -1, new ByteArrayInputStream(json))));
+        json[json.length - 2] = '1';
+        assertFalse(search.sameContent(BuildingSnapshotFile.Source.of("/data/searchbuildingdata.json", 1_760_000_000_000L,
+                new ByteArrayInputStream(json))));
+        assertFalse(BuildingSnapshotFile.Source.UNKNOWN.sameContent(BuildingSnapshotFile.Source.UNKNOWN));
+        assertFalse(search.sameContent(null));
+    }
+
+    @Test
+    void corruptedOrForeignFilesFail() throws IOException {
+        Path file = dir.resolve("buildings.snapshot");
+        BuildingSnapshotFile.write(file, Map.of("search", randomStore(new Random(19L), 300)), Map.of());
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] body = bytes.clone();
+        body[body.length / 2] ^= 0x01;
+        Files.write(file, body);
+        IOException crc = assertThrows(IOException.class, () -> BuildingSnapshotFile.open(file, true));
+        assertTrue(crc.getMessage().contains("checksum"), crc.getMessage());
+
+        byte[] version = bytes.clone();
+        ByteBuffer.wrap(version).putInt(4, BuildingSnapshotFile.VERSION - 1);
+        Files.write(file, version);
+        IOException v = assertThrows(IOException.class, () -> BuildingSnapshotFile.open(file, false));
+        assertTrue(v.getMessage().contains("version"), v.getMessage());
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> BuildingSnapshotFile.open(file, false));
+    }
+
+    /* ===== 비교 ===== */
+
+    private static void assertSameRows(BuildingColumnStore expected, BuildingColumnStore got, String label) {
+        assertEquals(expected.size(), got.size(), label);
+        if (expected.size() == 0) return;
+        BuildingColumnStore.Row e = expected.row(0);
+        BuildingColumnStore.Row g = got.row(0);
+        for (int r = 0; r < expected.size(); r++) {
+            e.moveTo(r);
+            g.moveTo(r);
+            String at = label + " row " + r;
+            assertEquals(e.pnuKey(), g.pnuKey(), at);
+            assertEquals(e.pnu(), g.pnu(), at);
+            assertEquals(e.buildingName(), g.buildingName(), at);
+            assertEquals(e.address(), g.address(), at);
+            assertEquals(e.buildingType1(), g.buildingType1(), at);
+            assertEquals(e.buildingType2(), g.buildingType2(), at);
+            assertEquals(e.floorAreaM2(), g.floorAreaM2(), at);
+            assertEquals(e.usageYear(), g.usageYear(), at);
+            assertEquals(e.electricityUsageKwh(), g.electricityUsageKwh(), at);
+            assertEquals(e.energyIntensityKwhPerM2(), g.energyIntensityKwhPerM2(), at);
+            assertEquals(e.lat(), g.lat(), at);
+            assertEquals(e.lon(), g.lon(), at);
+            assertEquals(e.monthlyCount(), g.monthlyCount(), at);
+            for (int i = 0; i < e.monthlyCount(); i++) {
+                assertEquals(e.month(i), g.month(i), at + " month #" + i);
+                assertEquals(e.monthlyElectricity(i), g.monthlyElectricity(i), at + " month #" + i);
+            }
+            assertEquals(e.yearlyCount(), g.yearlyCount(), at);
+            for (int i = 0; i < e.yearlyCount(); i++) {
+                assertEquals(e.year(i), g.year(i), at + " year #" + i);
+                assertEquals(e.yearlyElectricity(i), g.yearlyElectricity(i), at + " year #" + i);
+            }
+        }
+    }
+
+    /* ===== 입력 ===== */
+
+    private static BuildingColumnStore randomStore(Random r, int n) {
+        BuildingColumnStore.Builder b = BuildingColumnStore.builder(n);
+        for (int i = 0; i < n; i++) {
+            String pnu = switch (r.nextInt(12)) {
+                case 0 -> null;
+                case 1 -> "";
+                case 2 -> "A-" + r.nextInt(5); // 비정형(중복 포함)
+                case 3 -> " 산 " + i + "-번지 "; // 비정형 + 앞뒤 공백
+                case 4 -> "30200" + String.format("%014d", r.nextInt(20)); // 중복 정형 PNU
+                default -> "30" + String.format("%017d", r.nextLong(100_000_000_000_000_000L));
+            };
+            b.beginRow(pnu,
+                    (r.nextInt(10) == 0) ? null : "건물 " + i + " ✓",
+                    (r.nextInt(5) == 0) ? null : "대전광역시 서구 " + r.nextInt(1000) + "번길",
+                    TYPES[r.nextInt(TYPES.length)],
+                    TYPES[r.nextInt(TYPES.length)],
+                    (r.nextInt(8) == 0) ? Double.NaN : r.nextDouble() * 50_000,
+                    (r.nextInt(8) == 0) ? BuildingColumnStore.NO_YEAR : 1950 + r.nextInt(75),
+                    (r.nextInt(8) == 0) ? Double.NaN : r.nextDouble() * 1e7,
+                    (r.nextInt(8) == 0) ? Double.NaN : r.nextDouble() * 600);
+            if (r.nextInt(3) > 0) b.location(33 + r.nextDouble() * 6, 124.5 + r.nextDouble() * 6.5);
+            int months = r.nextInt(4) == 0 ? 0 : r.nextInt(15);
+            for (int m = 0; m < months; m++) {
+                b.monthly(r.nextInt(13), (r.nextInt(10) == 0) ? Double.NaN : r.nextDouble() * 1e5);
+            }
+            int years = r.nextInt(4);
+            for (int y = 0; y < years; y++) {
+                b.yearly(2018 + r.nextInt(7), (r.nextInt(10) == 0) ? Double.NaN : r.nextDouble() * 1e6);
+            }
+        }
+        return b.build();
+    }
+}
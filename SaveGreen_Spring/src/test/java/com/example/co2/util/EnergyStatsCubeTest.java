@@ -0,0 +1,214 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 통계 큐브(EnergyStatsCube) ↔ 전수 스캔 일치 검증.
+ *  - cell / range / rollup 의 count, sum, min, max 는 스캔과 같아야 한다.
+ *  - quantile 은 로그 버킷 스케치라 상대오차 1% 이내.
+ *  - 지역 없는 PNU(숫자 5자리 미만/비정형), 용도 공백·null, 준공연도 없음 행 포함.
+ */
+class EnergyStatsCubeTest {
+
+    private static final String[] SGG = {"11110", "11680", "26440", "30200", "30230", "41135"};
+    private static final String[] TYPES = {"공장", " 공장 ", "교육연구시설", "업무시설", "", null};
+    private static final double[] QUANTILES = {0, 0.1, 0.5, 0.9, 1};
+
+    @Test
+    void cellsMatchScan() {
+        Data d = data(new Random(19L), 3000);
+        EnergyStatsCube cube = EnergyStatsCube.of(d.store);
+
+        List<String> regions = new ArrayList<>(List.of(EnergyStatsCube.ALL));
+        for (String s : SGG) {
+            if (!regions.contains(s.substring(0, 2))) regions.add(s.substring(0, 2));
+            regions.add(s);
+        }
+        regions.add("99"); // 없는 시도
+        List<Integer> decades = new ArrayList<>(List.of(EnergyStatsCube.ALL_DECADES, 1950));
+        for (int y = 1960; y <= 2020; y += 10) decades.add(y);
+
+        int checked = 0;
+        for (String region : regions) {
+            for (String type : List.of(EnergyStatsCube.ALL, "공장", "교육연구시설", "업무시설", "없는용도")) {
+                for (int decade : decades) {
+                    IntPredicate match = d.region(region).and(d.type(type)).and(d.decade(decade, decade));
+                    assertCell(d, match, cube.cell(region, type, decade), region + "|" + type + "|" + decade);
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 500);
+        // 조회 인자 정규화: null/공백 = 전체, 앞뒤 공백 무시
+        assertCell(d, d.region("*").and(d.type("*")).and(d.decade(EnergyStatsCube.ALL_DECADES, EnergyStatsCube.ALL_DECADES)),
+                cube.cell(null, " ", EnergyStatsCube.ALL_DECADES), "normalised");
+        assertCell(d, d.region("30").and(d.type("공장")).and(d.decade(EnergyStatsCube.ALL_DECADES, EnergyStatsCube.ALL_DECADES)),
+                cube.cell(" 30 ", " 공장", EnergyStatsCube.ALL_DECADES), "trimmed");
+    }
+
+    @Test
+    void rangesMatchScan() {
+        Data d = data(new Random(20L), 3000);
+        EnergyStatsCube cube = EnergyStatsCube.of(d.store);
+        int all = EnergyStatsCube.ALL_DECADES;
+        int[][] ranges = {{all, all}, {all, 1990}, {2000, all}, {1970, 1990}, {1990, 1990}, {2000, 1980}, {1900, 1940}};
+        for (String region : List.of("*", "11", "30230", "41")) {
+            for (String type : List.of("*", "공장", "업무시설")) {
+                for (int[] r : ranges) {
+                    IntPredicate match = d.region(region).and(d.type(type)).and(d.decade(r[0], r[1]));
+                    assertCell(d, match, cube.range(region, type, r[0], r[1]),
+                            region + "|" + type + "|" + r[0] + ".." + r[1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rollupsMatchScan() {
+        Data d = data(new Random(21L), 3000);
+        EnergyStatsCube cube = EnergyStatsCube.of(d.store);
+        int all = EnergyStatsCube.ALL_DECADES;
+
+        for (int[] r : new int[][]{{all, all}, {all, 1990}, {2000, 2010}}) {
+            // by sido: 다른 조건 = 용도 "공장"
+            Map<String, IntPredicate> sidos = new LinkedHashMap<>();
+            for (String s : SGG) sidos.putIfAbsent(s.substring(0, 2), d.region(s.substring(0, 2)));
+            assertRollup(d, cube.rollup("sido", "*", "공장", r[0], r[1]), sidos, d.type("공장").and(d.decade(r[0], r[1])));
+
+            // by sigungu: 시도 "30" 안에서만
+            Map<String, IntPredicate> sggs = new LinkedHashMap<>();
+            for (String s : SGG) if (s.startsWith("30")) sggs.put(s, d.region(s));
+            assertRollup(d, cube.rollup("sigungu", "30", "*", r[0], r[1]), sggs, d.decade(r[0], r[1]));
+
+            // by category: 지역 "11"
+            Map<String, IntPredicate> types = new LinkedHashMap<>();
+            for (String t : new TreeSet<>(List.of("공장", "교육연구시설", "업무시설"))) types.put(t, d.type(t));
+            assertRollup(d, cube.rollup("category", "11", null, r[0], r[1]), types,
+                    d.region("11").and(d.decade(r[0], r[1])));
+        }
+
+        // by decade: 연대 칸 각각(구간 필터)
+        Map<String, IntPredicate> decades = new LinkedHashMap<>();
+        for (int y = 1980; y <= 2000; y += 10) decades.put(String.valueOf(y), d.decade(y, y));
+        assertRollup(d, cube.rollup("decade", "*", "*", 1980, 2000), decades, i -> true);
+
+        assertThrows(IllegalArgumentException.class, () -> cube.rollup("month", "*", "*", all, all));
+    }
+
+    @Test
+    void emptyCube() {
+        assertNull(EnergyStatsCube.EMPTY.cell("*", "*", EnergyStatsCube.ALL_DECADES));
+        assertNull(EnergyStatsCube.EMPTY.range("*", "*", 1990, 2000));
+        assertEquals(0, EnergyStatsCube.EMPTY.rollup("sido", "*", "*", 1990, 2000).size());
+    }
+
+    /* ===== 비교 ===== */
+
+    private static void assertRollup(Data d, List<EnergyStatsCube.Group> got, Map<String, IntPredicate> groups,
+                                     IntPredicate rest) {
+        List<String> expectedKeys = new ArrayList<>();
+        for (Map.Entry<String, IntPredicate> g : groups.entrySet()) {
+            IntPredicate match = g.getValue().and(rest);
+            if (d.values(match).length > 0) expectedKeys.add(g.getKey());
+        }
+        assertEquals(expectedKeys, got.stream().map(EnergyStatsCube.Group::key).toList());
+        for (EnergyStatsCube.Group g : got) {
+            assertCell(d, groups.get(g.key()).and(rest), g.cell(), "rollup " + g.key());
+        }
+    }
+
+    private static void assertCell(Data d, IntPredicate match, EnergyStatsCube.Cell cell, String label) {
+        double[] v = d.values(match);
+        if (v.length == 0) {
+            assertNull(cell, label);
+            return;
+        }
+        assertEquals(v.length, cell.count(), label);
+        double sum = Arrays.stream(v).sum();
+        assertEquals(sum, cell.sum(), 1e-9 * Math.max(1, Math.abs(sum)), label);
+        Arrays.sort(v);
+        assertEquals(v[0], cell.min(), 0.0, label);
+        assertEquals(v[v.length - 1], cell.max(), 0.0, label);
+        for (double q : QUANTILES) {
+            double exact = v[(int) Math.floor(q * (v.length - 1))];
+            if (exact <= 0) continue; // 0 이하는 버킷 밖(min 으로 답함)
+            assertEquals(exact, cell.quantile(q), exact * 0.01 + 1e-9, label + " q" + q);
+        }
+    }
+
+    /* ===== 입력 ===== */
+
+    private record Data(BuildingColumnStore store, String[] pnu, String[] type, int[] year, double[] eui) {
+
+        IntPredicate region(String region) {
+            String r = region.trim();
+            if (EnergyStatsCube.ALL.equals(r)) return i -> true;
+            return i -> pnu[i] != null && pnu[i].length() >= 5 && pnu[i].substring(0, 5).chars().allMatch(Character::isDigit)
+                    && pnu[i].startsWith(r) && (r.length() == 2 || r.length() == 5);
+        }
+
+        IntPredicate type(String t) {
+            if (t == null || t.isBlank() || EnergyStatsCube.ALL.equals(t.trim())) return i -> true;
+            return i -> type[i] != null && !type[i].isBlank() && type[i].trim().equals(t.trim());
+        }
+
+        // [from, to] 연대(양끝 포함). 둘 다 ALL = 연도 없는 행 포함 전체, 한쪽만 ALL = 그쪽 무제한(연도 있는 행만)
+        IntPredicate decade(int from, int to) {
+            int all = EnergyStatsCube.ALL_DECADES;
+            if (from == all && to == all) return i -> true;
+            return i -> {
+                if (year[i] == BuildingColumnStore.NO_YEAR) return false;
+                int dec = Math.floorDiv(year[i], 10) * 10;
+                return (from == all || dec >= from) && (to == all || dec <= to);
+            };
+        }
+
+        double[] values(IntPredicate match) {
+            return IntStream.range(0, eui.length)
+                    .filter(i -> !Double.isNaN(eui[i]) && match.test(i))
+                    .mapToDouble(i -> eui[i])
+                    .toArray();
+        }
+    }
+
+    private static Data data(Random r, int n) {
+        BuildingColumnStore.Builder b = BuildingColumnStore.builder(n);
+        String[] pnu = new String[n], type = new String[n];
+        int[] year = new int[n];
+        double[] eui = new double[n];
+        for (int i = 0; i < n; i++) {
+            String sgg = SGG[r.nextInt(SGG.length)];
+            pnu[i] = switch (r.nextInt(20)) {
+                case 0 -> null;
+                case 1 -> "ABC" + i;                 // 지역 없음
+                case 2 -> "123";                     // 5자리 미만
+                case 3 -> sgg + "-irregular-" + i;   // 비정형이지만 앞 5자리 숫자
+                default -> sgg + String.format("%014d", r.nextLong(100_000_000_000_000L));
+            };
+            type[i] = TYPES[r.nextInt(TYPES.length)];
+            year[i] = (r.nextInt(8) == 0) ? BuildingColumnStore.NO_YEAR : 1955 + r.nextInt(70);
+            eui[i] = switch (r.nextInt(25)) {
+                case 0 -> Double.NaN;  // 원단위 없음 → 큐브 제외
+                case 1 -> 0;
+                default -> 20 + r.nextDouble() * 600;
+            };
+            b.beginRow(pnu[i], "건물" + i, null, null, type[i], 100, year[i], 1000, eui[i]);
+        }
+        return new Data(b.build(), pnu, type, year, eui);
+    }
+}
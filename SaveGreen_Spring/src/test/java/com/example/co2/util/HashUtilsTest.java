@@ -0,0 +1,114 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * HashUtils.murmur3x64_128 ↔ 참조 구현 출력 고정.
+ *  - 기대값은 Guava Hashing.murmur3_128(seed) 와 commons-codec MurmurHash3.hash128x64 (둘이 일치)로 뽑은 {h1, h2}.
+ *  - 입력 = "The quick brown fox jumps over the lazy dog" 의 앞 len 바이트: 블록 0~2개 × 꼬리 0~15바이트 전부.
+ *  - SMHasher 검증값(0x6384BA69): 원 저자 구현의 자체 검증 절차를 그대로 돌린 결과.
+ */
+class HashUtilsTest {
+
+    private static final byte[] FOX = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+
+    // {seed, len, h1, h2}
+    private static final long[][] VECTORS = {
+            {0, 0, 0x0000000000000000L, 0x0000000000000000L},
+            {0, 1, 0x8c03777e9184689aL, 0x3ab5d6b4ba293e79L},
+            {0, 2, 0xd7dd0beaee68e3b9L, 0xa56fb69099026b97L},
+            {0, 3, 0x304f2652dcd66d9aL, 0xef385e5d15eabf42L},
+            {0, 4, 0xbd4301beaba07d9cL, 0xdfae3c4b8026dd1cL},
+            {0, 5, 0x6f7aac75205270feL, 0x76f5ebd390dac61fL},
+            {0, 6, 0x796e1100f3f66746L, 0xb2a07e0b1665ab1fL},
+            {0, 7, 0xf0d3843a5abcd5c9L, 0x9394b7f9c86d6073L},
+            {0, 8, 0x644baae4ad5b71cdL, 0x8eeef997e2881cdfL},
+            {0, 9, 0x37a06404b2a8f155L, 0xadbcc8ff3d6eccc0L},
+            {0, 10, 0x420e44df457484b8L, 0x9cabadd477515fe9L},
+            {0, 11, 0x87c320550739a882L, 0xfa91e8a5d66e7b9fL},
+            {0, 12, 0x61d6a1372f90f9cbL, 0xb66353ea7c002529L},
+            {0, 13, 0x3c600c93f99bfd3bL, 0xc3e13319056f26f4L},
+            {0, 14, 0xdcd216a95d6e6007L, 0x84c1eeb85c46c838L},
+            {0, 15, 0x48137cb864e39216L, 0xfd7baf64397ad64bL},
+            {0, 16, 0x9d1244f4af9b32c4L, 0x3d153c8b2c2a3aa6L},
+            {0, 17, 0x91f96376e757e9aeL, 0x9b44e58dae83eb0cL},
+            {0, 18, 0x4e85fa437c51ea55L, 0xab78a6c881f71c66L},
+            {0, 19, 0x85a60ea92caa4a2aL, 0xfde55440169b939eL},
+            {0, 20, 0xb9dce6db3c8c3cbfL, 0x689b6f71e0c7fa6eL},
+            {0, 21, 0x20f996ee33734f68L, 0x5908d0456c69f2ceL},
+            {0, 22, 0xef74c84e2d71c551L, 0x0edbb1a50e70ce5eL},
+            {0, 23, 0x25cc3b72e0851d67L, 0x937c3cfeaf07a94dL},
+            {0, 24, 0x71264eee42007ce5L, 0x32a8e9f120366d2bL},
+            {0, 25, 0xe48f444ca7740bd2L, 0x6ac81b382464ec36L},
+            {0, 26, 0x57a1942f3bec788eL, 0xaa18ef4be7a31844L},
+            {0, 27, 0x04bf77861f2fe51aL, 0x4bc4ddff57381b26L},
+            {0, 28, 0xfccf5dd1785bef0bL, 0x6a8339427a45d2d0L},
+            {0, 29, 0x3792e2c446d4f861L, 0xf442759b43112ab9L},
+            {0, 30, 0x89ac74e06f1c6a5dL, 0x4dd271890c8ebf03L},
+            {0, 31, 0x9b28b5ddd9c4c509L, 0x0d3c1cb80fe2f964L},
+            {0, 32, 0xdf6af91bb29bdacfL, 0x91a341c58df1f3a6L},
+            {0, 33, 0x68d135cdab7bb3ddL, 0xe617f8470728bb01L},
+            {0, 43, 0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L},
+            {42, 0, 0xf02aa77dfa1b8523L, 0xd1016610da11cbb9L},
+            {42, 1, 0x2381bbdcb1e048dcL, 0x3a97a4fcb12235f7L},
+            {42, 7, 0x64faa0f40cf53023L, 0xfc206d9c607b5065L},
+            {42, 8, 0x08ccd4feeee3d10aL, 0x1a728d81c3fc4398L},
+            {42, 9, 0xe9be7c264409f958L, 0x78661be609cfc5f0L},
+            {42, 15, 0x6bfef29e9ac88862L, 0x96483b7937655cf1L},
+            {42, 16, 0x5c23c863307ecc24L, 0x40d7ccbf8bb0ba25L},
+            {42, 17, 0x281fc470e876a10bL, 0x1cff5f6ca08601cfL},
+            {42, 43, 0x740dcf93fe0bd5d7L, 0xc4546cf4ec705c8fL},
+    };
+
+    @Test
+    void murmur3MatchesReferenceVectors() {
+        for (long[] v : VECTORS) {
+            long[] h = HashUtils.murmur3x64_128(FOX, 0, (int) v[1], v[0]);
+            assertArrayEquals(new long[]{v[2], v[3]}, h, "seed " + v[0] + " len " + v[1]);
+        }
+    }
+
+    @Test
+    void murmur3HonoursOffset() {
+        // 앞뒤에 다른 바이트를 둔 버퍼의 [off, off+len) 만 해시해야 한다
+        byte[] padded = new byte[FOX.length + 11];
+        Arrays.fill(padded, (byte) 0x5a);
+        System.arraycopy(FOX, 0, padded, 5, FOX.length);
+        for (long[] v : VECTORS) {
+            long[] h = HashUtils.murmur3x64_128(padded, 5, (int) v[1], v[0]);
+            assertArrayEquals(new long[]{v[2], v[3]}, h, "seed " + v[0] + " len " + v[1]);
+        }
+    }
+
+    @Test
+    void murmur3PassesSmhasherVerification() {
+        // key[i] = i, 길이 i 인 앞부분을 seed 256-i 로 해시 → 결과 16바이트(LE h1 | LE h2)를 이어 붙여 seed 0 으로 다시 해시
+        byte[] key = new byte[256];
+        byte[] hashes = new byte[256 * 16];
+        for (int i = 0; i < 256; i++) {
+            key[i] = (byte) i;
+            long[] h = HashUtils.murmur3x64_128(key, 0, i, 256 - i);
+            putLongLE(hashes, i * 16, h[0]);
+            putLongLE(hashes, i * 16 + 8, h[1]);
+        }
+        long[] f = HashUtils.murmur3x64_128(hashes, 0, hashes.length, 0);
+        assertEquals(0x6384BA69, (int) f[0]); // 첫 4바이트(LE) = h1 하위 32비트
+    }
+
+    @Test
+    void toHexIsH1ThenH2() {
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347", HashUtils.toHex(0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L));
+        assertEquals("000000000000000100000000000000ff", HashUtils.toHex(1L, 0xffL));
+        assertEquals("0aff", HashUtils.toHex(new byte[]{0x0a, (byte) 0xff}));
+    }
+
+    private static void putLongLE(byte[] b, int p, long v) {
+        for (int i = 0; i < 8; i++) b[p + i] = (byte) (v >>> (8 * i));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * KD-tree(KdTree) k-NN ↔ 전수 스캔 일치 검증.
+ *  - 거리 목록(오름차순)이 같아야 한다. 동거리 후보 중 어느 행이 뽑히는지는 무관 → 각 행의 실제 거리로 확인.
+ *  - 가중치 0 차원(동거리가 대량으로 생김), 중복 점, 기준 행 자신 제외(exclude) 포함.
+ */
+class KdTreeTest {
+
+    @Test
+    void nearestMatchesScan() {
+        Random r = new Random(20L);
+        for (int dim : new int[]{1, 2, 4, 7}) {
+            for (int n : new int[]{1, 2, 17, 500, 4000}) {
+                double[] pts = points(r, n, dim);
+                int[] rows = rows(n);
+                KdTree tree = KdTree.build(dim, pts.clone(), rows);
+                for (int q = 0; q < 200; q++) {
+                    double[] query = new double[dim];
+                    for (int d = 0; d < dim; d++) query[d] = r.nextGaussian();
+                    double[] w = weights(r, dim, q % 4 == 0);
+                    int k = 1 + r.nextInt(25);
+                    assertNearest(tree, pts, rows, dim, query, w, k, -1, "dim " + dim + " n " + n + " q " + q);
+                }
+            }
+        }
+    }
+
+    @Test
+    void excludesQueryRow() {
+        Random r = new Random(21L);
+        int dim = 5, n = 3000;
+        double[] pts = points(r, n, dim);
+        int[] rows = rows(n);
+        KdTree tree = KdTree.build(dim, pts.clone(), rows);
+        for (int q = 0; q < 300; q++) {
+            int self = r.nextInt(n);
+            double[] query = new double[dim];
+            System.arraycopy(pts, self * dim, query, 0, dim); // 기준 건물 자신의 좌표로 질의
+            double[] w = weights(r, dim, q % 3 == 0);
+            int k = 1 + r.nextInt(15);
+            List<KdTree.Neighbor> got = assertNearest(tree, pts, rows, dim, query, w, k, rows[self], "q " + q);
+            for (KdTree.Neighbor nb : got) assertNotEquals(rows[self], nb.row());
+        }
+    }
+
+    @Test
+    void allZeroWeightsTieEverywhere() {
+        Random r = new Random(22L);
+        int dim = 3, n = 200;
+        double[] pts = points(r, n, dim);
+        KdTree tree = KdTree.build(dim, pts.clone(), rows(n));
+        List<KdTree.Neighbor> got = tree.nearest(new double[]{0.5, -1, 2}, new double[dim], 10, -1);
+        assertEquals(10, got.size());
+        Set<Integer> distinct = new HashSet<>();
+        for (KdTree.Neighbor nb : got) {
+            assertEquals(0.0, nb.distance());
+            assertTrue(distinct.add(nb.row()));
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        KdTree empty = KdTree.build(2, new double[0], new int[0]);
+        assertEquals(0, empty.nearest(new double[]{0, 0}, new double[]{1, 1}, 5, -1).size());
+        KdTree one = KdTree.build(2, new double[]{1, 2}, new int[]{42});
+        assertEquals(0, one.nearest(new double[]{0, 0}, new double[]{1, 1}, 0, -1).size());
+        assertEquals(0, one.nearest(new double[]{0, 0}, new double[]{1, 1}, 3, 42).size());
+        assertEquals(List.of(new KdTree.Neighbor(42, 5.0)), one.nearest(new double[]{0, 0}, new double[]{1, 1}, 3, -1));
+        assertThrows(IllegalArgumentException.class, () -> KdTree.build(0, new double[0], new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> KdTree.build(2, new double[3], new int[2]));
+    }
+
+    /* ===== 비교 ===== */
+
+    private static List<KdTree.Neighbor> assertNearest(KdTree tree, double[] pts, int[] rows, int dim, double[] q,
+                                                       double[] w, int k, int exclude, String label) {
+        double[] expected = IntStream.range(0, rows.length)
+                .filter(i -> rows[i] != exclude)
+                .mapToDouble(i -> distance(pts, dim, i, q, w))
+                .sorted()
+                .limit(k)
+                .toArray();
+        List<KdTree.Neighbor> got = tree.nearest(q, w, k, exclude);
+        assertEquals(expected.length, got.size(), label);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < got.size(); i++) {
+            KdTree.Neighbor nb = got.get(i);
+            assertEquals(expected[i], nb.distance(), 1e-12, label + " #" + i);
+            int p = indexOf(rows, nb.row());
+            assertEquals(distance(pts, dim, p, q, w), nb.distance(), 1e-12, label + " row " + nb.row());
+            assertTrue(seen.add(nb.row()), label + " duplicate row " + nb.row());
+        }
+        return got;
+    }
+
+    // KdTree 와 같은 가중 제곱 거리
+    private static double distance(double[] pts, int dim, int p, double[] q, double[] w) {
+        double s = 0;
+        for (int d = 0; d < dim; d++) {
+            double x = q[d] - pts[p * dim + d];
+            s += w[d] * x * x;
+        }
+        return s;
+    }
+
+    private static int indexOf(int[] rows, int row) {
+        for (int i = 0; i < rows.length; i++) if (rows[i] == row) return i;
+        throw new AssertionError("unknown row " + row);
+    }
+
+    /* ===== 입력 ===== */
+
+    // 표준화 특징처럼 평균 0 근처, 10% 는 앞선 점과 같은 좌표(중복)
+    private static double[] points(Random r, int n, int dim) {
+        double[] pts = new double[n * dim];
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && r.nextInt(10) == 0) {
+                System.arraycopy(pts, r.nextInt(i) * dim, pts, i * dim, dim);
+                continue;
+            }
+            for (int d = 0; d < dim; d++) pts[i * dim + d] = (d == 0) ? Math.round(r.nextGaussian() * 4) / 4.0 : r.nextGaussian();
+        }
+        return pts;
+    }
+
+    // 행 번호 ≠ 점 번호(호출부 행 번호가 그대로 나오는지)
+    private static int[] rows(int n) {
+        return IntStream.range(0, n).map(i -> 1000 + 3 * i).toArray();
+    }
+
+    private static double[] weights(Random r, int dim, boolean someZero) {
+        double[] w = new double[dim];
+        for (int d = 0; d < dim; d++) w[d] = (someZero && r.nextBoolean()) ? 0 : 0.1 + r.nextDouble() * 2;
+        return w;
+    }
+}
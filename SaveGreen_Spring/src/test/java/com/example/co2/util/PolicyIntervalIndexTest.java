@@ -0,0 +1,138 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/*
+ * 정책 구간 색인(PolicyIntervalIndex) ↔ 전수 탐색 일치 검증.
+ *  - 전수 탐색 = 기존 findFirstBy...MinLessThanEqualAnd...MaxGreaterThanEqual (id 오름차순 첫 행, null 구간 제외)
+ *  - 점 구간(min == max), 맞닿은 끝점, null/뒤집힌 구간, scale 만 다른 BigDecimal(5 / 5.0 / 5.00) 포함
+ */
+class PolicyIntervalIndexTest {
+
+    private record Policy(long id, BigDecimal min, BigDecimal max) {}
+
+    @Test
+    void findMatchesScan() {
+        Random r = new Random(24L);
+        for (int n : new int[]{0, 1, 2, 5, 30, 200}) {
+            for (int round = 0; round < 50; round++) {
+                List<Policy> rows = randomPolicies(r, n);
+                PolicyIntervalIndex<Policy> index = index(rows);
+                assertEquals(rows.stream().filter(PolicyIntervalIndexTest::valid).count(), index.size());
+
+                // 0.5 격자점 전부(scale 섞어서) + 격자점 바로 아래(열린 조각)
+                List<BigDecimal> queries = new ArrayList<>();
+                for (int v = -2; v <= 55; v++) {
+                    queries.add(decimal(r, v * 10));
+                    queries.add(decimal(r, v * 10 + 5));
+                    queries.add(new BigDecimal(v).subtract(new BigDecimal("0.001")));
+                }
+                for (BigDecimal x : queries) {
+                    assertSame(scan(rows, x), index.find(x), "n " + n + " x " + x);
+                }
+                assertNull(index.find(null));
+            }
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        BigDecimal five = new BigDecimal("5");
+        List<Policy> rows = List.of(
+                new Policy(7, new BigDecimal("0"), new BigDecimal("5.00")),   // [0, 5]
+                new Policy(3, new BigDecimal("5.0"), new BigDecimal("10")),   // [5, 10] — 5 에서 맞닿음, id 더 작음
+                new Policy(9, new BigDecimal("10.000"), new BigDecimal("10")), // 점 구간 [10, 10]
+                new Policy(1, null, new BigDecimal("100")),                    // null 하한 → 제외
+                new Policy(2, new BigDecimal("20"), null),                     // null 상한 → 제외
+                new Policy(4, new BigDecimal("30"), new BigDecimal("20")),     // 뒤집힌 구간 → 제외
+                new Policy(8, new BigDecimal("12.5"), new BigDecimal("12.50")) // 점 구간(scale 다름)
+        );
+        PolicyIntervalIndex<Policy> index = index(rows);
+        assertEquals(4, index.size());
+
+        assertEquals(7, index.find(new BigDecimal("4.999")).id());
+        assertEquals(3, index.find(five).id());
+        assertEquals(3, index.find(new BigDecimal("5.000")).id());
+        assertEquals(3, index.find(new BigDecimal("10.0")).id());
+        assertEquals(8, index.find(new BigDecimal("12.5000")).id());
+        assertEquals(7, index.find(BigDecimal.ZERO).id());
+        assertNull(index.find(new BigDecimal("-0.0001")));
+        assertNull(index.find(new BigDecimal("10.0001")));
+        assertNull(index.find(new BigDecimal("12.4999")));
+        assertNull(index.find(new BigDecimal("25")));   // 뒤집힌 구간 안쪽
+        assertNull(index.find(new BigDecimal("50")));   // null 구간만 덮는 값
+
+        // 같은 구간이면 id 가 가장 작은 행(입력 순서 무관)
+        List<Policy> same = new ArrayList<>(List.of(
+                new Policy(30, BigDecimal.ONE, BigDecimal.TEN),
+                new Policy(10, new BigDecimal("1.0"), new BigDecimal("10.0")),
+                new Policy(20, BigDecimal.ONE, BigDecimal.TEN)));
+        for (int i = 0; i < 3; i++) {
+            Collections.rotate(same, 1);
+            assertEquals(10, index(same).find(new BigDecimal("3")).id());
+        }
+
+        PolicyIntervalIndex<Policy> empty = index(List.of());
+        assertEquals(0, empty.size());
+        assertNull(empty.find(five));
+    }
+
+    /* ===== 전수 탐색 ===== */
+
+    private static Policy scan(List<Policy> rows, BigDecimal x) {
+        return rows.stream()
+                .filter(p -> valid(p) && p.min().compareTo(x) <= 0 && p.max().compareTo(x) >= 0)
+                .min(Comparator.comparingLong(Policy::id))
+                .orElse(null);
+    }
+
+    private static boolean valid(Policy p) {
+        return p.min() != null && p.max() != null && p.min().compareTo(p.max()) <= 0;
+    }
+
+    private static PolicyIntervalIndex<Policy> index(List<Policy> rows) {
+        return PolicyIntervalIndex.of(rows, Policy::min, Policy::max, Policy::id);
+    }
+
+    /* ===== 입력 ===== */
+
+    // 끝점은 0.0 ~ 40.0 의 0.5 격자(맞닿음·중복이 자주 생기게), id 는 중복 없이 섞어서
+    private static List<Policy> randomPolicies(Random r, int n) {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= n; i++) ids.add(i * 3);
+        Collections.shuffle(ids, r);
+        List<Policy> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int lo = r.nextInt(81) * 5;
+            int hi = switch (r.nextInt(10)) {
+                case 0 -> lo;                          // 점 구간
+                case 1 -> lo - 5 - r.nextInt(50);      // 뒤집힌 구간
+                default -> lo + r.nextInt(120);
+            };
+            hi = hi - hi % 5;
+            BigDecimal min = (r.nextInt(15) == 0) ? null : decimal(r, lo);
+            BigDecimal max = (r.nextInt(15) == 0) ? null : decimal(r, hi);
+            rows.add(new Policy(ids.get(i), min, max));
+        }
+        return rows;
+    }
+
+    // tenths / 10 을 scale 1~3 중 하나로(값은 같고 표현만 다름, 정수면 scale 0 도)
+    private static BigDecimal decimal(Random r, int tenths) {
+        BigDecimal v = BigDecimal.valueOf(tenths, 1);
+        int scale = 1 + r.nextInt(3);
+        if (tenths % 10 == 0 && r.nextBoolean()) scale = 0;
+        return v.setScale(scale);
+    }
+}
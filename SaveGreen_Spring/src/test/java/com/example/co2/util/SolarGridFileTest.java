@@ -0,0 +1,147 @@
+package com.example.co2.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * 일사량 격자 파일(SolarGridFile) 검증.
+ *  - 쓰기 → open(매핑)/read(스트림) 왕복: 헤더 값과 모든 노드 값이 그대로
+ *  - 본문 1바이트 변조 → checksum mismatch
+ *  - 격자 밖 → NaN
+ *  - NaN 노드는 빼고 남은 양선형 가중치로 정규화
+ */
+class SolarGridFileTest {
+
+    private static final int ROWS = 5, COLS = 7;
+    private static final double LAT0 = 33.0, LON0 = 124.5, STEP = 0.5;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsHeaderAndNodes() throws IOException {
+        float[][] values = randomPlanes(new Random(13L));
+        values[SolarGridFile.ANNUAL][3] = Float.NaN;
+        Path file = dir.resolve("grid.bin");
+        SolarGridFile.write(file, ROWS, COLS, LAT0, LON0, STEP, 2024, values);
+
+        SolarGridFile mapped = SolarGridFile.open(file);
+        SolarGridFile heap = SolarGridFile.read(new ByteArrayInputStream(Files.readAllBytes(file)), "heap");
+        for (SolarGridFile g : new SolarGridFile[]{mapped, heap}) {
+            assertEquals(ROWS, g.rows());
+            assertEquals(COLS, g.cols());
+            assertEquals(LAT0, g.lat0());
+            assertEquals(LON0, g.lon0());
+            assertEquals(STEP, g.step());
+            assertEquals(2024, g.year());
+            // 노드 위에서는 보간값 = 노드 값(float → double 그대로)
+            for (int p = 0; p < SolarGridFile.PLANES; p++) {
+                for (int i = 0; i < ROWS; i++) {
+                    for (int j = 0; j < COLS; j++) {
+                        float v = values[p][i * COLS + j];
+                        double got = g.interpolate(p, LAT0 + i * STEP, LON0 + j * STEP);
+                        if (Float.isNaN(v)) continue; // 이웃 노드가 없으니 정규화 결과는 아래 테스트에서
+                        assertEquals((double) v, got, 0.0, "plane " + p + " node " + i + "," + j);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void corruptedBodyFailsChecksum() throws IOException {
+        Path file = dir.resolve("grid.bin");
+        SolarGridFile.write(file, ROWS, COLS, LAT0, LON0, STEP, 2024, randomPlanes(new Random(1L)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 5] ^= 0x01;
+        Files.write(file, bytes);
+
+        IOException mapped = assertThrows(IOException.class, () -> SolarGridFile.open(file));
+        assertTrue(mapped.getMessage().contains("checksum"), mapped.getMessage());
+        IOException heap = assertThrows(IOException.class,
+                () -> SolarGridFile.read(new ByteArrayInputStream(bytes), "heap"));
+        assertTrue(heap.getMessage().contains("checksum"), heap.getMessage());
+    }
+
+    @Test
+    void outsideGridIsNaN() throws IOException {
+        SolarGridFile g = write(randomPlanes(new Random(2L)));
+        double north = LAT0 + (ROWS - 1) * STEP, east = LON0 + (COLS - 1) * STEP;
+        assertTrue(Double.isNaN(g.annual(LAT0 - 1e-9, 126.0)));
+        assertTrue(Double.isNaN(g.annual(north + 1e-9, 126.0)));
+        assertTrue(Double.isNaN(g.annual(34.0, LON0 - 1e-9)));
+        assertTrue(Double.isNaN(g.annual(34.0, east + 1e-9)));
+        assertTrue(Double.isNaN(g.annual(Double.NaN, 126.0)));
+        // 경계 자체는 격자 안
+        assertTrue(!Double.isNaN(g.annual(north, east)));
+        assertTrue(!Double.isNaN(g.annual(LAT0, LON0)));
+        assertThrows(IllegalArgumentException.class, () -> g.monthly(34.0, 126.0, 13));
+    }
+
+    @Test
+    void bilinearWeightsRenormaliseAroundNaNNodes() throws IOException {
+        float[][] values = new float[SolarGridFile.PLANES][ROWS * COLS];
+        for (float[] plane : values) Arrays.fill(plane, Float.NaN);
+        float[] annual = values[SolarGridFile.ANNUAL];
+        // 칸 (1,1)-(2,2): 세 노드만 값, (2,2) 는 결측
+        annual[COLS + 1] = 4.0f;
+        annual[COLS + 2] = 5.0f;
+        annual[2 * COLS + 1] = 3.0f;
+        SolarGridFile g = write(values);
+
+        double lat = LAT0 + (1 + 0.25) * STEP, lon = LON0 + (1 + 0.5) * STEP; // fy = 0.25, fx = 0.5
+        double w00 = 0.75 * 0.5, w01 = 0.75 * 0.5, w10 = 0.25 * 0.5;
+        double expected = (w00 * 4.0 + w01 * 5.0 + w10 * 3.0) / (w00 + w01 + w10);
+        assertEquals(expected, g.annual(lat, lon), 1e-12);
+
+        // 값이 있는 노드 위 = 그 값, 결측 노드 위 = NaN(가중치 1 이 결측)
+        assertEquals(4.0, g.annual(LAT0 + STEP, LON0 + STEP), 0.0);
+        assertTrue(Double.isNaN(g.annual(LAT0 + 2 * STEP, LON0 + 2 * STEP)));
+        // 네 노드가 모두 결측인 칸 → NaN
+        assertTrue(Double.isNaN(g.annual(LAT0 + 3.5 * STEP, LON0 + 4.5 * STEP)));
+        // 평면은 서로 독립 — 월 평면은 전부 결측
+        assertTrue(Double.isNaN(g.monthly(lat, lon, 1)));
+    }
+
+    @Test
+    void plainBilinearMatchesFormula() throws IOException {
+        float[][] values = randomPlanes(new Random(3L));
+        SolarGridFile g = write(values);
+        Random r = new Random(4L);
+        for (int n = 0; n < 10_000; n++) {
+            double y = r.nextDouble() * (ROWS - 1), x = r.nextDouble() * (COLS - 1);
+            int i = Math.min((int) y, ROWS - 2), j = Math.min((int) x, COLS - 2);
+            double fy = y - i, fx = x - j;
+            int month = 1 + r.nextInt(12);
+            float[] p = values[month];
+            double expected = (1 - fy) * (1 - fx) * p[i * COLS + j] + (1 - fy) * fx * p[i * COLS + j + 1]
+                    + fy * (1 - fx) * p[(i + 1) * COLS + j] + fy * fx * p[(i + 1) * COLS + j + 1];
+            assertEquals(expected, g.monthly(LAT0 + y * STEP, LON0 + x * STEP, month), 1e-9);
+        }
+    }
+
+    private SolarGridFile write(float[][] values) throws IOException {
+        Path file = dir.resolve("grid-" + System.nanoTime() + ".bin");
+        SolarGridFile.write(file, ROWS, COLS, LAT0, LON0, STEP, 2024, values);
+        return SolarGridFile.open(file);
+    }
+
+    private static float[][] randomPlanes(Random r) {
+        float[][] values = new float[SolarGridFile.PLANES][ROWS * COLS];
+        for (float[] plane : values) {
+            for (int k = 0; k < plane.length; k++) plane[k] = 2.0f + 4.0f * r.nextFloat();
+        }
+        return values;
+    }
+}